@@ -0,0 +1,55 @@
+package com.ramrk.bankingapp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ramrk.bankingapp.service.impl.RandomAccountNumberGenerator;
+import com.ramrk.bankingapp.service.impl.TimeOrderedAccountNumberGenerator;
+
+/**
+ * Time-ordered generator against the original UUID-based scheme, uncontended and
+ * with eight threads sharing one generator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountNumberGeneratorBenchmark {
+
+    private final TimeOrderedAccountNumberGenerator timeOrdered = new TimeOrderedAccountNumberGenerator(1);
+    private final RandomAccountNumberGenerator random = new RandomAccountNumberGenerator();
+
+    @Benchmark
+    public String timeOrdered() {
+        return timeOrdered.next();
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return random.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String timeOrdered_8threads() {
+        return timeOrdered.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String randomUuid_8threads() {
+        return random.next();
+    }
+}
@@ -0,0 +1,107 @@
+package com.ramrk.bankingapp.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ramrk.bankingapp.BankingappApplication;
+import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.repository.AccountRepository;
+import com.ramrk.bankingapp.service.AccountService;
+import com.ramrk.bankingapp.service.impl.AccountServiceImpl;
+
+/**
+ * Cache-miss reads: loading managed entities and mapping them with {@code toDto}
+ * against building {@link AccountDto} projections straight from the result set.
+ * Run with {@code -Djmh.include=AccountReadPath} and add {@code -prof gc} to the
+ * exec arguments for allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class AccountReadPathBenchmark {
+
+    private static final int ACCOUNTS = 1_000;
+    private static final int PAGE = 50;
+
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private TransactionTemplate readOnly;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(BankingappApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("logging.level.root=WARN")
+                .run();
+        accountRepository = context.getBean(AccountRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        AccountService accountService = context.getBean(AccountService.class);
+        firstId = accountService.create(new CreateAccountRequest("Bench", "bench@example.com", BigDecimal.TEN)).getId();
+        for (int i = 1; i < ACCOUNTS; i++) {
+            accountService.create(new CreateAccountRequest("Bench " + i, "bench" + i + "@example.com", BigDecimal.TEN));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    private long anyId() {
+        return firstId + ThreadLocalRandom.current().nextInt(ACCOUNTS - PAGE);
+    }
+
+    @Benchmark
+    public AccountDto getByIdEntity() {
+        long id = anyId();
+        return readOnly.execute(s -> AccountServiceImpl.toDto(accountRepository.findById(id).orElseThrow()));
+    }
+
+    @Benchmark
+    public AccountDto getByIdProjection() {
+        long id = anyId();
+        return readOnly.execute(s -> accountRepository.findDtoById(id).orElseThrow());
+    }
+
+    @Benchmark
+    public List<AccountDto> getAllEntity() {
+        long after = anyId();
+        return readOnly.execute(s -> accountRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(PAGE + 1)).stream()
+                .limit(PAGE).map(AccountServiceImpl::toDto).collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<AccountDto> getAllProjection() {
+        long after = anyId();
+        return readOnly.execute(s -> accountRepository.findDtoPageAfter(after, Limit.of(PAGE + 1)));
+    }
+}
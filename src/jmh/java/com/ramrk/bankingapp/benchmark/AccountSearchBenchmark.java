@@ -0,0 +1,124 @@
+package com.ramrk.bankingapp.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ramrk.bankingapp.config.SearchProperties;
+import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.search.AccountSearchIndex;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * {@link AccountSearchIndex} over a million generated accounts ("Given Surname",
+ * "given.surname123@domain"): a selective email fragment, a surname shared by about
+ * 1 in 500 accounts, a two-character word prefix, a very common word and a very common
+ * fragment from inside a word, which hits the candidate cap. Setup prints the build time and the index's estimated size.
+ * Run with {@code -Djmh.include=AccountSearch}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class AccountSearchBenchmark {
+
+    private static final int ACCOUNTS = 1_000_000;
+    private static final String[] GIVEN = {"anna", "bob", "carla", "dmitri", "elena", "farid", "grace", "hiro", "ines", "jonas",
+            "kofi", "lena", "mateo", "nadia", "oscar", "priya", "quentin", "rosa", "sven", "tomas", "uma", "victor", "wen", "xavier",
+            "yara", "zoltan", "amir", "beatriz", "chen", "dalia"};
+    private static final String[] DOMAINS = {"example.com", "mail.test", "bank.example", "post.example", "inbox.test"};
+
+    private AccountSearchIndex index;
+    private String[] selective;
+    private String[] surnames;
+    private int call;
+
+    @Setup(Level.Trial)
+    public void build() {
+        Random random = new Random(42);
+        String[] surnamePool = new String[500];
+        for (int i = 0; i < surnamePool.length; i++) {
+            surnamePool[i] = syllables(random, 3);
+        }
+        String[][] people = new String[ACCOUNTS][];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            String given = GIVEN[random.nextInt(GIVEN.length)];
+            String surname = surnamePool[random.nextInt(surnamePool.length)];
+            people[i] = new String[] {capitalize(given) + " " + capitalize(surname),
+                    given + "." + surname + random.nextInt(1000) + "@" + DOMAINS[random.nextInt(DOMAINS.length)]};
+        }
+        selective = new String[64];
+        surnames = new String[64];
+        for (int i = 0; i < selective.length; i++) {
+            String[] person = people[random.nextInt(ACCOUNTS)];
+            selective[i] = person[1].substring(person[1].indexOf('.') + 1, person[1].indexOf('@'));
+            surnames[i] = surnamePool[random.nextInt(surnamePool.length)];
+        }
+
+        index = new AccountSearchIndex(new SearchProperties(), new SimpleMeterRegistry());
+        long start = System.nanoTime();
+        index.rebuild(LongStream.range(0, ACCOUNTS).mapToObj(i ->
+                new AccountDto(i + 1, "ACC" + i, people[(int) i][0], people[(int) i][1], null, null, null)));
+        System.out.printf("%nIndexed %,d accounts in %d ms, estimated %,d MiB%n", index.size(),
+                (System.nanoTime() - start) / 1_000_000, index.estimatedBytes() / (1024 * 1024));
+    }
+
+    private static String syllables(Random random, int count) {
+        String consonants = "bcdfghklmnprstvz";
+        String vowels = "aeiou";
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            s.append(consonants.charAt(random.nextInt(consonants.length()))).append(vowels.charAt(random.nextInt(vowels.length())));
+        }
+        return s.toString();
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+
+    /** Surname plus the number: a handful of accounts. */
+    @Benchmark
+    public List<Long> selectiveEmailFragment() {
+        return index.search(selective[call++ & 63], 20);
+    }
+
+    /** About 2,000 accounts carry each surname, in the name and the email. */
+    @Benchmark
+    public List<Long> surname() {
+        return index.search(surnames[call++ & 63], 20);
+    }
+
+    @Benchmark
+    public List<Long> twoCharacterPrefix() {
+        return index.search(GIVEN[call++ % GIVEN.length].substring(0, 2), 20);
+    }
+
+    /** Starts a word in most emails, so the first hits found are already the best possible. */
+    @Benchmark
+    public List<Long> unselectiveWord() {
+        return index.search("example", 20);
+    }
+
+    /** Inside a word in most emails; only the first max-candidates matches are ranked. */
+    @Benchmark
+    public List<Long> unselectiveFragment() {
+        return index.search("xampl", 20);
+    }
+}
@@ -0,0 +1,84 @@
+package com.ramrk.bankingapp.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.dto.AccountPage;
+import com.ramrk.bankingapp.model.Account;
+import com.ramrk.bankingapp.service.impl.AccountServiceImpl;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Entity-to-DTO mapping and JSON rendering of single accounts and of pages of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountSerializationBenchmark {
+
+    private final ObjectMapper mapper = JsonMapper.builder().build();
+    private Account account;
+    private AccountDto dto;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        account = new Account(42L, "1234567890123456789", "Benchmark Owner", "owner@example.com",
+                new BigDecimal("1234.56"), now, now);
+        dto = AccountServiceImpl.toDto(account);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Page {
+        @Param({"50", "500"})
+        public int size;
+
+        AccountPage page;
+
+        @Setup
+        public void setUp() {
+            LocalDateTime now = LocalDateTime.now();
+            List<AccountDto> items = IntStream.range(0, size)
+                    .mapToObj(i -> AccountServiceImpl.toDto(new Account((long) i, "ACC" + i, "Owner " + i, "o" + i + "@example.com",
+                            BigDecimal.valueOf(i, 2), now, now)))
+                    .toList();
+            page = new AccountPage(items, (long) size);
+        }
+    }
+
+    @Benchmark
+    public AccountDto toDto() {
+        return AccountServiceImpl.toDto(account);
+    }
+
+    @Benchmark
+    public byte[] serializeAccount() {
+        return mapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public byte[] serializePage(Page page) {
+        return mapper.writeValueAsBytes(page.page);
+    }
+}
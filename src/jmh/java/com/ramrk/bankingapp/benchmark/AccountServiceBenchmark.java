@@ -0,0 +1,113 @@
+package com.ramrk.bankingapp.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.ramrk.bankingapp.BankingappApplication;
+import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.dto.AccountPage;
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.dto.TransferResult;
+import com.ramrk.bankingapp.dto.UpdateAccountRequest;
+import com.ramrk.bankingapp.service.AccountService;
+
+/**
+ * End-to-end {@link AccountService} operations on the test profile (H2, in-memory
+ * cache tier), through the real transaction and caching layers but without HTTP.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class AccountServiceBenchmark {
+
+    private static final int ACCOUNTS = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private final List<AccountDto> accounts = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(BankingappApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("logging.level.root=WARN")
+                .run();
+        accountService = context.getBean(AccountService.class);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(accountService.create(new CreateAccountRequest("Bench " + i, "bench" + i + "@example.com", new BigDecimal("1000000.00"))));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    private AccountDto any() {
+        return accounts.get(ThreadLocalRandom.current().nextInt(ACCOUNTS));
+    }
+
+    @Benchmark
+    public AccountDto create() {
+        return accountService.create(new CreateAccountRequest("New owner", "new@example.com", BigDecimal.TEN));
+    }
+
+    @Benchmark
+    public AccountDto getById() {
+        return accountService.getById(any().getId());
+    }
+
+    @Benchmark
+    public AccountDto getByAccountNumber() {
+        return accountService.getByAccountNumber(any().getAccountNumber());
+    }
+
+    @Benchmark
+    public AccountPage getAllPage() {
+        return accountService.getAll(any().getId(), 50);
+    }
+
+    @Benchmark
+    public AccountDto update() {
+        AccountDto account = any();
+        return accountService.update(account.getId(), new UpdateAccountRequest(account.getOwnerName(), "changed@example.com"));
+    }
+
+    @Benchmark
+    public AccountDto deposit() {
+        return accountService.deposit(any().getId(), BigDecimal.ONE);
+    }
+
+    @Benchmark
+    public TransferResult transfer() {
+        AccountDto from = any();
+        AccountDto to = any();
+        if (from.getId().equals(to.getId())) {
+            to = accounts.get((accounts.indexOf(from) + 1) % ACCOUNTS);
+        }
+        return accountService.transfer(from.getId(), to.getId(), BigDecimal.ONE);
+    }
+}
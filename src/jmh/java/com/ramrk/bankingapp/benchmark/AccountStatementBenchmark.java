@@ -0,0 +1,182 @@
+package com.ramrk.bankingapp.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ramrk.bankingapp.BankingappApplication;
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.dto.StatementEntry;
+import com.ramrk.bankingapp.dto.StatementPage;
+import com.ramrk.bankingapp.repository.AccountTransactionRepository;
+import com.ramrk.bankingapp.service.AccountService;
+
+/**
+ * Statement pages for an account with two million entries (plus a million more spread
+ * over other accounts) in a file-backed H2 database: keyset pages at the start, middle
+ * and end of the history against OFFSET pages at the same depths, and a one-month
+ * range through the service. Keyset pages should cost the same at every depth.
+ * Run with {@code -Djmh.include=AccountStatement}; seeding takes a minute or so.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class AccountStatementBenchmark {
+
+    private static final int ENTRIES = 2_000_000;
+    private static final int OTHER_ENTRIES = 1_000_000;
+    private static final int PAGE = 100;
+    private static final int SEED_SLICE = 100_000;
+    private static final int VARIANTS = 64;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    /** One entry every 30 seconds covers a little under two years */
+    private static final LocalDateTime END = START.plusSeconds(30L * ENTRIES);
+
+    private ConfigurableApplicationContext context;
+    private AccountTransactionRepository transactionRepository;
+    private AccountService accountService;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private long accountId;
+    private Position[] first;
+    private Position[] middle;
+    private Position[] last;
+    private int call;
+
+    private record Position(LocalDateTime at, long id, int depth) {}
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(BankingappApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("logging.level.root=WARN")
+                // an argument, so it wins over the test profile's in-memory url
+                .run("--spring.datasource.url=jdbc:h2:file:./target/statement-bench/" + UUID.randomUUID());
+        transactionRepository = context.getBean(AccountTransactionRepository.class);
+        accountService = context.getBean(AccountService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        accountId = accountService.create(new CreateAccountRequest("Heavy", "heavy@example.com", BigDecimal.ZERO)).getId();
+        // H2 cannot type parameters inside system_range/dateadd, so the constants are inlined
+        // and inserted in slices to keep each transaction small
+        String start = "timestamp '" + Timestamp.valueOf(START) + "'";
+        for (int from = 1; from <= ENTRIES; from += SEED_SLICE) {
+            jdbcTemplate.update("insert into account_transactions (id, account_id, occurred_at, type, amount, balance_after)"
+                    + " select x, " + accountId + ", dateadd(second, x * 30, " + start + "), 'DEPOSIT', 1, x"
+                    + " from system_range(" + from + ", " + (from + SEED_SLICE - 1) + ")");
+        }
+        for (int from = 1; from <= OTHER_ENTRIES; from += SEED_SLICE) {
+            jdbcTemplate.update("insert into account_transactions (id, account_id, occurred_at, type, amount, balance_after)"
+                    + " select " + ENTRIES + " + x, " + (accountId + 1) + " + mod(x, 1000), dateadd(second, x * 60, " + start + "), 'DEPOSIT', 1, x"
+                    + " from system_range(" + from + ", " + (from + SEED_SLICE - 1) + ")");
+        }
+        jdbcTemplate.execute("analyze");
+        Long seeded = jdbcTemplate.queryForObject("select count(*) from account_transactions", Long.class);
+        if (seeded == null || seeded != ENTRIES + OTHER_ENTRIES) {
+            throw new IllegalStateException("Seeded " + seeded + " entries");
+        }
+
+        first = positionsAt(1);
+        middle = positionsAt(ENTRIES / 2);
+        last = positionsAt(ENTRIES - PAGE - VARIANTS);
+    }
+
+    /**
+     * Cursors a client would hold after paging {@code depth}, {@code depth + 1}, ... entries
+     * in. Calls cycle through them because H2 hands back the previous result when a
+     * statement is re-run with the same parameters.
+     */
+    private Position[] positionsAt(int depth) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("select occurred_at, id from account_transactions"
+                + " where account_id = ? order by account_id, occurred_at, id limit ? offset ?", accountId, VARIANTS, depth - 1);
+        Position[] positions = new Position[rows.size()];
+        for (int i = 0; i < positions.length; i++) {
+            Map<String, Object> row = rows.get(i);
+            positions[i] = new Position(((Timestamp) row.get("OCCURRED_AT")).toLocalDateTime(),
+                    ((Number) row.get("ID")).longValue(), depth + i);
+        }
+        return positions;
+    }
+
+    private Position next(Position[] positions) {
+        return positions[call++ % positions.length];
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    private List<StatementEntry> keyset(Position after) {
+        return readOnly.execute(s -> transactionRepository.findStatementPage(accountId, after.at(), after.id(), END, Limit.of(PAGE + 1)));
+    }
+
+    private List<Map<String, Object>> offset(Position after) {
+        return readOnly.execute(s -> jdbcTemplate.queryForList("select id, occurred_at, type, amount, balance_after, counterparty_id"
+                + " from account_transactions where account_id = ? and occurred_at >= ? and occurred_at < ?"
+                + " order by account_id, occurred_at, id limit ? offset ?",
+                accountId, Timestamp.valueOf(START), Timestamp.valueOf(END), PAGE + 1, after.depth()));
+    }
+
+    @Benchmark
+    public List<StatementEntry> keysetFirstPage() {
+        return keyset(next(first));
+    }
+
+    @Benchmark
+    public List<StatementEntry> keysetMiddlePage() {
+        return keyset(next(middle));
+    }
+
+    @Benchmark
+    public List<StatementEntry> keysetLastPage() {
+        return keyset(next(last));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> offsetMiddlePage() {
+        return offset(next(middle));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> offsetLastPage() {
+        return offset(next(last));
+    }
+
+    /** The full request path for a month in the middle of the history: account check, range scan, cursor. */
+    @Benchmark
+    public StatementPage serviceMonthInTheMiddle() {
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0).plusHours(call++ % VARIANTS);
+        return accountService.getStatement(accountId, from, from.plusMonths(1), null, PAGE);
+    }
+}
@@ -0,0 +1,112 @@
+package com.ramrk.bankingapp.benchmark;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.qos.logback.classic.Level;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.MethodParameter;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import com.ramrk.bankingapp.config.ErrorResponseProperties;
+import com.ramrk.bankingapp.controller.AccountController;
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.exception.GlobalExceptionHandler;
+import com.ramrk.bankingapp.exception.ResourceNotFoundException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Cost of turning exceptions into problem responses: throwing the exception from
+ * {@value #FRAMES} frames down, about the depth of a controller call under Tomcat, the
+ * filter chain and Spring MVC, then running the handler and getting the body's bytes.
+ * {@code notFoundWithTrace} is the 404 path as it was before, a stack-filled exception
+ * and a map body rendered by Jackson on every miss. Run with {@code -prof gc} for the
+ * allocation per error. The handler's own logging is switched off so the console does
+ * not dominate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorRenderingBenchmark {
+
+    private static final int FRAMES = 100;
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(new SimpleMeterRegistry(), new ErrorResponseProperties());
+    private final ObjectMapper mapper = JsonMapper.builder().build();
+    private MethodParameter createParameter;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(GlobalExceptionHandler.class)).setLevel(Level.OFF);
+        createParameter = new MethodParameter(AccountController.class.getMethod("create", CreateAccountRequest.class), 0);
+    }
+
+    @Benchmark
+    public byte[] notFound() {
+        try {
+            throwFrom(FRAMES, () -> new ResourceNotFoundException("Account not found"));
+            return null;
+        } catch (ResourceNotFoundException e) {
+            return handler.handleNotFound(e).getBody();
+        }
+    }
+
+    @Benchmark
+    public byte[] notFoundWithTrace() {
+        try {
+            throwFrom(FRAMES, () -> new RuntimeException("Account not found"));
+            return null;
+        } catch (RuntimeException e) {
+            Map<String, String> body = new HashMap<>();
+            body.put("message", e.getMessage());
+            return mapper.writeValueAsBytes(body);
+        }
+    }
+
+    @Benchmark
+    public byte[] validation() {
+        CreateAccountRequest request = new CreateAccountRequest(" ", "not-an-email", BigDecimal.ONE);
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(request, "createAccountRequest");
+        errors.rejectValue("ownerName", "NotBlank", "must not be blank");
+        errors.rejectValue("email", "Email", "must be a well-formed email address");
+        return handler.handleValidation(new MethodArgumentNotValidException(createParameter, errors)).getBody();
+    }
+
+    @Benchmark
+    public byte[] unexpected() {
+        try {
+            throwFrom(FRAMES, () -> new IllegalStateException("Unexpected failure"));
+            return null;
+        } catch (IllegalStateException e) {
+            return handler.handleGeneric(e).getBody();
+        }
+    }
+
+    private static void throwFrom(int depth, Supplier<? extends RuntimeException> failure) {
+        if (depth == 0) {
+            throw failure.get();
+        }
+        throwFrom(depth - 1, failure);
+    }
+}
@@ -0,0 +1,97 @@
+package com.ramrk.bankingapp.benchmark;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import com.ramrk.bankingapp.BankingappApplication;
+import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.service.AccountService;
+
+/**
+ * Write throughput as shards are added: creates and deposits from 16 threads against
+ * 1, 2 and 4 file-backed H2 shards, each writing its own database file on every
+ * commit. Every shard gets its own pool and balance-engine lanes, so the writes of
+ * different shards only share the machine. Embedded shards share this JVM's cores:
+ * run it with at least as many cores as shards, otherwise it measures the routing
+ * overhead rather than the scaling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(16)
+@Fork(1)
+public class ShardedWriteBenchmark {
+
+    private static final int ACCOUNTS = 2_000;
+
+    @Param({"1", "2", "4"})
+    private int shards;
+
+    private Path dir;
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private final List<Long> accounts = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        dir = Files.createTempDirectory("sharded-write-benchmark");
+        List<String> properties = new ArrayList<>(List.of("logging.level.root=WARN", "banking.journal.enabled=false"));
+        for (int i = 0; i < shards; i++) {
+            properties.add("banking.sharding.shards[" + i + "].url=jdbc:h2:file:" + dir.resolve("shard-" + i) + ";WRITE_DELAY=0");
+            properties.add("banking.sharding.shards[" + i + "].hikari.maximum-pool-size=8");
+        }
+        context = new SpringApplicationBuilder(BankingappApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(properties.toArray(String[]::new))
+                .run();
+        accountService = context.getBean(AccountService.class);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(accountService.create(new CreateAccountRequest("Bench " + i, null, new BigDecimal("1000000.00"))).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public AccountDto create() {
+        return accountService.create(new CreateAccountRequest("New owner", "new@example.com", BigDecimal.TEN));
+    }
+
+    @Benchmark
+    public AccountDto deposit() {
+        return accountService.deposit(accounts.get(ThreadLocalRandom.current().nextInt(ACCOUNTS)), BigDecimal.ONE);
+    }
+}
@@ -0,0 +1,97 @@
+package com.ramrk.bankingapp.benchmark;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import com.ramrk.bankingapp.config.JournalProperties;
+import com.ramrk.bankingapp.journal.JournalRecord;
+import com.ramrk.bankingapp.journal.TransactionJournal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Appends per second and commit latency (see the p0.99 line of the sample-time
+ * results) for one record per commit, sixteen writers sharing the journal.
+ * <ul>
+ * <li>{@code sync-0ms}: fsync as soon as anything is pending; groups only form while a sync is running</li>
+ * <li>{@code sync-1ms}: wait up to 1 ms (or 64 records) so more writers share each fsync</li>
+ * <li>{@code async}: writers never wait; the journal is forced every 5 ms in the background</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(16)
+public class TransactionJournalBenchmark {
+
+    @Param({"sync-0ms", "sync-1ms", "async"})
+    public String policy;
+
+    private Path dir;
+    private TransactionJournal journal;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        dir = Files.createTempDirectory("journal-bench");
+        JournalProperties properties = new JournalProperties();
+        properties.setDir(dir.toString());
+        properties.setSegmentSize(DataSize.ofMegabytes(256));
+        switch (policy) {
+            case "sync-0ms" -> properties.setFlushInterval(Duration.ZERO);
+            case "sync-1ms" -> {
+                properties.setFlushInterval(Duration.ofMillis(1));
+                properties.setMaxBatch(64);
+            }
+            case "async" -> {
+                properties.setSync(false);
+                properties.setFlushInterval(Duration.ofMillis(5));
+            }
+            default -> throw new IllegalArgumentException(policy);
+        }
+        journal = new TransactionJournal(properties, new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        journal.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void appendAndCommit() {
+        long account = ThreadLocalRandom.current().nextLong(1_000_000);
+        journal.append(List.of(JournalRecord.of(JournalRecord.Type.DEPOSIT, account,
+                new BigDecimal("10.00"), new BigDecimal("110.00"), 2))).join();
+    }
+}
@@ -0,0 +1,186 @@
+package com.ramrk.bankingapp.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ramrk.bankingapp.config.AccountCacheProperties;
+import com.ramrk.bankingapp.dto.AccountDto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Read-through cache for accounts: a bounded in-process tier (L1) in front of a
+ * {@link SharedAccountCache} (L2), in front of the loader supplied by the caller.
+ * The account-number lookup only caches the number-to-id mapping, which never
+ * changes, so invalidating by id is enough to keep both lookups consistent.
+ * Concurrent misses for the same account share one load through {@link SingleFlight}.
+ */
+@Component
+public class AccountCache {
+
+    /** Power of two; ids map to stripes by their low bits, so consecutive ids never share one */
+    private static final int VERSION_STRIPES = 4096;
+
+    private final Cache<Long, AccountDto> byId;
+    private final Cache<String, Long> idByNumber;
+    private final SharedAccountCache shared;
+    /**
+     * Per-stripe invalidation versions, bumped when an id in the stripe is invalidated.
+     * A load that overlaps an invalidation of its stripe may have read the old row, so
+     * its result is returned but not cached; loads of unrelated accounts are unaffected.
+     */
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    /**
+     * Bumped on every invalidation. Only guards number lookups whose id is not known
+     * yet, which cannot be attributed to a stripe until the row has been read.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Counter remoteInvalidations;
+    /**
+     * Misses for the same key share one load. Flights are keyed by the version seen at
+     * arrival (negative when it is the global count), so a caller never joins a load that
+     * started before a write it may already have seen committed.
+     */
+    private final SingleFlight<Flight<Long>, AccountDto> idLoads;
+    private final SingleFlight<Flight<String>, AccountDto> numberLoads;
+
+    private record Flight<K>(K key, long epoch) {
+    }
+
+    public AccountCache(AccountCacheProperties properties, SharedAccountCache shared, MeterRegistry meterRegistry) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(properties.getL1MaximumSize())
+                .expireAfterWrite(properties.getL1Ttl())
+                .recordStats()
+                .build();
+        this.idByNumber = Caffeine.newBuilder()
+                .maximumSize(properties.getL1MaximumSize())
+                .expireAfterWrite(properties.getL1Ttl())
+                .recordStats()
+                .build();
+        this.shared = shared;
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "accounts.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByNumber, "accounts.byNumber");
+        this.l2Hits = Counter.builder("banking.cache.l2.gets").tag("result", "hit").register(meterRegistry);
+        this.l2Misses = Counter.builder("banking.cache.l2.gets").tag("result", "miss").register(meterRegistry);
+        this.remoteInvalidations = Counter.builder("banking.cache.invalidations").tag("source", "remote").register(meterRegistry);
+        this.idLoads = new SingleFlight<>("id", meterRegistry);
+        this.numberLoads = new SingleFlight<>("number", meterRegistry);
+        shared.onEviction(id -> {
+            remoteInvalidations.increment();
+            evictLocal(id);
+        });
+    }
+
+    /** Account by id from L1, then L2, then the loader (which may throw for unknown ids). */
+    public AccountDto getById(Long id, Function<Long, AccountDto> loader) {
+        AccountDto dto = byId.getIfPresent(id);
+        if (dto != null) {
+            return dto;
+        }
+        dto = getShared(id);
+        if (dto != null) {
+            byId.put(id, dto);
+            return dto;
+        }
+        int stripe = stripe(id);
+        long seen = versions.get(stripe);
+        dto = idLoads.load(new Flight<>(id, seen), flight -> loader.apply(flight.key()));
+        if (versions.get(stripe) == seen) {
+            store(dto);
+        }
+        return dto;
+    }
+
+    /** Account by account number, resolved through the cached number-to-id mapping where possible. */
+    public AccountDto getByAccountNumber(String accountNumber, Function<String, AccountDto> loader) {
+        Long id = idByNumber.getIfPresent(accountNumber);
+        if (id == null) {
+            id = shared.getIdByNumber(accountNumber);
+        }
+        if (id != null) {
+            AccountDto dto = byId.getIfPresent(id);
+            if (dto == null) {
+                dto = getShared(id);
+            }
+            if (dto != null) {
+                byId.put(id, dto);
+                idByNumber.put(accountNumber, id);
+                return dto;
+            }
+        }
+        int stripe = id == null ? -1 : stripe(id);
+        long seen = version(stripe);
+        AccountDto dto = numberLoads.load(new Flight<>(accountNumber, seen), flight -> loader.apply(flight.key()));
+        if (version(stripe) == seen) {
+            store(dto);
+        }
+        return dto;
+    }
+
+    /** Account by id if either tier holds it; never loads and never fills the cache. */
+    public AccountDto peek(Long id) {
+        AccountDto dto = byId.getIfPresent(id);
+        return dto != null ? dto : getShared(id);
+    }
+
+    /**
+     * Drop the account from both tiers and from every other node's L1. Inside a
+     * transaction this happens after commit, so readers cannot re-cache the old row.
+     */
+    public void evict(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictEverywhere(id);
+                }
+            });
+        } else {
+            evictEverywhere(id);
+        }
+    }
+
+    private void evictEverywhere(Long id) {
+        evictLocal(id);
+        shared.evict(id);
+    }
+
+    private void evictLocal(Long id) {
+        versions.incrementAndGet(stripe(id));
+        invalidations.incrementAndGet();
+        byId.invalidate(id);
+    }
+
+    private static int stripe(long id) {
+        return (int) (id ^ (id >>> 32)) & (VERSION_STRIPES - 1);
+    }
+
+    /** Version of the stripe, or for stripe -1 the negated global count so the two never collide in a flight key. */
+    private long version(int stripe) {
+        return stripe < 0 ? -1 - invalidations.get() : versions.get(stripe);
+    }
+
+    private AccountDto getShared(Long id) {
+        AccountDto dto = shared.get(id);
+        (dto != null ? l2Hits : l2Misses).increment();
+        return dto;
+    }
+
+    private void store(AccountDto dto) {
+        shared.put(dto);
+        byId.put(dto.getId(), dto);
+        idByNumber.put(dto.getAccountNumber(), dto.getId());
+    }
+}
@@ -0,0 +1,209 @@
+package com.ramrk.bankingapp.cache;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ramrk.bankingapp.config.AccountNumberFilterProperties;
+import com.ramrk.bankingapp.repository.AccountRepository;
+import com.ramrk.bankingapp.shard.AccountShards;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bloom filter over every existing account number, so lookups for numbers that
+ * were never issued are answered without touching the cache tiers or the database.
+ * Until the first build finishes every number is reported as possibly present.
+ * <p>
+ * Deleted numbers cannot be removed from a Bloom filter; they are counted and the
+ * filter is rebuilt from the table once they pass {@code stale-rebuild-ratio}, or
+ * once insertions outgrow the capacity it was sized for.
+ * <p>
+ * Each node holds its own filter. Numbers issued here are broadcast on the shared
+ * cache's channel so other nodes add them too; a lookup racing that message, or a
+ * message lost while a node was cut off from Redis, can be rejected until the next
+ * rebuild, which runs every {@code rebuild-interval} to bound that window. A
+ * {@link SharedAccountCache#BULK_LOAD} broadcast triggers a rebuild straight away.
+ */
+@Component
+public class AccountNumberFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountNumberFilter.class);
+
+    private static final String ISSUED = "number-issued";
+
+    private final AccountRepository accountRepository;
+    private final AccountNumberFilterProperties properties;
+    private final AccountShards shards;
+    private final SharedAccountCache shared;
+    /** Rebuilds read the primary: a lagging replica would leave out new numbers, and lookups of them would be rejected */
+    private final TransactionTemplate primary;
+    /** Filter answering lookups; null until the first build completes. */
+    private volatile BloomFilter current;
+    /** Filter being filled by a rebuild; additions go to it as well so none are lost in the swap. */
+    private volatile BloomFilter building;
+    private volatile long capacity;
+    private final LongAdder deletions = new LongAdder();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Counter rejections;
+    private ScheduledExecutorService scheduler;
+
+    public AccountNumberFilter(AccountRepository accountRepository, AccountNumberFilterProperties properties,
+                               AccountShards shards, SharedAccountCache shared,
+                               PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.properties = properties;
+        this.shards = shards;
+        this.shared = shared;
+        shared.onBroadcast(ISSUED, this::learn);
+        shared.onBroadcast(SharedAccountCache.BULK_LOAD, job -> rebuildAsync());
+        this.primary = new TransactionTemplate(transactionManager);
+        this.rejections = Counter.builder("banking.accounts.filter.rejections")
+                .description("Account-number lookups rejected without a database query")
+                .register(meterRegistry);
+        Gauge.builder("banking.accounts.filter.fpp", this, f -> f.current == null ? Double.NaN : f.current.expectedFalsePositiveRate())
+                .description("Expected false-positive rate for the bits currently set")
+                .register(meterRegistry);
+        Gauge.builder("banking.accounts.filter.size", this, f -> f.current == null ? 0 : f.current.sizeInBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /** False only when the number has definitely never been issued. */
+    public boolean mightContain(String accountNumber) {
+        BloomFilter filter = current;
+        if (!properties.isEnabled() || filter == null || filter.mightContain(accountNumber)) {
+            return true;
+        }
+        rejections.increment();
+        return false;
+    }
+
+    /** Record a newly issued number here and on the other nodes. Inside a transaction this happens after commit. */
+    public void add(String accountNumber) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    issued(accountNumber);
+                }
+            });
+        } else {
+            issued(accountNumber);
+        }
+    }
+
+    private void issued(String accountNumber) {
+        put(accountNumber);
+        shared.broadcast(ISSUED, accountNumber);
+    }
+
+    /** A number issued by another node; skipped when already present so echoes do not inflate the insertion count. */
+    private void learn(String accountNumber) {
+        BloomFilter next = building;
+        BloomFilter filter = current;
+        if ((next != null && !next.mightContain(accountNumber)) || filter == null || !filter.mightContain(accountNumber)) {
+            put(accountNumber);
+        }
+    }
+
+    private void put(String accountNumber) {
+        // building before current: a rebuild publishes current before clearing building,
+        // so at least one of the two reads sees the filter that survives the swap
+        BloomFilter next = building;
+        BloomFilter filter = current;
+        if (next != null) {
+            next.put(accountNumber);
+        }
+        if (filter != null) {
+            filter.put(accountNumber);
+            if (filter.insertions() > capacity) {
+                rebuildAsync();
+            }
+        }
+    }
+
+    /** Count a deleted number; it stays in the filter until the next rebuild. */
+    public void removed() {
+        deletions.increment();
+        BloomFilter filter = current;
+        if (filter != null && deletions.sum() > filter.insertions() * properties.getStaleRebuildRatio()) {
+            rebuildAsync();
+        }
+    }
+
+    /** Build the filter once the application is up, then rebuild it every {@code rebuild-interval}. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuildAsync();
+        long interval = properties.getRebuildInterval().toMillis();
+        if (!properties.isEnabled() || interval <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "account-number-filter-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::rebuild, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void rebuildAsync() {
+        if (properties.isEnabled() && !rebuilding.get()) {
+            Thread.ofVirtual().name("account-number-filter").start(this::rebuild);
+        }
+    }
+
+    /** Rebuild the filter from the accounts table, shard by shard. Concurrent calls are ignored. */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            long[] accounts = new long[1];
+            shards.forEach(shard -> accounts[0] += primary.execute(status -> accountRepository.count()));
+            long size = Math.max(properties.getExpectedInsertions(), accounts[0] * 2);
+            BloomFilter next = new BloomFilter(size, properties.getFalsePositiveRate());
+            building = next;
+            deletions.reset();
+            shards.forEach(shard -> primary.executeWithoutResult(status -> {
+                try (Stream<String> numbers = accountRepository.streamAllAccountNumbers()) {
+                    numbers.forEach(next::put);
+                }
+            }));
+            capacity = size;
+            current = next;
+            log.info("Account number filter rebuilt: {} numbers, {} KiB, in {} ms", next.insertions(),
+                    next.sizeInBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Account number filter rebuild failed, keeping the previous one: {}", e.toString());
+        } finally {
+            building = null;
+            rebuilding.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
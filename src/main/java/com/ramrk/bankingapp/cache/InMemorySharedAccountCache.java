@@ -0,0 +1,61 @@
+package com.ramrk.bankingapp.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import com.ramrk.bankingapp.dto.AccountDto;
+
+/**
+ * Map-backed stand-in for the Redis tier, used by the test profile and single-node
+ * setups. Several {@link AccountCache}s sharing one instance behave like nodes
+ * sharing one Redis: they see each other's entries and eviction broadcasts. Broadcasts
+ * are delivered synchronously, to the sending node as well.
+ */
+public class InMemorySharedAccountCache implements SharedAccountCache {
+
+    private final Map<Long, AccountDto> byId = new ConcurrentHashMap<>();
+    private final Map<String, Long> idByNumber = new ConcurrentHashMap<>();
+    private final List<LongConsumer> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, List<Consumer<String>>> topics = new ConcurrentHashMap<>();
+
+    @Override
+    public AccountDto get(Long id) {
+        return byId.get(id);
+    }
+
+    @Override
+    public Long getIdByNumber(String accountNumber) {
+        return idByNumber.get(accountNumber);
+    }
+
+    @Override
+    public void put(AccountDto account) {
+        byId.put(account.getId(), account);
+        idByNumber.put(account.getAccountNumber(), account.getId());
+    }
+
+    @Override
+    public void evict(Long id) {
+        byId.remove(id);
+        listeners.forEach(listener -> listener.accept(id));
+    }
+
+    @Override
+    public void onEviction(LongConsumer listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void broadcast(String topic, String payload) {
+        topics.getOrDefault(topic, List.of()).forEach(listener -> listener.accept(payload));
+    }
+
+    @Override
+    public void onBroadcast(String topic, Consumer<String> listener) {
+        topics.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+}
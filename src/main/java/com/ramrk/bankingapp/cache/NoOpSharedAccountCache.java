@@ -0,0 +1,40 @@
+package com.ramrk.bankingapp.cache;
+
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import com.ramrk.bankingapp.dto.AccountDto;
+
+/** Shared tier that stores nothing, leaving only the in-process cache. */
+public class NoOpSharedAccountCache implements SharedAccountCache {
+
+    @Override
+    public AccountDto get(Long id) {
+        return null;
+    }
+
+    @Override
+    public Long getIdByNumber(String accountNumber) {
+        return null;
+    }
+
+    @Override
+    public void put(AccountDto account) {
+    }
+
+    @Override
+    public void evict(Long id) {
+    }
+
+    @Override
+    public void onEviction(LongConsumer listener) {
+    }
+
+    @Override
+    public void broadcast(String topic, String payload) {
+    }
+
+    @Override
+    public void onBroadcast(String topic, Consumer<String> listener) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.ramrk.bankingapp.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.ramrk.bankingapp.dto.AccountDto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Redis-backed shared tier. Accounts are stored as JSON with a TTL; evictions are
+ * broadcast on a pub/sub channel so other nodes drop their in-process copies.
+ * Evictions travel as {@code instance|id}, other broadcasts as {@code instance|topic|payload}.
+ * Any Redis failure is logged, counted and reported as a miss.
+ */
+public class RedisSharedAccountCache implements SharedAccountCache, MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisSharedAccountCache.class);
+
+    private static final String ID_KEY = "banking:account:id:";
+    private static final String NUMBER_KEY = "banking:account:number:";
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final String channel;
+    /** Lets a node ignore its own broadcasts, which it has already applied locally */
+    private final String instanceId = UUID.randomUUID().toString();
+    private final List<LongConsumer> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, List<Consumer<String>>> topics = new ConcurrentHashMap<>();
+    private final Counter errors;
+
+    public RedisSharedAccountCache(StringRedisTemplate redis, ObjectMapper objectMapper, Duration ttl,
+                                   String channel, MeterRegistry meterRegistry) {
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.channel = channel;
+        this.errors = Counter.builder("banking.cache.l2.errors")
+                .description("Redis operations of the account cache that failed and were treated as misses")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public AccountDto get(Long id) {
+        try {
+            String json = redis.opsForValue().get(ID_KEY + id);
+            return json == null ? null : objectMapper.readValue(json, AccountDto.class);
+        } catch (RuntimeException e) {
+            failed("get", e);
+            return null;
+        }
+    }
+
+    @Override
+    public Long getIdByNumber(String accountNumber) {
+        try {
+            String id = redis.opsForValue().get(NUMBER_KEY + accountNumber);
+            return id == null ? null : Long.valueOf(id);
+        } catch (RuntimeException e) {
+            failed("getIdByNumber", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(AccountDto account) {
+        try {
+            redis.opsForValue().set(ID_KEY + account.getId(), objectMapper.writeValueAsString(account), ttl);
+            redis.opsForValue().set(NUMBER_KEY + account.getAccountNumber(), String.valueOf(account.getId()), ttl);
+        } catch (RuntimeException e) {
+            failed("put", e);
+        }
+    }
+
+    @Override
+    public void evict(Long id) {
+        try {
+            redis.delete(ID_KEY + id);
+            redis.convertAndSend(channel, instanceId + "|" + id);
+        } catch (RuntimeException e) {
+            failed("evict", e);
+        }
+    }
+
+    @Override
+    public void onEviction(LongConsumer listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void broadcast(String topic, String payload) {
+        try {
+            redis.convertAndSend(channel, instanceId + "|" + topic + "|" + payload);
+        } catch (RuntimeException e) {
+            failed("broadcast", e);
+        }
+    }
+
+    @Override
+    public void onBroadcast(String topic, Consumer<String> listener) {
+        topics.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int sep = body.indexOf('|');
+        if (sep < 0 || body.startsWith(instanceId)) {
+            return;
+        }
+        int topicEnd = body.indexOf('|', sep + 1);
+        if (topicEnd >= 0) {
+            String payload = body.substring(topicEnd + 1);
+            topics.getOrDefault(body.substring(sep + 1, topicEnd), List.of()).forEach(listener -> listener.accept(payload));
+            return;
+        }
+        try {
+            long id = Long.parseLong(body.substring(sep + 1));
+            listeners.forEach(listener -> listener.accept(id));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed account cache invalidation: {}", body);
+        }
+    }
+
+    private void failed(String operation, RuntimeException e) {
+        errors.increment();
+        log.debug("Redis account cache {} failed, treating as miss: {}", operation, e.toString());
+    }
+}
@@ -0,0 +1,44 @@
+package com.ramrk.bankingapp.cache;
+
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import com.ramrk.bankingapp.dto.AccountDto;
+
+/**
+ * Shared (L2) tier of the account cache, visible to every node. Implementations
+ * must treat backend failures as misses so the cache never breaks a read.
+ */
+public interface SharedAccountCache {
+
+    /**
+     * Broadcast topic for accounts written without going through a server, such as by
+     * the import tool; the payload names the job. Nodes rebuild what they derive from
+     * the accounts table.
+     */
+    String BULK_LOAD = "bulk-load";
+
+    /** Cached account for the id, or null on a miss */
+    AccountDto get(Long id);
+
+    /** Id of the account with this number, or null on a miss. Account numbers never change. */
+    Long getIdByNumber(String accountNumber);
+
+    /** Store the account under its id and its account number */
+    void put(AccountDto account);
+
+    /** Remove the account and tell every node to drop its in-process copy */
+    void evict(Long id);
+
+    /** Register a callback for evictions announced by any node */
+    void onEviction(LongConsumer listener);
+
+    /**
+     * Send {@code payload} to the {@code topic} listeners of the other nodes. Delivery is
+     * best effort: a node that is disconnected when the message goes out never sees it.
+     */
+    void broadcast(String topic, String payload);
+
+    /** Register a callback for broadcasts on {@code topic} */
+    void onBroadcast(String topic, Consumer<String> listener);
+}
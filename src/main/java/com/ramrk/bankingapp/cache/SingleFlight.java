@@ -0,0 +1,73 @@
+package com.ramrk.bankingapp.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Collapses concurrent loads of the same key into one: the first caller (the leader)
+ * runs the loader, callers arriving while it runs (followers) wait for and share its
+ * result or exception. The in-flight entry is removed as soon as the load finishes,
+ * so nothing is cached here. Lock-free apart from the map's own bin locking.
+ * <p>
+ * Publishes {@code banking.accounts.loads{lookup,role}} and
+ * {@code banking.accounts.loads.coalesced.ratio}, the share of loads that were followers.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    public SingleFlight(String lookup, MeterRegistry meterRegistry) {
+        this.leaders = Counter.builder("banking.accounts.loads").tag("lookup", lookup).tag("role", "leader")
+                .description("Cache-miss loads that went to the database").register(meterRegistry);
+        this.followers = Counter.builder("banking.accounts.loads").tag("lookup", lookup).tag("role", "follower")
+                .description("Cache-miss loads that shared a load already in flight").register(meterRegistry);
+        Gauge.builder("banking.accounts.loads.coalesced.ratio", this, SingleFlight::coalescedRatio)
+                .tag("lookup", lookup)
+                .description("Share of cache-miss loads served by another caller's load")
+                .register(meterRegistry);
+    }
+
+    /** The loader's result for {@code key}, shared with every concurrent caller for the same key. */
+    public V load(K key, Function<K, V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            followers.increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        leaders.increment();
+        try {
+            V value = loader.apply(key);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /** Loads currently running; zero when idle. */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private double coalescedRatio() {
+        double total = leaders.count() + followers.count();
+        return total == 0 ? 0 : followers.count() / total;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ramrk.bankingapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits for bulk account creation, bound from {@code banking.batch.*}.
+ */
+@ConfigurationProperties(prefix = "banking.batch")
+public class AccountBatchProperties {
+
+    /** Most entries accepted in one batch request */
+    private int maxItems = 10_000;
+
+    /** Entries inserted per transaction; a failing chunk only fails its own entries */
+    private int chunkSize = 500;
+
+    public int getMaxItems() { return maxItems; }
+    public void setMaxItems(int maxItems) { this.maxItems = maxItems; }
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+}
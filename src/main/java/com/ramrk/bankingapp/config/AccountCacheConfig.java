@@ -0,0 +1,56 @@
+package com.ramrk.bankingapp.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.ramrk.bankingapp.cache.InMemorySharedAccountCache;
+import com.ramrk.bankingapp.cache.NoOpSharedAccountCache;
+import com.ramrk.bankingapp.cache.RedisSharedAccountCache;
+import com.ramrk.bankingapp.cache.SharedAccountCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Picks the shared (L2) tier of the account cache from {@code banking.cache.l2}.
+ * Redis is the default; the test profile uses the in-memory stand-in.
+ */
+@Configuration
+public class AccountCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "banking.cache.l2", havingValue = "redis", matchIfMissing = true)
+    public RedisSharedAccountCache redisSharedAccountCache(StringRedisTemplate redis, ObjectMapper objectMapper,
+                                                           AccountCacheProperties properties, MeterRegistry meterRegistry) {
+        return new RedisSharedAccountCache(redis, objectMapper, properties.getL2Ttl(),
+                properties.getInvalidationChannel(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "banking.cache.l2", havingValue = "redis", matchIfMissing = true)
+    public RedisMessageListenerContainer accountCacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                          RedisSharedAccountCache cache,
+                                                                          AccountCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cache, new ChannelTopic(properties.getInvalidationChannel()));
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "banking.cache.l2", havingValue = "in-memory")
+    public SharedAccountCache inMemorySharedAccountCache() {
+        return new InMemorySharedAccountCache();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "banking.cache.l2", havingValue = "none")
+    public SharedAccountCache noOpSharedAccountCache() {
+        return new NoOpSharedAccountCache();
+    }
+}
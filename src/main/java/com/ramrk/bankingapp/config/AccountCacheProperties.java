@@ -0,0 +1,41 @@
+package com.ramrk.bankingapp.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the two-level account read cache, bound from {@code banking.cache.*}.
+ */
+@ConfigurationProperties(prefix = "banking.cache")
+public class AccountCacheProperties {
+
+    /** Backing store for the shared (L2) tier */
+    public enum SharedTier { REDIS, IN_MEMORY, NONE }
+
+    /** Shared tier behind the in-process cache */
+    private SharedTier l2 = SharedTier.REDIS;
+
+    /** Maximum number of accounts held in-process per node */
+    private long l1MaximumSize = 10_000;
+
+    /** How long an in-process entry lives before it is reloaded */
+    private Duration l1Ttl = Duration.ofSeconds(30);
+
+    /** How long an entry lives in the shared tier */
+    private Duration l2Ttl = Duration.ofMinutes(5);
+
+    /** Redis pub/sub channel used to tell other nodes to drop their L1 entries */
+    private String invalidationChannel = "banking:accounts:invalidate";
+
+    public SharedTier getL2() { return l2; }
+    public void setL2(SharedTier l2) { this.l2 = l2; }
+    public long getL1MaximumSize() { return l1MaximumSize; }
+    public void setL1MaximumSize(long l1MaximumSize) { this.l1MaximumSize = l1MaximumSize; }
+    public Duration getL1Ttl() { return l1Ttl; }
+    public void setL1Ttl(Duration l1Ttl) { this.l1Ttl = l1Ttl; }
+    public Duration getL2Ttl() { return l2Ttl; }
+    public void setL2Ttl(Duration l2Ttl) { this.l2Ttl = l2Ttl; }
+    public String getInvalidationChannel() { return invalidationChannel; }
+    public void setInvalidationChannel(String invalidationChannel) { this.invalidationChannel = invalidationChannel; }
+}
@@ -0,0 +1,38 @@
+package com.ramrk.bankingapp.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Sizing of the account-number Bloom filter, bound from {@code banking.account-number.filter.*}.
+ */
+@ConfigurationProperties(prefix = "banking.account-number.filter")
+public class AccountNumberFilterProperties {
+
+    /** Set to false to send every lookup to the cache and database */
+    private boolean enabled = true;
+
+    /** Accounts the filter is sized for when it is smaller than twice the current count */
+    private long expectedInsertions = 1_000_000;
+
+    /** Target false-positive probability at the sized capacity */
+    private double falsePositiveRate = 0.01;
+
+    /** Share of deleted entries that triggers a rebuild */
+    private double staleRebuildRatio = 0.1;
+
+    /** Unconditional rebuild period, bounding how long a missed cross-node broadcast can hide a number; zero disables it */
+    private Duration rebuildInterval = Duration.ofHours(1);
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public long getExpectedInsertions() { return expectedInsertions; }
+    public void setExpectedInsertions(long expectedInsertions) { this.expectedInsertions = expectedInsertions; }
+    public double getFalsePositiveRate() { return falsePositiveRate; }
+    public void setFalsePositiveRate(double falsePositiveRate) { this.falsePositiveRate = falsePositiveRate; }
+    public double getStaleRebuildRatio() { return staleRebuildRatio; }
+    public void setStaleRebuildRatio(double staleRebuildRatio) { this.staleRebuildRatio = staleRebuildRatio; }
+    public Duration getRebuildInterval() { return rebuildInterval; }
+    public void setRebuildInterval(Duration rebuildInterval) { this.rebuildInterval = rebuildInterval; }
+}
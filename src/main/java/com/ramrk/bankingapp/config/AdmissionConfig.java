@@ -0,0 +1,68 @@
+package com.ramrk.bankingapp.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.ramrk.bankingapp.jdbc.AdmissionLimitedDataSource;
+import com.ramrk.bankingapp.jdbc.ReadWriteRoutingDataSource;
+import com.ramrk.bankingapp.jdbc.StatementShapeDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Puts an {@link AdmissionLimitedDataSource} in front of the pool. Enabled by
+ * default; it matters most with {@code spring.threads.virtual.enabled=true}, where
+ * request concurrency is no longer capped by the Tomcat thread pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig {
+
+    /** Ordered, so it runs before unordered post-processors and the pool is limited before anything else wraps it. */
+    @Bean
+    static AdmissionPostProcessor admissionLimitedDataSourcePostProcessor(ObjectProvider<AdmissionProperties> properties) {
+        return new AdmissionPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // wrappers and the replica and shard routers pass through; the pools behind them are limited
+                if (!(bean instanceof DataSource dataSource) || bean instanceof DelegatingDataSource
+                        || bean instanceof ReadWriteRoutingDataSource || bean instanceof AbstractRoutingDataSource) {
+                    return bean;
+                }
+                AdmissionProperties admission = properties.getObject();
+                int permits = admission.getPermits() > 0 ? admission.getPermits()
+                        : dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                return new AdmissionLimitedDataSource(dataSource, permits, admission.getMaxWait(), admission.getMaxQueue());
+            }
+        };
+    }
+
+    abstract static class AdmissionPostProcessor implements BeanPostProcessor, Ordered {
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+
+    /**
+     * With read replicas the application's DataSource is the router, so the limited pool is looked up among all of them;
+     * without, it may sit behind the statement timer.
+     */
+    @Bean
+    MeterBinder admissionMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .map(dataSource -> dataSource instanceof StatementShapeDataSource shaped ? shaped.getTargetDataSource() : dataSource)
+                .filter(AdmissionLimitedDataSource.class::isInstance)
+                .findFirst()
+                .ifPresent(limited -> ((AdmissionLimitedDataSource) limited).bindTo(registry));
+    }
+}
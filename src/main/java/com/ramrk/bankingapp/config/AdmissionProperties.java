@@ -0,0 +1,33 @@
+package com.ramrk.bankingapp.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits on concurrent connection use, bound from {@code banking.admission.*}.
+ */
+@ConfigurationProperties(prefix = "banking.admission")
+public class AdmissionProperties {
+
+    /** Queue callers for a connection in front of the pool */
+    private boolean enabled = true;
+
+    /** Connections that may be in use at once; 0 takes the pool's maximum size */
+    private int permits = 0;
+
+    /** Longest a caller waits for a permit before the request fails with 503 */
+    private Duration maxWait = Duration.ofSeconds(30);
+
+    /** Callers allowed to wait at once; beyond this requests fail straight away with 503 */
+    private int maxQueue = 10_000;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public int getPermits() { return permits; }
+    public void setPermits(int permits) { this.permits = permits; }
+    public Duration getMaxWait() { return maxWait; }
+    public void setMaxWait(Duration maxWait) { this.maxWait = maxWait; }
+    public int getMaxQueue() { return maxQueue; }
+    public void setMaxQueue(int maxQueue) { this.maxQueue = maxQueue; }
+}
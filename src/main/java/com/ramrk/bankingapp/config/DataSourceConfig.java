@@ -1,9 +1,78 @@
 package com.ramrk.bankingapp.config;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.ramrk.bankingapp.jdbc.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
- * Optional DataSource config removed to rely on Spring Boot auto-configuration.
- * Spring Boot will create the DataSource automatically based on `spring.datasource.*` properties.
+ * Read/write split, active once {@code banking.datasource.replicas[0].url} is set;
+ * without replicas Spring Boot's single {@code spring.datasource} pool is used. The
+ * primary pool is still configured from {@code spring.datasource.*} and each replica
+ * gets its own pool from {@code banking.datasource.replicas[n].hikari.*}. The
+ * application's {@link DataSource} is a {@link ReadWriteRoutingDataSource} behind a
+ * {@link LazyConnectionDataSourceProxy}.
  */
+@Configuration
+@ConditionalOnProperty(name = "banking.datasource.replicas[0].url")
 public class DataSourceConfig {
-    // kept as a placeholder to avoid package-scanning issues in constrained environments
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    ReadWriteRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+            DataSourceProperties primaryProperties, ReadReplicaProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        List<ReadReplicaProperties.Replica> replicas = properties.getReplicas();
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            ReadReplicaProperties.Replica replica = replicas.get(i);
+            String name = replica.getName() != null ? replica.getName() : "replica-" + (i + 1);
+            HikariConfig config = replica.getHikari();
+            config.setPoolName(config.getPoolName() != null ? config.getPoolName() : name);
+            config.setJdbcUrl(replica.getUrl());
+            config.setUsername(replica.getUsername() != null ? replica.getUsername() : primaryProperties.determineUsername());
+            config.setPassword(replica.getPassword() != null ? replica.getPassword() : primaryProperties.determinePassword());
+            String driver = replica.getDriverClassName() != null ? replica.getDriverClassName() : primaryProperties.getDriverClassName();
+            if (driver != null) {
+                config.setDriverClassName(driver);
+            }
+            config.setReadOnly(true);
+            // a replica that is down at startup is routed around, not fatal
+            config.setInitializationFailTimeout(-1);
+            meterRegistry.ifAvailable(registry -> config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            pools.put(name, new HikariDataSource(config));
+        }
+        return new ReadWriteRoutingDataSource(primary, pools, properties);
+    }
+
+    /** Defers the physical connection to the first statement, when the transaction's read-only flag is known. */
+    @Bean
+    @Primary
+    DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
 }
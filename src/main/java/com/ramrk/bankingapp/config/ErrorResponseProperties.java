@@ -0,0 +1,18 @@
+package com.ramrk.bankingapp.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Error responses and the logging of unexpected exceptions, bound from {@code banking.errors.*}.
+ */
+@ConfigurationProperties(prefix = "banking.errors")
+public class ErrorResponseProperties {
+
+    /** At most one full stack trace per exception type is logged in this interval; the rest are only counted */
+    private Duration traceInterval = Duration.ofSeconds(1);
+
+    public Duration getTraceInterval() { return traceInterval; }
+    public void setTraceInterval(Duration traceInterval) { this.traceInterval = traceInterval; }
+}
@@ -0,0 +1,21 @@
+package com.ramrk.bankingapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Full account export ({@code GET /api/accounts/export}), bound from {@code banking.export.*}.
+ */
+@ConfigurationProperties(prefix = "banking.export")
+public class ExportProperties {
+
+    /** Rows fetched per round trip from the database cursor */
+    private int fetchSize = 1_000;
+
+    /** Rows written between flushes to the client */
+    private int flushEvery = 1_000;
+
+    public int getFetchSize() { return fetchSize; }
+    public void setFetchSize(int fetchSize) { this.fetchSize = fetchSize; }
+    public int getFlushEvery() { return flushEvery; }
+    public void setFlushEvery(int flushEvery) { this.flushEvery = flushEvery; }
+}
@@ -0,0 +1,45 @@
+package com.ramrk.bankingapp.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.ramrk.bankingapp.idempotency.IdempotencyStore;
+import com.ramrk.bankingapp.idempotency.NoOpSharedIdempotencyStore;
+import com.ramrk.bankingapp.idempotency.RedisSharedIdempotencyStore;
+import com.ramrk.bankingapp.idempotency.SharedIdempotencyStore;
+import com.ramrk.bankingapp.web.IdempotencyFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Wires {@code Idempotency-Key} handling: the shared tier picked by
+ * {@code banking.idempotency.shared}, and the filter in front of {@code /api}.
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "banking.idempotency.shared", havingValue = "redis", matchIfMissing = true)
+    public SharedIdempotencyStore redisSharedIdempotencyStore(StringRedisTemplate redis, ObjectMapper objectMapper,
+                                                              MeterRegistry meterRegistry) {
+        return new RedisSharedIdempotencyStore(redis, objectMapper, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "banking.idempotency.shared", havingValue = "none")
+    public SharedIdempotencyStore noOpSharedIdempotencyStore() {
+        return new NoOpSharedIdempotencyStore();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "banking.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(new IdempotencyFilter(store));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
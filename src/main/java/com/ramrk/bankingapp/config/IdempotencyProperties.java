@@ -0,0 +1,48 @@
+package com.ramrk.bankingapp.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for {@code Idempotency-Key} handling on mutating requests, bound from
+ * {@code banking.idempotency.*}.
+ */
+@ConfigurationProperties(prefix = "banking.idempotency")
+public class IdempotencyProperties {
+
+    /** Store shared between nodes, behind the in-process store */
+    public enum SharedTier { REDIS, NONE }
+
+    /** Honour the Idempotency-Key header on POST, PUT and DELETE under /api */
+    private boolean enabled = true;
+
+    /** Shared tier behind the in-process store */
+    private SharedTier shared = SharedTier.REDIS;
+
+    /** How long a stored response is replayed for the same key */
+    private Duration ttl = Duration.ofHours(24);
+
+    /** Upper bound on the response bodies held in-process; least recently used keys go first */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /** How long a duplicate waits for the original request to finish before getting a 409 */
+    private Duration waitTimeout = Duration.ofSeconds(30);
+
+    /** How long another node is kept from running a key this node is executing; must outlast the slowest request */
+    private Duration lockTtl = Duration.ofMinutes(10);
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public SharedTier getShared() { return shared; }
+    public void setShared(SharedTier shared) { this.shared = shared; }
+    public Duration getTtl() { return ttl; }
+    public void setTtl(Duration ttl) { this.ttl = ttl; }
+    public DataSize getMaxSize() { return maxSize; }
+    public void setMaxSize(DataSize maxSize) { this.maxSize = maxSize; }
+    public Duration getWaitTimeout() { return waitTimeout; }
+    public void setWaitTimeout(Duration waitTimeout) { this.waitTimeout = waitTimeout; }
+    public Duration getLockTtl() { return lockTtl; }
+    public void setLockTtl(Duration lockTtl) { this.lockTtl = lockTtl; }
+}
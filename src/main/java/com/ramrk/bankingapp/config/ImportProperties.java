@@ -0,0 +1,40 @@
+package com.ramrk.bankingapp.config;
+
+import java.nio.file.Path;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Bulk CSV import of accounts, bound from {@code banking.import.*}. Setting
+ * {@code file} runs the import on startup.
+ */
+@ConfigurationProperties(prefix = "banking.import")
+public class ImportProperties {
+
+    /** CSV file to import on startup; unset for normal operation */
+    private Path file;
+
+    /** Where rejected rows are appended; defaults to the import file name plus {@code .rejects.csv} */
+    private Path rejectFile;
+
+    /** Bytes of the file handled as one unit of work, one transaction and one checkpoint */
+    private DataSize chunkSize = DataSize.ofMegabytes(8);
+
+    /** Chunks parsed and persisted in parallel; 0 picks min(CPUs, 4). Each holds a database connection while it writes */
+    private int workers = 0;
+
+    /** Accounts flushed to the database (as JDBC batches) before the persistence context is cleared */
+    private int flushEvery = 500;
+
+    public Path getFile() { return file; }
+    public void setFile(Path file) { this.file = file; }
+    public Path getRejectFile() { return rejectFile; }
+    public void setRejectFile(Path rejectFile) { this.rejectFile = rejectFile; }
+    public DataSize getChunkSize() { return chunkSize; }
+    public void setChunkSize(DataSize chunkSize) { this.chunkSize = chunkSize; }
+    public int getWorkers() { return workers; }
+    public void setWorkers(int workers) { this.workers = workers; }
+    public int getFlushEvery() { return flushEvery; }
+    public void setFlushEvery(int flushEvery) { this.flushEvery = flushEvery; }
+}
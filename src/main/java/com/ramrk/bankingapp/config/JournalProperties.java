@@ -0,0 +1,49 @@
+package com.ramrk.bankingapp.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for the local transaction journal, bound from {@code banking.journal.*}.
+ */
+@ConfigurationProperties(prefix = "banking.journal")
+public class JournalProperties {
+
+    /** Write balance changes to the journal at all */
+    private boolean enabled = true;
+
+    /** Directory holding the segment files */
+    private String dir = "data/journal";
+
+    /** Size of each memory-mapped segment file */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /** Wait for the fsync before releasing callers; when false the journal is flushed in the background only */
+    private boolean sync = true;
+
+    /** Longest a pending record waits for others to share its fsync; at zero, groups form while the previous fsync runs */
+    private Duration flushInterval = Duration.ZERO;
+
+    /** Pending records that trigger an fsync without waiting for the interval */
+    private int maxBatch = 512;
+
+    /** Bring account balances forward from the journal on startup; only for a restored copy of the same database */
+    private boolean replayOnStartup = false;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public String getDir() { return dir; }
+    public void setDir(String dir) { this.dir = dir; }
+    public DataSize getSegmentSize() { return segmentSize; }
+    public void setSegmentSize(DataSize segmentSize) { this.segmentSize = segmentSize; }
+    public boolean isSync() { return sync; }
+    public void setSync(boolean sync) { this.sync = sync; }
+    public Duration getFlushInterval() { return flushInterval; }
+    public void setFlushInterval(Duration flushInterval) { this.flushInterval = flushInterval; }
+    public int getMaxBatch() { return maxBatch; }
+    public void setMaxBatch(int maxBatch) { this.maxBatch = maxBatch; }
+    public boolean isReplayOnStartup() { return replayOnStartup; }
+    public void setReplayOnStartup(boolean replayOnStartup) { this.replayOnStartup = replayOnStartup; }
+}
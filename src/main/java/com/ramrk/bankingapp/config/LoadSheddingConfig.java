@@ -0,0 +1,37 @@
+package com.ramrk.bankingapp.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.ramrk.bankingapp.web.AimdLimiter;
+import com.ramrk.bankingapp.web.LoadSheddingFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Puts the adaptive concurrency limit in front of {@code /api}, ahead of every other
+ * application filter so a rejected request costs as little as possible.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.load-shedding.enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingConfig {
+
+    @Bean
+    public AimdLimiter aimdLimiter(LoadSheddingProperties properties, MeterRegistry meterRegistry) {
+        return new AimdLimiter(properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit(),
+                properties.getBackoffRatio(), properties.getLatencyThreshold().toNanos(), meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(AimdLimiter limiter, LoadSheddingProperties properties,
+                                                                        MeterRegistry meterRegistry) {
+        FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(new LoadSheddingFilter(limiter,
+                properties.getCriticalEndpoints(), properties.getSheddableEndpoints(), properties.getRetryAfter(), meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+}
@@ -0,0 +1,61 @@
+package com.ramrk.bankingapp.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Adaptive concurrency limit on {@code /api} requests, bound from
+ * {@code banking.load-shedding.*}. Endpoints are written as {@code "METHOD /path/pattern"}.
+ */
+@ConfigurationProperties(prefix = "banking.load-shedding")
+public class LoadSheddingProperties {
+
+    /** Reject requests over the adaptive limit with 503 */
+    private boolean enabled = true;
+
+    /** Concurrent requests allowed before any latency has been observed */
+    private int initialLimit = 20;
+
+    /** The limit never shrinks below this */
+    private int minLimit = 2;
+
+    /** The limit never grows beyond this */
+    private int maxLimit = 200;
+
+    /** Factor the limit is multiplied by when a request is slow or overloaded */
+    private double backoffRatio = 0.9;
+
+    /** Requests slower than this count as a sign of overload */
+    private Duration latencyThreshold = Duration.ofMillis(500);
+
+    /** Retry-After sent with a 503 */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /** Endpoints admitted up to the full limit, e.g. money movement */
+    private List<String> criticalEndpoints = new ArrayList<>();
+
+    /** Endpoints shed first; all GET requests are sheddable unless listed elsewhere */
+    private List<String> sheddableEndpoints = new ArrayList<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public int getInitialLimit() { return initialLimit; }
+    public void setInitialLimit(int initialLimit) { this.initialLimit = initialLimit; }
+    public int getMinLimit() { return minLimit; }
+    public void setMinLimit(int minLimit) { this.minLimit = minLimit; }
+    public int getMaxLimit() { return maxLimit; }
+    public void setMaxLimit(int maxLimit) { this.maxLimit = maxLimit; }
+    public double getBackoffRatio() { return backoffRatio; }
+    public void setBackoffRatio(double backoffRatio) { this.backoffRatio = backoffRatio; }
+    public Duration getLatencyThreshold() { return latencyThreshold; }
+    public void setLatencyThreshold(Duration latencyThreshold) { this.latencyThreshold = latencyThreshold; }
+    public Duration getRetryAfter() { return retryAfter; }
+    public void setRetryAfter(Duration retryAfter) { this.retryAfter = retryAfter; }
+    public List<String> getCriticalEndpoints() { return criticalEndpoints; }
+    public void setCriticalEndpoints(List<String> criticalEndpoints) { this.criticalEndpoints = criticalEndpoints; }
+    public List<String> getSheddableEndpoints() { return sheddableEndpoints; }
+    public void setSheddableEndpoints(List<String> sheddableEndpoints) { this.sheddableEndpoints = sheddableEndpoints; }
+}
@@ -0,0 +1,33 @@
+package com.ramrk.bankingapp.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.ramrk.bankingapp.jdbc.QueryCounter;
+import com.ramrk.bankingapp.web.QueryCountFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-request SQL statement counting. Service timers live in
+ * {@link com.ramrk.bankingapp.service.impl.InstrumentedAccountService}; Hibernate
+ * statistics and Hikari pool meters come from Boot's auto-configuration.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCounter());
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<QueryCountFilter> registration = new FilterRegistrationBean<>(new QueryCountFilter(meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,81 @@
+package com.ramrk.bankingapp.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.zaxxer.hikari.HikariConfig;
+
+/**
+ * Read replicas behind the primary {@code spring.datasource}, bound from {@code banking.datasource.*}.
+ */
+@ConfigurationProperties(prefix = "banking.datasource")
+public class ReadReplicaProperties {
+
+    /** Replicas that read-only transactions are spread over; none keeps everything on the primary */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /** How often every replica is checked after the check at startup */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /** Longest a health check may take before the replica counts as down */
+    private Duration healthCheckTimeout = Duration.ofSeconds(2);
+
+    /** Replicas further behind the primary than this are skipped until they catch up */
+    private Duration maxLag = Duration.ofSeconds(10);
+
+    /**
+     * Reports a replica's lag in seconds: a Seconds_Behind_Source (or _Master) column if
+     * there is one, otherwise the first column. No row or NULL means replication is
+     * stopped. Blank skips the lag check
+     */
+    private String lagQuery = "SHOW REPLICA STATUS";
+
+    public List<Replica> getReplicas() { return replicas; }
+    public void setReplicas(List<Replica> replicas) { this.replicas = replicas; }
+    public Duration getHealthCheckInterval() { return healthCheckInterval; }
+    public void setHealthCheckInterval(Duration healthCheckInterval) { this.healthCheckInterval = healthCheckInterval; }
+    public Duration getHealthCheckTimeout() { return healthCheckTimeout; }
+    public void setHealthCheckTimeout(Duration healthCheckTimeout) { this.healthCheckTimeout = healthCheckTimeout; }
+    public Duration getMaxLag() { return maxLag; }
+    public void setMaxLag(Duration maxLag) { this.maxLag = maxLag; }
+    public String getLagQuery() { return lagQuery; }
+    public void setLagQuery(String lagQuery) { this.lagQuery = lagQuery; }
+
+    /** One replica. Credentials and driver default to the primary's. */
+    public static class Replica {
+
+        /** Pool name and metric tag; defaults to replica-1, replica-2, ... */
+        private String name;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private String driverClassName;
+
+        /** The replica's own pool settings, as under spring.datasource.hikari */
+        private final HikariConfig hikari = new HikariConfig();
+
+        public Replica() {
+            // give up on a dead replica in seconds and read from the primary instead
+            hikari.setConnectionTimeout(Duration.ofSeconds(2).toMillis());
+        }
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+        public String getDriverClassName() { return driverClassName; }
+        public void setDriverClassName(String driverClassName) { this.driverClassName = driverClassName; }
+        public HikariConfig getHikari() { return hikari; }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ramrk.bankingapp.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * In-process account search ({@code GET /api/accounts/search}), bound from {@code banking.search.*}.
+ */
+@ConfigurationProperties(prefix = "banking.search")
+public class SearchProperties {
+
+    /** Candidates checked per query of three characters or more; very unselective ones rank only the first this many matches */
+    private int maxCandidates = 10_000;
+
+    /** Threads tokenizing accounts while the index is built or reloaded; 0 picks min(CPUs, 4) */
+    private int buildWorkers = 0;
+
+    /** Accounts handed to a build thread at a time */
+    private int buildBatch = 10_000;
+
+    /** How often accounts changed on other nodes are re-read and indexed; the search lag behind them */
+    private Duration syncInterval = Duration.ofSeconds(1);
+
+    public int getMaxCandidates() { return maxCandidates; }
+    public void setMaxCandidates(int maxCandidates) { this.maxCandidates = maxCandidates; }
+    public int getBuildWorkers() { return buildWorkers; }
+    public void setBuildWorkers(int buildWorkers) { this.buildWorkers = buildWorkers; }
+    public int getBuildBatch() { return buildBatch; }
+    public void setBuildBatch(int buildBatch) { this.buildBatch = buildBatch; }
+    public Duration getSyncInterval() { return syncInterval; }
+    public void setSyncInterval(Duration syncInterval) { this.syncInterval = syncInterval; }
+}
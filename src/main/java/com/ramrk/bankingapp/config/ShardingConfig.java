@@ -0,0 +1,74 @@
+package com.ramrk.bankingapp.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.ramrk.bankingapp.shard.ShardRoutingDataSource;
+import com.ramrk.bankingapp.shard.ShardSchemaExporter;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Account sharding, active once {@code banking.sharding.shards[0].url} is set; each
+ * shard gets its own pool from {@code banking.sharding.shards[n].hikari.*} and
+ * {@code spring.datasource} only supplies default credentials. The application's
+ * {@link DataSource} is a {@link ShardRoutingDataSource} behind a
+ * {@link LazyConnectionDataSourceProxy}. Like the replica pools, the shard pools are
+ * bounded by Hikari alone, not by the admission limiter. Cannot be combined with
+ * read replicas.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.sharding.shards[0].url")
+public class ShardingConfig {
+
+    @Bean
+    ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties, DataSourceProperties defaults,
+                                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        List<ShardingProperties.Shard> shards = properties.getShards();
+        List<DataSource> pools = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            ShardingProperties.Shard shard = shards.get(i);
+            HikariConfig config = shard.getHikari();
+            String name = shard.getName() != null ? shard.getName() : "shard-" + i;
+            config.setPoolName(config.getPoolName() != null ? config.getPoolName() : name);
+            config.setJdbcUrl(shard.getUrl());
+            config.setUsername(shard.getUsername() != null ? shard.getUsername() : defaults.determineUsername());
+            config.setPassword(shard.getPassword() != null ? shard.getPassword() : defaults.determinePassword());
+            String driver = shard.getDriverClassName() != null ? shard.getDriverClassName() : defaults.getDriverClassName();
+            if (driver != null) {
+                config.setDriverClassName(driver);
+            }
+            meterRegistry.ifAvailable(registry -> config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            pools.add(new HikariDataSource(config));
+        }
+        return new ShardRoutingDataSource(pools);
+    }
+
+    /** Defers the physical connection to the first statement, when the shard is bound. */
+    @Bean
+    @Primary
+    DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer shardSchemaExporter(ShardingProperties properties) {
+        return hibernate -> hibernate.put(AvailableSettings.SESSION_FACTORY_OBSERVER,
+                new ShardSchemaExporter(properties.getShards().size()));
+    }
+}
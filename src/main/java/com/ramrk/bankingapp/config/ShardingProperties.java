@@ -0,0 +1,56 @@
+package com.ramrk.bankingapp.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.zaxxer.hikari.HikariConfig;
+
+/**
+ * The shard map for accounts, bound from {@code banking.sharding.*}.
+ */
+@ConfigurationProperties(prefix = "banking.sharding")
+public class ShardingProperties {
+
+    /**
+     * The shards, by shard number. An account lives on shard hash(account number) mod
+     * their count, so shards can only be added together with a rebalance. Shard 0 is
+     * the database Hibernate validates and updates the schema on. None keeps everything
+     * in spring.datasource
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    public List<Shard> getShards() { return shards; }
+    public void setShards(List<Shard> shards) { this.shards = shards; }
+
+    /** One shard. Credentials and driver default to spring.datasource's. */
+    public static class Shard {
+
+        /** Pool name and metric tag; defaults to shard-0, shard-1, ... */
+        private String name;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private String driverClassName;
+
+        /** The shard's own pool settings, as under spring.datasource.hikari */
+        private final HikariConfig hikari = new HikariConfig();
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+        public String getDriverClassName() { return driverClassName; }
+        public void setDriverClassName(String driverClassName) { this.driverClassName = driverClassName; }
+        public HikariConfig getHikari() { return hikari; }
+    }
+}
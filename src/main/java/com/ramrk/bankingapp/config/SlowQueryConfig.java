@@ -0,0 +1,48 @@
+package com.ramrk.bankingapp.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.ramrk.bankingapp.jdbc.StatementShapeDataSource;
+import com.ramrk.bankingapp.jdbc.StatementShapes;
+import com.ramrk.bankingapp.web.SlowQueryEndpoint;
+
+/**
+ * Wraps the application's {@code dataSource} in a {@link StatementShapeDataSource},
+ * outside the admission limiter and the replica or shard routing, so every statement
+ * is timed whichever pool runs it. Replaces {@code spring.jpa.show-sql} for seeing
+ * what the database is asked: slow statements are logged by shape and
+ * {@code /actuator/slowqueries} lists the top shapes.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryConfig {
+
+    @Bean
+    StatementShapes statementShapes(SlowQueryProperties properties) {
+        return new StatementShapes(properties.getThreshold(), properties.getSampleRate(), properties.getMaxShapes());
+    }
+
+    @Bean
+    static BeanPostProcessor statementShapeDataSourcePostProcessor(ObjectProvider<StatementShapes> shapes) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || !beanName.equals("dataSource")) {
+                    return bean;
+                }
+                return new StatementShapeDataSource(dataSource, shapes.getObject());
+            }
+        };
+    }
+
+    @Bean
+    SlowQueryEndpoint slowQueryEndpoint(StatementShapes shapes, SlowQueryProperties properties) {
+        return new SlowQueryEndpoint(shapes, properties.getTop());
+    }
+}
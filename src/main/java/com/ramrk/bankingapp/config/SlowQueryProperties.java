@@ -0,0 +1,38 @@
+package com.ramrk.bankingapp.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-shape statement timing and the slow-statement log, bound from {@code banking.slow-query.*}.
+ */
+@ConfigurationProperties(prefix = "banking.slow-query")
+public class SlowQueryProperties {
+
+    /** Time every statement through the application's DataSource */
+    private boolean enabled = true;
+
+    /** Statements taking at least this long are slow: counted per shape and logged (sampled) */
+    private Duration threshold = Duration.ofMillis(200);
+
+    /** Share (0-1) of slow statements logged after the first one of each shape */
+    private double sampleRate = 0.1;
+
+    /** Distinct shapes tracked; statements of further shapes are pooled under "(other)" */
+    private int maxShapes = 1000;
+
+    /** Shapes listed by the slowqueries endpoint when no limit is given */
+    private int top = 20;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public Duration getThreshold() { return threshold; }
+    public void setThreshold(Duration threshold) { this.threshold = threshold; }
+    public double getSampleRate() { return sampleRate; }
+    public void setSampleRate(double sampleRate) { this.sampleRate = sampleRate; }
+    public int getMaxShapes() { return maxShapes; }
+    public void setMaxShapes(int maxShapes) { this.maxShapes = maxShapes; }
+    public int getTop() { return top; }
+    public void setTop(int top) { this.top = top; }
+}
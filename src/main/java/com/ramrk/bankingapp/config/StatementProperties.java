@@ -0,0 +1,28 @@
+package com.ramrk.bankingapp.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Account statement history, bound from {@code banking.statement.*}.
+ */
+@ConfigurationProperties(prefix = "banking.statement")
+public class StatementProperties {
+
+    /** Add monthly partitions to account_transactions on MySQL; other databases are left alone */
+    private boolean maintainPartitions = true;
+
+    /** Months beyond the current one that always have a partition */
+    private int partitionsAhead = 3;
+
+    /** How often the partitions are checked after the check at startup */
+    private Duration partitionCheckInterval = Duration.ofHours(24);
+
+    public boolean isMaintainPartitions() { return maintainPartitions; }
+    public void setMaintainPartitions(boolean maintainPartitions) { this.maintainPartitions = maintainPartitions; }
+    public int getPartitionsAhead() { return partitionsAhead; }
+    public void setPartitionsAhead(int partitionsAhead) { this.partitionsAhead = partitionsAhead; }
+    public Duration getPartitionCheckInterval() { return partitionCheckInterval; }
+    public void setPartitionCheckInterval(Duration partitionCheckInterval) { this.partitionCheckInterval = partitionCheckInterval; }
+}
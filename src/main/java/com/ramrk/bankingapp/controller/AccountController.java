@@ -1,8 +1,18 @@
 package com.ramrk.bankingapp.controller;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,22 +22,41 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.dto.AccountPage;
+import com.ramrk.bankingapp.dto.AmountRequest;
+import com.ramrk.bankingapp.dto.BatchCreateResponse;
 import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.dto.StatementPage;
+import com.ramrk.bankingapp.dto.TransferRequest;
+import com.ramrk.bankingapp.dto.TransferResult;
 import com.ramrk.bankingapp.dto.UpdateAccountRequest;
+import com.ramrk.bankingapp.export.AccountExporter;
+import com.ramrk.bankingapp.export.ExportFormat;
 import com.ramrk.bankingapp.service.AccountService;
 
+import tools.jackson.databind.ObjectMapper;
+
 
 @RestController
 @RequestMapping("/api/accounts")
 public class AccountController {
 
+    /** Rows written between explicit flushes in streaming mode. */
+    private static final int STREAM_FLUSH_EVERY = 100;
+
     private final AccountService accountService;
+    private final ObjectMapper objectMapper;
+    private final AccountExporter accountExporter;
 
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, ObjectMapper objectMapper, AccountExporter accountExporter) {
         this.accountService = accountService;
+        this.objectMapper = objectMapper;
+        this.accountExporter = accountExporter;
     }
 
     /**
@@ -40,14 +69,118 @@ public class AccountController {
         return ResponseEntity.created(URI.create("/api/accounts/" + dto.getId())).body(dto);
     }
 
+    /**
+     * Create many accounts in one call; each entry is validated on its own
+     * POST /api/accounts/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCreateResponse> createBatch(@RequestBody List<CreateAccountRequest> req) {
+        return ResponseEntity.ok(accountService.createBatch(req));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<AccountDto> getById(@PathVariable Long id) {
         return ResponseEntity.ok(accountService.getById(id));
     }
 
+    /**
+     * Look an account up by its account number
+     * GET /api/accounts/by-number/{accountNumber}
+     */
+    @GetMapping("/by-number/{accountNumber}")
+    public ResponseEntity<AccountDto> getByAccountNumber(@PathVariable String accountNumber) {
+        return ResponseEntity.ok(accountService.getByAccountNumber(accountNumber));
+    }
+
+    /**
+     * Find accounts by part of the owner name or email, best match first
+     * GET /api/accounts/search?q=smith&limit=20
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<AccountDto>> search(@RequestParam String q, @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(accountService.search(q, limit));
+    }
+
+    /**
+     * Keyset-paginated listing
+     * GET /api/accounts?limit=50&after={nextCursor}
+     */
     @GetMapping
-    public ResponseEntity<List<AccountDto>> list() {
-        return ResponseEntity.ok(accountService.getAll());
+    public ResponseEntity<AccountPage> list(@RequestParam(required = false) Long after,
+                                            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(accountService.getAll(after, limit));
+    }
+
+    /**
+     * Balance movements with running balances, oldest first; {@code from}/{@code to} are
+     * ISO date-times and default to the last month
+     * GET /api/accounts/{id}/statement?from=2026-01-01T00:00&to=2026-02-01T00:00&limit=100&cursor={nextCursor}
+     */
+    @GetMapping("/{id}/statement")
+    public ResponseEntity<StatementPage> statement(@PathVariable Long id,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(accountService.getStatement(id, from, to, cursor, limit));
+    }
+
+    /**
+     * Stream every account as newline-delimited JSON, one row at a time
+     * GET /api/accounts/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        StreamingResponseBody body = out -> writeNdjson(out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Full dump of every account for offline processing, streamed from a database cursor
+     * GET /api/accounts/export?format=ndjson|csv&gzip=true
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format,
+                                                        @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024, true);
+                accountExporter.export(exportFormat, compressed);
+                compressed.finish();
+            } else {
+                accountExporter.export(exportFormat, out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("accounts." + exportFormat.getExtension()).build().toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    private void writeNdjson(OutputStream target) throws IOException {
+        OutputStream out = new BufferedOutputStream(target);
+        int[] written = {0};
+        try {
+            accountService.streamAll(dto -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(dto));
+                    out.write('\n');
+                    if (++written[0] % STREAM_FLUSH_EVERY == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
     }
 
     @PutMapping("/{id}")
@@ -55,6 +188,33 @@ public class AccountController {
         return ResponseEntity.ok(accountService.update(id, req));
     }
 
+    /**
+     * Deposit into an account
+     * POST /api/accounts/{id}/deposit
+     */
+    @PostMapping("/{id}/deposit")
+    public ResponseEntity<AccountDto> deposit(@PathVariable Long id, @Validated @RequestBody AmountRequest req) {
+        return ResponseEntity.ok(accountService.deposit(id, req.getAmount()));
+    }
+
+    /**
+     * Withdraw from an account
+     * POST /api/accounts/{id}/withdraw
+     */
+    @PostMapping("/{id}/withdraw")
+    public ResponseEntity<AccountDto> withdraw(@PathVariable Long id, @Validated @RequestBody AmountRequest req) {
+        return ResponseEntity.ok(accountService.withdraw(id, req.getAmount()));
+    }
+
+    /**
+     * Move money between two accounts
+     * POST /api/accounts/transfer
+     */
+    @PostMapping("/transfer")
+    public ResponseEntity<TransferResult> transfer(@Validated @RequestBody TransferRequest req) {
+        return ResponseEntity.ok(accountService.transfer(req.getFromAccountId(), req.getToAccountId(), req.getAmount()));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> delete(@PathVariable Long id) {
         accountService.delete(id);
@@ -0,0 +1,22 @@
+package com.ramrk.bankingapp.dto;
+
+import java.util.List;
+
+/**
+ * One page of accounts ordered by id. {@code nextCursor} is the id to pass as
+ * {@code after} to fetch the following page, or null when there are no more rows.
+ */
+public class AccountPage {
+    private List<AccountDto> items;
+    private Long nextCursor;
+
+    public AccountPage() {}
+
+    public AccountPage(List<AccountDto> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<AccountDto> getItems() { return items; }
+    public Long getNextCursor() { return nextCursor; }
+}
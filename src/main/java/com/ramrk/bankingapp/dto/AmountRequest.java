@@ -0,0 +1,25 @@
+package com.ramrk.bankingapp.dto;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+
+/** Request model for deposit and withdraw operations. */
+public class AmountRequest {
+
+    /** Amount to move, strictly positive, in cents at most: the balance columns keep two decimals */
+    @NotNull
+    @DecimalMin(value = "0.01")
+    @Digits(integer = 16, fraction = 2)
+    private BigDecimal amount;
+
+    public AmountRequest() {}
+
+    public AmountRequest(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public BigDecimal getAmount() { return amount; }
+}
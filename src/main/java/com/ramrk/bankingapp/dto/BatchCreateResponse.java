@@ -0,0 +1,22 @@
+package com.ramrk.bankingapp.dto;
+
+import java.util.List;
+
+/** Response for a batch create: totals plus one result per submitted entry, in order. */
+public class BatchCreateResponse {
+    private int created;
+    private int rejected;
+    private List<BatchItemResult> results;
+
+    public BatchCreateResponse() {}
+
+    public BatchCreateResponse(int created, int rejected, List<BatchItemResult> results) {
+        this.created = created;
+        this.rejected = rejected;
+        this.results = results;
+    }
+
+    public int getCreated() { return created; }
+    public int getRejected() { return rejected; }
+    public List<BatchItemResult> getResults() { return results; }
+}
@@ -0,0 +1,41 @@
+package com.ramrk.bankingapp.dto;
+
+import java.util.Map;
+
+/** Outcome of one entry of a batch create, matched to the request by its position. */
+public class BatchItemResult {
+
+    /** What happened to a batch entry */
+    public enum Status { CREATED, INVALID, FAILED }
+
+    private int index;
+    private Status status;
+    private AccountDto account;
+    private Map<String, String> errors;
+
+    public BatchItemResult() {}
+
+    public BatchItemResult(int index, Status status, AccountDto account, Map<String, String> errors) {
+        this.index = index;
+        this.status = status;
+        this.account = account;
+        this.errors = errors;
+    }
+
+    public static BatchItemResult created(int index, AccountDto account) {
+        return new BatchItemResult(index, Status.CREATED, account, null);
+    }
+
+    public static BatchItemResult invalid(int index, Map<String, String> errors) {
+        return new BatchItemResult(index, Status.INVALID, null, errors);
+    }
+
+    public static BatchItemResult failed(int index, String message) {
+        return new BatchItemResult(index, Status.FAILED, null, Map.of("message", message));
+    }
+
+    public int getIndex() { return index; }
+    public Status getStatus() { return status; }
+    public AccountDto getAccount() { return account; }
+    public Map<String, String> getErrors() { return errors; }
+}
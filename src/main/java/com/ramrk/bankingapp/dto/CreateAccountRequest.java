@@ -2,6 +2,7 @@ package com.ramrk.bankingapp.dto;
 
 import java.math.BigDecimal;
 
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -16,8 +17,9 @@ public class CreateAccountRequest {
     @Email
     private String email;
 
-    /** Initial deposit amount, must not be null */
+    /** Initial deposit amount, must not be null; two decimals at most, as the balance column keeps */
     @NotNull
+    @Digits(integer = 16, fraction = 2)
     private BigDecimal initialDeposit;
 
     public CreateAccountRequest() {}
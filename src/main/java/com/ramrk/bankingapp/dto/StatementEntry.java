@@ -0,0 +1,35 @@
+package com.ramrk.bankingapp.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.ramrk.bankingapp.model.AccountTransaction;
+
+/** One line of an account statement; {@code balance} is the balance right after it. */
+public class StatementEntry {
+    private Long id;
+    private LocalDateTime occurredAt;
+    private AccountTransaction.Type type;
+    private BigDecimal amount;
+    private BigDecimal balance;
+    private Long counterpartyId;
+
+    public StatementEntry() {}
+
+    public StatementEntry(Long id, LocalDateTime occurredAt, AccountTransaction.Type type, BigDecimal amount,
+                          BigDecimal balance, Long counterpartyId) {
+        this.id = id;
+        this.occurredAt = occurredAt;
+        this.type = type;
+        this.amount = amount;
+        this.balance = balance;
+        this.counterpartyId = counterpartyId;
+    }
+
+    public Long getId() { return id; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public AccountTransaction.Type getType() { return type; }
+    public BigDecimal getAmount() { return amount; }
+    public BigDecimal getBalance() { return balance; }
+    public Long getCounterpartyId() { return counterpartyId; }
+}
@@ -0,0 +1,33 @@
+package com.ramrk.bankingapp.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One page of an account statement, oldest entry first, covering {@code from}
+ * (inclusive) to {@code to} (exclusive). {@code nextCursor} is the opaque value to
+ * pass as {@code cursor} for the following page, or null on the last one.
+ */
+public class StatementPage {
+    private Long accountId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<StatementEntry> items;
+    private String nextCursor;
+
+    public StatementPage() {}
+
+    public StatementPage(Long accountId, LocalDateTime from, LocalDateTime to, List<StatementEntry> items, String nextCursor) {
+        this.accountId = accountId;
+        this.from = from;
+        this.to = to;
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public Long getAccountId() { return accountId; }
+    public LocalDateTime getFrom() { return from; }
+    public LocalDateTime getTo() { return to; }
+    public List<StatementEntry> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+}
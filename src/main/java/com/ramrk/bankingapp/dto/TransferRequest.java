@@ -0,0 +1,37 @@
+package com.ramrk.bankingapp.dto;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+
+/** Request model for moving money between two accounts. */
+public class TransferRequest {
+
+    /** Id of the account to debit */
+    @NotNull
+    private Long fromAccountId;
+
+    /** Id of the account to credit */
+    @NotNull
+    private Long toAccountId;
+
+    /** Amount to move, strictly positive, in cents at most: the balance columns keep two decimals */
+    @NotNull
+    @DecimalMin(value = "0.01")
+    @Digits(integer = 16, fraction = 2)
+    private BigDecimal amount;
+
+    public TransferRequest() {}
+
+    public TransferRequest(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+    }
+
+    public Long getFromAccountId() { return fromAccountId; }
+    public Long getToAccountId() { return toAccountId; }
+    public BigDecimal getAmount() { return amount; }
+}
@@ -0,0 +1,22 @@
+package com.ramrk.bankingapp.dto;
+
+import java.math.BigDecimal;
+
+/** Outcome of a transfer: both accounts as they stood right after the money moved. */
+public class TransferResult {
+    private AccountDto from;
+    private AccountDto to;
+    private BigDecimal amount;
+
+    public TransferResult() {}
+
+    public TransferResult(AccountDto from, AccountDto to, BigDecimal amount) {
+        this.from = from;
+        this.to = to;
+        this.amount = amount;
+    }
+
+    public AccountDto getFrom() { return from; }
+    public AccountDto getTo() { return to; }
+    public BigDecimal getAmount() { return amount; }
+}
@@ -1,5 +1,7 @@
 package com.ramrk.bankingapp.dto;
 
+import java.util.Objects;
+
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 
@@ -23,4 +25,16 @@ public class UpdateAccountRequest {
 
     public String getOwnerName() { return ownerName; }
     public String getEmail() { return email; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UpdateAccountRequest other)) return false;
+        return Objects.equals(ownerName, other.ownerName) && Objects.equals(email, other.email);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ownerName, email);
+    }
 }
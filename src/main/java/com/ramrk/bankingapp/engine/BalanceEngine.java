@@ -0,0 +1,359 @@
+package com.ramrk.bankingapp.engine;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ramrk.bankingapp.exception.BadRequestException;
+import com.ramrk.bankingapp.exception.InsufficientFundsException;
+import com.ramrk.bankingapp.exception.ResourceNotFoundException;
+import com.ramrk.bankingapp.journal.JournalRecord;
+import com.ramrk.bankingapp.journal.TransactionJournal;
+import com.ramrk.bankingapp.model.Account;
+import com.ramrk.bankingapp.model.AccountTransaction;
+import com.ramrk.bankingapp.repository.AccountRepository;
+import com.ramrk.bankingapp.repository.AccountTransactionRepository;
+import com.ramrk.bankingapp.shard.AccountShards;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Applies balance changes through a fixed set of lanes, each drained by a single
+ * writer thread. Every account id hashes to one lane, so changes to the same account
+ * are applied strictly one after the other (no lost read-modify-write), while
+ * different lanes run in parallel across cores.
+ * <p>
+ * A lane drains whatever is queued (up to {@code banking.engine.max-batch}) and
+ * applies it in one transaction, loading each account once. Callers are released
+ * only after that transaction commits; an operation that cannot be applied (unknown
+ * account, insufficient funds) fails on its own without affecting the rest of the batch.
+ * <p>
+ * Transfers span two lanes, so they run on the caller's thread under row locks taken
+ * in id order instead. Lane batches read without locks; the {@code @Version} column on
+ * {@link Account} catches a transfer that slipped in, and the batch is re-run by
+ * {@link ConflictRetry}, this time locking its rows (also in id order) so a busy
+ * account cannot starve it.
+ * <p>
+ * Each change also inserts an {@link AccountTransaction} in the same transaction, the
+ * account's statement history.
+ * <p>
+ * Every committed change is appended to the {@link TransactionJournal}; callers are
+ * released once the journal has it on disk. The lane does not wait for that, so the
+ * fsync of one batch overlaps the transaction of the next.
+ * <p>
+ * With sharding every shard gets its own {@code banking.engine.lanes} lanes, so a
+ * batch never spans shards and the shards are written in parallel. Transfers between
+ * accounts on different shards are refused; they would need a distributed transaction.
+ */
+@Component
+public class BalanceEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceEngine.class);
+
+    /** Decimal places of the balance and amount columns. */
+    private static final int SCALE = 2;
+
+    private final AccountRepository accountRepository;
+    private final AccountTransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConflictRetry conflictRetry;
+    private final TransactionJournal journal;
+    private final AccountShards shards;
+    private final int maxBatch;
+    private final int lanesPerShard;
+    private final Lane[] lanes;
+    private volatile boolean running = true;
+
+    public BalanceEngine(AccountRepository accountRepository, AccountTransactionRepository transactionRepository,
+                         PlatformTransactionManager transactionManager,
+                         ConflictRetry conflictRetry, TransactionJournal journal, AccountShards shards,
+                         @Value("${banking.engine.lanes:0}") int lanes,
+                         @Value("${banking.engine.max-batch:256}") int maxBatch) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.conflictRetry = conflictRetry;
+        this.journal = journal;
+        this.shards = shards;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.lanesPerShard = lanes > 0 ? lanes : Runtime.getRuntime().availableProcessors();
+        this.lanes = new Lane[lanesPerShard * shards.count()];
+        for (int i = 0; i < this.lanes.length; i++) {
+            this.lanes[i] = new Lane("balance-lane-" + i, i / lanesPerShard);
+        }
+    }
+
+    /** Add {@code amount} to the balance and return the account as it stood right after. */
+    public Account deposit(Long accountId, BigDecimal amount) {
+        return apply(accountId, requirePositive(amount));
+    }
+
+    /** Take {@code amount} from the balance, refusing to go below zero. */
+    public Account withdraw(Long accountId, BigDecimal amount) {
+        return apply(accountId, requirePositive(amount).negate());
+    }
+
+    /**
+     * Move {@code amount} from one account to another in a single transaction. Both
+     * rows are locked lowest id first, so transfers running in opposite directions
+     * queue behind each other instead of deadlocking.
+     */
+    public Transfer transfer(Long fromId, Long toId, BigDecimal requested) {
+        BigDecimal amount = requirePositive(requested);
+        if (fromId.equals(toId)) {
+            throw new BadRequestException("Cannot transfer to the same account");
+        }
+        int shard = shards.ofId(fromId);
+        if (shards.ofId(toId) != shard) {
+            throw new BadRequestException("Transfers between accounts on different shards are not supported");
+        }
+        List<JournalRecord> journaled = new ArrayList<>(2);
+        Transfer transfer = shards.on(shard, () -> conflictRetry.execute(() -> transactionTemplate.execute(status -> {
+            journaled.clear();
+            Account first = lock(Math.min(fromId, toId));
+            Account second = lock(Math.max(fromId, toId));
+            Account from = first.getId().equals(fromId) ? first : second;
+            Account to = from == first ? second : first;
+            BigDecimal remaining = from.getBalance().subtract(amount);
+            if (remaining.signum() < 0) {
+                throw new InsufficientFundsException("Insufficient funds");
+            }
+            from.setBalance(remaining);
+            to.setBalance(to.getBalance().add(amount));
+            accountRepository.flush();
+            LocalDateTime now = now();
+            transactionRepository.saveAll(List.of(
+                    new AccountTransaction(from.getId(), now, AccountTransaction.Type.TRANSFER_OUT, amount.negate(), from.getBalance(), to.getId()),
+                    new AccountTransaction(to.getId(), now, AccountTransaction.Type.TRANSFER_IN, amount, to.getBalance(), from.getId())));
+            journaled.add(JournalRecord.of(JournalRecord.Type.TRANSFER_OUT, from.getId(), amount, from.getBalance(), from.getVersion()));
+            journaled.add(JournalRecord.of(JournalRecord.Type.TRANSFER_IN, to.getId(), amount, to.getBalance(), to.getVersion()));
+            return new Transfer(snapshot(from), snapshot(to));
+        })));
+        try {
+            journal.append(journaled).join();
+        } catch (CompletionException e) {
+            logJournalFailure(e.getCause());
+        }
+        return transfer;
+    }
+
+    private Account apply(Long accountId, BigDecimal delta) {
+        if (!running) {
+            throw new IllegalStateException("Balance engine is shut down");
+        }
+        Lane lane = laneFor(accountId);
+        Operation op = new Operation(accountId, delta, new CompletableFuture<>());
+        lane.queue.add(op);
+        try {
+            return op.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Account lock(Long id) {
+        return accountRepository.findByIdForUpdate(id).orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+    }
+
+    private Lane laneFor(Long accountId) {
+        // spread sequential ids so neighbouring accounts do not pile onto adjacent lanes
+        int hash = Long.hashCode(accountId * 0x9E3779B97F4A7C15L);
+        return lanes[shards.ofId(accountId) * lanesPerShard + Math.floorMod(hash, lanesPerShard)];
+    }
+
+    /** Apply a drained batch in one transaction and settle every caller once it is committed and journaled. */
+    private void process(List<Operation> batch) {
+        Applied applied;
+        try {
+            applied = conflictRetry.execute(attempt -> transactionTemplate.execute(status -> applyAll(batch, attempt > 1)));
+        } catch (RuntimeException e) {
+            batch.forEach(op -> op.result().completeExceptionally(e));
+            return;
+        }
+        // the lane reuses its batch list, so settle a copy once the journal catches up
+        List<Operation> settled = List.copyOf(batch);
+        journal.append(applied.records()).whenComplete((ignored, failure) -> {
+            if (failure != null) {
+                logJournalFailure(failure);
+            }
+            settle(settled, applied.outcomes());
+        });
+    }
+
+    private static void settle(List<Operation> batch, Map<Operation, Object> outcomes) {
+        for (Operation op : batch) {
+            Object outcome = outcomes.get(op);
+            if (outcome instanceof RuntimeException failure) {
+                op.result().completeExceptionally(failure);
+            } else {
+                op.result().complete((Account) outcome);
+            }
+        }
+    }
+
+    /** The balance change is already committed, so a journal failure is logged rather than reported to the caller. */
+    private static void logJournalFailure(Throwable failure) {
+        log.error("Balance change committed but not journaled", failure);
+    }
+
+    private Applied applyAll(List<Operation> batch, boolean lockRows) {
+        Map<Long, Account> accounts = new HashMap<>();
+        if (lockRows) {
+            SortedSet<Long> ids = new TreeSet<>();
+            batch.forEach(op -> ids.add(op.accountId()));
+            ids.forEach(id -> accounts.put(id, accountRepository.findByIdForUpdate(id).orElse(null)));
+        }
+        Map<Operation, Object> outcomes = new IdentityHashMap<>();
+        List<Operation> applied = new ArrayList<>(batch.size());
+        for (Operation op : batch) {
+            Account account = accounts.computeIfAbsent(op.accountId(), id -> accountRepository.findById(id).orElse(null));
+            if (account == null) {
+                outcomes.put(op, new ResourceNotFoundException("Account not found"));
+                continue;
+            }
+            BigDecimal newBalance = account.getBalance().add(op.delta());
+            if (newBalance.signum() < 0) {
+                outcomes.put(op, new InsufficientFundsException("Insufficient funds"));
+                continue;
+            }
+            account.setBalance(newBalance);
+            outcomes.put(op, snapshot(account));
+            applied.add(op);
+        }
+        accountRepository.flush();
+        // versions and updatedAt are only set by the flush, so the records are built afterwards
+        List<JournalRecord> records = new ArrayList<>(applied.size());
+        List<AccountTransaction> entries = new ArrayList<>(applied.size());
+        LocalDateTime now = now();
+        for (Operation op : applied) {
+            Account after = (Account) outcomes.get(op);
+            after.setUpdatedAt(accounts.get(op.accountId()).getUpdatedAt());
+            boolean deposit = op.delta().signum() > 0;
+            JournalRecord.Type type = deposit ? JournalRecord.Type.DEPOSIT : JournalRecord.Type.WITHDRAWAL;
+            records.add(JournalRecord.of(type, op.accountId(), op.delta().abs(), after.getBalance(),
+                    accounts.get(op.accountId()).getVersion()));
+            entries.add(new AccountTransaction(op.accountId(), now,
+                    deposit ? AccountTransaction.Type.DEPOSIT : AccountTransaction.Type.WITHDRAWAL,
+                    op.delta(), after.getBalance(), null));
+        }
+        // the entries are inserted as one JDBC batch when the transaction commits
+        transactionRepository.saveAll(entries);
+        return new Applied(outcomes, records);
+    }
+
+    /**
+     * Detached copy, since later operations in the batch keep changing the managed entity.
+     * Taken before the flush, its {@code updatedAt} is refreshed once the flush has set it.
+     */
+    private static Account snapshot(Account a) {
+        return Account.builder()
+                .id(a.getId())
+                .accountNumber(a.getAccountNumber())
+                .ownerName(a.getOwnerName())
+                .email(a.getEmail())
+                .balance(a.getBalance())
+                .createdAt(a.getCreatedAt())
+                .updatedAt(a.getUpdatedAt())
+                .build();
+    }
+
+    /** Entry timestamp at the precision the database keeps, so cursors built from rows read back match exactly. */
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    /**
+     * The amount at the scale the balance columns keep, so the balance, journal and
+     * statement values computed here are the ones the database stores.
+     */
+    private static BigDecimal requirePositive(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new BadRequestException("Amount must be positive");
+        }
+        try {
+            return amount.setScale(SCALE, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException e) {
+            throw new BadRequestException("Amount must not have more than " + SCALE + " decimal places");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Lane lane : lanes) {
+            lane.thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /** Both sides of a completed transfer, as they stood right after it. */
+    public record Transfer(Account from, Account to) {}
+
+    private record Applied(Map<Operation, Object> outcomes, List<JournalRecord> records) {}
+
+    private record Operation(Long accountId, BigDecimal delta, CompletableFuture<Account> result) {}
+
+    /** A single-writer queue; only its own thread ever touches the accounts hashed to it. */
+    private final class Lane implements Runnable {
+        private final BlockingQueue<Operation> queue = new LinkedBlockingQueue<>();
+        private final int shard;
+        private final Thread thread;
+
+        Lane(String name, int shard) {
+            this.shard = shard;
+            this.thread = new Thread(this, name);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        @Override
+        public void run() {
+            shards.run(shard, this::drain);
+        }
+
+        private void drain() {
+            List<Operation> batch = new ArrayList<>(maxBatch);
+            while (running || !queue.isEmpty()) {
+                try {
+                    Operation first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatch - 1);
+                    process(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("Balance lane {} failed a batch", thread.getName(), e);
+                    batch.forEach(op -> op.result().completeExceptionally(e));
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ramrk.bankingapp.engine;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Re-runs a unit of work that lost a race with another writer: an optimistic version
+ * mismatch, a lock timeout or a deadlock victim. Attempts are bounded and spaced by
+ * exponential backoff with full jitter, so colliding writers do not retry in lockstep.
+ * The work must start its own transaction, so each attempt sees fresh rows.
+ * Repeated and given-up attempts are published as {@code banking.engine.retries}.
+ */
+@Component
+public class ConflictRetry implements MeterBinder {
+
+    private final int maxAttempts;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public ConflictRetry(@Value("${banking.engine.retry.max-attempts:5}") int maxAttempts,
+                         @Value("${banking.engine.retry.base-backoff:5ms}") Duration baseBackoff,
+                         @Value("${banking.engine.retry.max-backoff:200ms}") Duration maxBackoff) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoffNanos = baseBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        return execute(attempt -> work.get());
+    }
+
+    /** As {@link #execute(Supplier)}, telling the work which attempt (from 1) it is on. */
+    public <T> T execute(IntFunction<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return work.apply(attempt);
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+                backOff(attempt);
+            }
+        }
+    }
+
+    /** Attempts that were repeated after a conflict, since startup. */
+    public long retries() {
+        return retries.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("banking.engine.retries", retries, LongAdder::sum)
+                .description("Write-conflict retries: attempts repeated, and operations given up after the last")
+                .tag("outcome", "retried").register(registry);
+        FunctionCounter.builder("banking.engine.retries", exhausted, LongAdder::sum)
+                .tag("outcome", "exhausted").register(registry);
+    }
+
+    private void backOff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, baseBackoffNanos << Math.min(attempt - 1, 20));
+        long sleepNanos = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(Duration.ofNanos(sleepNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off from a write conflict", e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.ramrk.bankingapp.exception;
+
+/**
+ * Runtime exception thrown when a request's arguments are invalid; its message is shown
+ * to the client. Stackless, like the other domain exceptions.
+ */
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,53 +1,152 @@
 package com.ramrk.bankingapp.exception;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.ramrk.bankingapp.config.ErrorResponseProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Maps exceptions to RFC 7807 problem responses. Bodies with a fixed detail come
+ * pre-serialized from {@link ProblemResponses}; every response is counted in
+ * {@code banking.errors} by type. Unexpected exceptions answer with a generic 500 and
+ * never expose their trace; the trace is logged at most once per type and
+ * {@code banking.errors.trace-interval}.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long traceIntervalNanos;
+    private final ConcurrentHashMap<Class<?>, TraceThrottle> traceThrottles = new ConcurrentHashMap<>();
+
+    private final Counter notFound;
+    private final Counter insufficientFunds;
+    private final Counter concurrentModification;
+    private final Counter busy;
+    private final Counter badRequest;
+    private final Counter validation;
+    private final Counter internal;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry, ErrorResponseProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.traceIntervalNanos = properties.getTraceInterval().toNanos();
+        this.notFound = errors("not_found", HttpStatus.NOT_FOUND);
+        this.insufficientFunds = errors("insufficient_funds", HttpStatus.CONFLICT);
+        this.concurrentModification = errors("concurrent_modification", HttpStatus.CONFLICT);
+        this.busy = errors("busy", HttpStatus.SERVICE_UNAVAILABLE);
+        this.badRequest = errors("bad_request", HttpStatus.BAD_REQUEST);
+        this.validation = errors("validation", HttpStatus.BAD_REQUEST);
+        this.internal = errors("internal", HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private Counter errors(String type, HttpStatus status) {
+        return Counter.builder("banking.errors")
+                .description("Error responses by type")
+                .tag("type", type)
+                .tag("status", String.valueOf(status.value()))
+                .register(meterRegistry);
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<?> handleNotFound(ResourceNotFoundException ex) {
-        Map<String, String> body = new HashMap<>();
-        body.put("message", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
+    public ResponseEntity<byte[]> handleNotFound(ResourceNotFoundException ex) {
+        notFound.increment();
+        return ProblemResponses.of(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(InsufficientFundsException.class)
+    public ResponseEntity<byte[]> handleInsufficientFunds(InsufficientFundsException ex) {
+        insufficientFunds.increment();
+        return ProblemResponses.of(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<byte[]> handleConcurrencyFailure(ConcurrencyFailureException ex) {
+        concurrentModification.increment();
+        return ProblemResponses.of(HttpStatus.CONFLICT, "Account was modified concurrently, please retry");
+    }
+
+    /** No database connection became free in time; the client should back off and retry. */
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<byte[]> handleNoConnection(Exception ex) {
+        busy.increment();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(ProblemResponses.body(HttpStatus.SERVICE_UNAVAILABLE, "Service is busy, please retry"));
+    }
+
+    /** Only the service's own argument checks; an IllegalArgumentException from anywhere else is a server bug and a 500. */
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<byte[]> handleBadRequest(BadRequestException ex) {
+        badRequest.increment();
+        return ProblemResponses.of(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<?> handleValidation(MethodArgumentNotValidException ex) {
-        Map<String, Object> wrapper = new HashMap<>();
-        Map<String, String> errors = new HashMap<>();
+    public ResponseEntity<byte[]> handleValidation(MethodArgumentNotValidException ex) {
+        validation.increment();
+        // rejected before reaching the service, so counted here alongside the service's own failures
+        Counter.builder("banking.account.failures")
+                .tag("method", ex.getParameter().getExecutable().getName())
+                .tag("reason", "validation")
+                .register(meterRegistry)
+                .increment();
+        Map<String, String> errors = new LinkedHashMap<>();
         ex.getBindingResult().getFieldErrors().forEach(err -> errors.put(err.getField(), err.getDefaultMessage()));
-        wrapper.put("errors", errors);
-        return ResponseEntity.badRequest().body(wrapper);
+        return ProblemResponses.of(HttpStatus.BAD_REQUEST, "Request validation failed", Map.of("errors", errors));
     }
 
-    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
-
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<?> handleGeneric(Exception ex) {
-        // Log full stack trace for debugging
-        log.error("Unhandled exception caught: {}", ex.toString(), ex);
-
-        StringWriter sw = new StringWriter();
-        ex.printStackTrace(new PrintWriter(sw));
-        String stack = sw.toString();
-
-        Map<String, Object> body = new HashMap<>();
-        body.put("error", ex.getClass().getSimpleName());
-        body.put("message", ex.getMessage());
-        // include trace for debugging (remove or redact in production)
-        body.put("trace", stack);
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(body);
+    public ResponseEntity<byte[]> handleGeneric(Exception ex) {
+        // Spring's own web exceptions (unreadable body, wrong method, actuator bad request) carry their status
+        if (ex instanceof ErrorResponse error && HttpStatus.resolve(error.getStatusCode().value()) instanceof HttpStatus status
+                && !status.is5xxServerError()) {
+            errors("web", status).increment();
+            return ProblemResponses.of(status, error.getBody().getDetail());
+        }
+        internal.increment();
+        TraceThrottle throttle = traceThrottles.computeIfAbsent(ex.getClass(), type -> new TraceThrottle());
+        if (throttle.tryAcquire(traceIntervalNanos)) {
+            log.error("Unhandled exception ({} more of this type since the last trace): {}",
+                    throttle.suppressed.sumThenReset(), ex.toString(), ex);
+        } else {
+            throttle.suppressed.increment();
+        }
+        return ProblemResponses.of(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred");
+    }
+
+    /** Lets one trace per interval through for one exception type and counts the ones held back. */
+    private static final class TraceThrottle {
+
+        private final AtomicLong nextAt = new AtomicLong(System.nanoTime());
+        private final LongAdder suppressed = new LongAdder();
+
+        boolean tryAcquire(long intervalNanos) {
+            long now = System.nanoTime();
+            long next = nextAt.get();
+            return now - next >= 0 && nextAt.compareAndSet(next, now + intervalNanos);
+        }
     }
 }
@@ -0,0 +1,8 @@
+package com.ramrk.bankingapp.exception;
+
+/** Runtime exception thrown when a withdrawal would take a balance below zero; stackless, it is an expected outcome */
+public class InsufficientFundsException extends RuntimeException {
+    public InsufficientFundsException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,81 @@
+package com.ramrk.bankingapp.exception;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import jakarta.servlet.http.HttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * RFC 7807 {@code application/problem+json} error bodies. A body depends only on its
+ * status and detail, so each distinct pair is serialized once and its response is
+ * served from then on (its headers are read-only); a burst of 404s costs no JSON
+ * rendering and no allocation here. Details that quote the request could grow the
+ * cache without bound, so it stops taking entries at {@value #MAX_CACHED} and renders
+ * the rest on every call.
+ */
+public final class ProblemResponses {
+
+    private static final int MAX_CACHED = 1024;
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+    private static final ConcurrentHashMap<HttpStatus, ConcurrentHashMap<String, ResponseEntity<byte[]>>> CACHE = new ConcurrentHashMap<>();
+    private static final AtomicInteger CACHED_RESPONSES = new AtomicInteger();
+
+    private ProblemResponses() {
+    }
+
+    /** Problem response with {@code detail}, which may be null; the same instance for every call. */
+    public static ResponseEntity<byte[]> of(HttpStatus status, String detail) {
+        String key = detail != null ? detail : "";
+        ConcurrentHashMap<String, ResponseEntity<byte[]>> responses = CACHE.computeIfAbsent(status, s -> new ConcurrentHashMap<>());
+        ResponseEntity<byte[]> response = responses.get(key);
+        if (response != null) {
+            return response;
+        }
+        response = ResponseEntity.status(status).contentType(MediaType.APPLICATION_PROBLEM_JSON).body(render(status, detail, Map.of()));
+        if (CACHED_RESPONSES.get() < MAX_CACHED && responses.putIfAbsent(key, response) == null) {
+            CACHED_RESPONSES.incrementAndGet();
+        }
+        return response;
+    }
+
+    /** Problem response with extension members after the standard ones; rendered on every call. */
+    public static ResponseEntity<byte[]> of(HttpStatus status, String detail, Map<String, ?> extensions) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_PROBLEM_JSON).body(render(status, detail, extensions));
+    }
+
+    /** Writes the problem body straight to a response, for filters that answer before any controller. */
+    public static void write(HttpServletResponse response, HttpStatus status, String detail) throws IOException {
+        byte[] body = body(status, detail);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /** The serialized body; callers must not modify it. */
+    public static byte[] body(HttpStatus status, String detail) {
+        return of(status, detail).getBody();
+    }
+
+    private static byte[] render(HttpStatus status, String detail, Map<String, ?> extensions) {
+        Map<String, Object> problem = new LinkedHashMap<>();
+        problem.put("type", "about:blank");
+        problem.put("title", status.getReasonPhrase());
+        problem.put("status", status.value());
+        if (detail != null && !detail.isEmpty()) {
+            problem.put("detail", detail);
+        }
+        problem.putAll(extensions);
+        return MAPPER.writeValueAsBytes(problem);
+    }
+}
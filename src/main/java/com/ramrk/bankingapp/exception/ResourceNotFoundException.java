@@ -1,8 +1,11 @@
 package com.ramrk.bankingapp.exception;
 
-/** Runtime exception thrown when a resource cannot be found */
+/**
+ * Runtime exception thrown when a resource cannot be found. Stackless: a scan of
+ * unknown ids throws one per request, and the trace would only show the lookup.
+ */
 public class ResourceNotFoundException extends RuntimeException {
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
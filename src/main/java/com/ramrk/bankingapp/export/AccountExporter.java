@@ -0,0 +1,217 @@
+package com.ramrk.bankingapp.export;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Component;
+
+import com.ramrk.bankingapp.config.ExportProperties;
+import com.ramrk.bankingapp.shard.AccountShards;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Writes every account to an output stream straight from a forward-only, read-only
+ * JDBC cursor. Each row is written as soon as it is read, so memory use does not
+ * depend on the size of the table: there is no list, no entity and no DTO per row.
+ * <p>
+ * The cursor only streams if the driver is told to: MySQL needs
+ * {@code useCursorFetch=true} on the URL (set in application.properties), H2 needs
+ * {@code LAZY_QUERY_EXECUTION=1}. A slow client blocks the writes and with them the
+ * fetches, so the export never runs ahead of the reader.
+ * <p>
+ * Sharded, every shard gets its own cursor and the rows are merged by id through
+ * {@link AccountShards#streamAll}, so the output is ordered as on a single database.
+ * There each row is copied into a small record to wait in the merge, which holds at
+ * most a bounded buffer of them per shard.
+ */
+@Component
+public class AccountExporter {
+
+    private static final String SQL = "select id, account_number, owner_name, email, balance, created_at, updated_at"
+            + " from accounts order by id";
+    private static final String CSV_HEADER = "id,account_number,owner_name,email,balance,created_at,updated_at\n";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExportProperties properties;
+    private final AccountShards shards;
+
+    public AccountExporter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, ExportProperties properties,
+                           AccountShards shards) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.shards = shards;
+    }
+
+    /** Write all accounts in {@code format}, returning the number of rows written. The stream is flushed, not closed. */
+    public long export(ExportFormat format, OutputStream target) throws IOException {
+        RowWriter writer = format == ExportFormat.CSV ? new CsvWriter(target) : new NdjsonWriter(target);
+        long[] rows = {0};
+        int flushEvery = Math.max(1, properties.getFlushEvery());
+        try {
+            if (shards.isSharded()) {
+                try (Stream<Row> merged = shards.streamAll(shard -> jdbcTemplate.queryForStream(cursor(), (rs, n) -> Row.of(rs)),
+                        Comparator.comparingLong(Row::id))) {
+                    merged.forEach(row -> {
+                        try {
+                            writer.write(row.id(), row.accountNumber(), row.ownerName(), row.email(), row.balance(),
+                                    row.createdAt(), row.updatedAt());
+                            flushEvery(writer, ++rows[0], flushEvery);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            } else {
+                jdbcTemplate.query(cursor(), rs -> {
+                    try {
+                        writer.write(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getBigDecimal(5),
+                                timestamp(rs, 6), timestamp(rs, 7));
+                        flushEvery(writer, ++rows[0], flushEvery);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return rows[0];
+    }
+
+    private PreparedStatementCreator cursor() {
+        return con -> {
+            PreparedStatement ps = con.prepareStatement(SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(properties.getFetchSize());
+            return ps;
+        };
+    }
+
+    private static void flushEvery(RowWriter writer, long rows, int flushEvery) throws IOException {
+        if (rows % flushEvery == 0) {
+            writer.flush();
+        }
+    }
+
+    /** A row taken off a shard's cursor to wait in the merge, timestamps already formatted. */
+    private record Row(long id, String accountNumber, String ownerName, String email, BigDecimal balance,
+                       String createdAt, String updatedAt) {
+
+        static Row of(ResultSet rs) throws SQLException {
+            return new Row(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getBigDecimal(5),
+                    timestamp(rs, 6), timestamp(rs, 7));
+        }
+    }
+
+    private interface RowWriter {
+        void write(long id, String accountNumber, String ownerName, String email, BigDecimal balance,
+                   String createdAt, String updatedAt) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static String timestamp(ResultSet rs, int column) throws SQLException {
+        LocalDateTime value = rs.getObject(column, LocalDateTime.class);
+        return value == null ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value);
+    }
+
+    /** One JSON object per line, with the same property names as AccountDto. */
+    private class NdjsonWriter implements RowWriter {
+
+        private final OutputStream out;
+        private final JsonGenerator json;
+
+        NdjsonWriter(OutputStream target) {
+            this.out = new BufferedOutputStream(target, BUFFER_SIZE);
+            this.json = objectMapper.writer().withRootValueSeparator("").createGenerator(out);
+        }
+
+        @Override
+        public void write(long id, String accountNumber, String ownerName, String email, BigDecimal balance,
+                          String createdAt, String updatedAt) {
+            json.writeStartObject();
+            json.writeNumberProperty("id", id);
+            json.writeStringProperty("accountNumber", accountNumber);
+            json.writeStringProperty("ownerName", ownerName);
+            json.writeStringProperty("email", email);
+            if (balance == null) {
+                json.writeNullProperty("balance");
+            } else {
+                json.writeNumberProperty("balance", balance);
+            }
+            json.writeStringProperty("createdAt", createdAt);
+            json.writeStringProperty("updatedAt", updatedAt);
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() {
+            json.flush();
+        }
+    }
+
+    /** RFC 4180 CSV with a header row; fields are quoted only when they need to be. */
+    private static class CsvWriter implements RowWriter {
+
+        private final Writer out;
+
+        CsvWriter(OutputStream target) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+            out.write(CSV_HEADER);
+        }
+
+        @Override
+        public void write(long id, String accountNumber, String ownerName, String email, BigDecimal balance,
+                          String createdAt, String updatedAt) throws IOException {
+            out.write(Long.toString(id));
+            field(accountNumber);
+            field(ownerName);
+            field(email);
+            field(balance == null ? null : balance.toPlainString());
+            field(createdAt);
+            field(updatedAt);
+            out.write('\n');
+        }
+
+        private void field(String value) throws IOException {
+            out.write(',');
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.ramrk.bankingapp.export;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.MediaType;
+
+import com.ramrk.bankingapp.exception.BadRequestException;
+
+/** Output formats of the account export. */
+public enum ExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() { return mediaType; }
+    public String getExtension() { return extension; }
+
+    /** Format by name, ignoring case; unknown names are rejected with BadRequestException. */
+    public static ExportFormat parse(String name) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new BadRequestException("Unsupported export format: " + name + " (use ndjson or csv)");
+    }
+}
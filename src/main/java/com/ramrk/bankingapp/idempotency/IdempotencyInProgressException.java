@@ -0,0 +1,11 @@
+package com.ramrk.bankingapp.idempotency;
+
+/**
+ * The original request for an idempotency key is still running, on another node or
+ * for longer than a duplicate is willing to wait. Stackless, like the domain exceptions.
+ */
+public class IdempotencyInProgressException extends RuntimeException {
+    public IdempotencyInProgressException(String key) {
+        super("A request with this Idempotency-Key is still in progress: " + key, null, false, false);
+    }
+}
@@ -0,0 +1,136 @@
+package com.ramrk.bankingapp.idempotency;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ramrk.bankingapp.config.IdempotencyProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs a request at most once per idempotency key and hands every repeat of the key
+ * the stored response. The in-process tier holds one future per key, so a duplicate
+ * that arrives while the original is still running waits on it instead of running
+ * again; it is bounded by response size and entries expire after the TTL. The
+ * {@link SharedIdempotencyStore} extends this across nodes.
+ * <p>
+ * Responses with a 5xx status are handed to duplicates already waiting but are not
+ * kept, so a later retry runs the request again.
+ */
+@Component
+public class IdempotencyStore {
+
+    /** Rough per-entry overhead (key, headers, future) added to the body size. */
+    private static final int ENTRY_OVERHEAD = 256;
+
+    /** The response to send, and whether it was replayed rather than produced by this call. */
+    public record Outcome(StoredResponse response, boolean replayed) {
+    }
+
+    private final AsyncCache<String, StoredResponse> local;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight;
+    private final SharedIdempotencyStore shared;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration lockTtl;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter waited;
+    private final Counter inProgress;
+
+    public IdempotencyStore(IdempotencyProperties properties, SharedIdempotencyStore shared, MeterRegistry meterRegistry) {
+        this.local = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((String key, StoredResponse response) -> ENTRY_OVERHEAD + response.body().length)
+                .expireAfterWrite(properties.getTtl())
+                .buildAsync();
+        this.inFlight = local.asMap();
+        this.shared = shared;
+        this.ttl = properties.getTtl();
+        this.waitTimeout = properties.getWaitTimeout();
+        // the claim is about how long the original may run, not how long a duplicate waits
+        this.lockTtl = properties.getLockTtl().compareTo(waitTimeout) > 0 ? properties.getLockTtl() : waitTimeout;
+        this.executed = counter("executed", meterRegistry);
+        this.replayed = counter("replayed", meterRegistry);
+        this.waited = counter("waited", meterRegistry);
+        this.inProgress = counter("in_progress", meterRegistry);
+    }
+
+    private static Counter counter(String result, MeterRegistry meterRegistry) {
+        return Counter.builder("banking.idempotency.requests")
+                .description("Requests carrying an Idempotency-Key, by how they were answered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The response for {@code key}: the stored one if the key has been seen, otherwise
+     * the result of {@code action}, which runs on this thread.
+     *
+     * @throws IdempotencyInProgressException if the key is being executed elsewhere
+     */
+    public Outcome execute(String key, Callable<StoredResponse> action) throws Exception {
+        while (true) {
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> existing = inFlight.putIfAbsent(key, mine);
+            if (existing == null) {
+                return run(key, mine, action);
+            }
+            (existing.isDone() ? replayed : waited).increment();
+            try {
+                return new Outcome(existing.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS), true);
+            } catch (TimeoutException e) {
+                inProgress.increment();
+                throw new IdempotencyInProgressException(key);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IdempotencyInProgressException busy) {
+                    throw busy;
+                }
+                // the original failed without a response; this duplicate becomes the new attempt
+                inFlight.remove(key, existing);
+            }
+        }
+    }
+
+    private Outcome run(String key, CompletableFuture<StoredResponse> mine, Callable<StoredResponse> action) throws Exception {
+        try {
+            StoredResponse remote = shared.get(key);
+            if (remote != null) {
+                replayed.increment();
+                mine.complete(remote);
+                return new Outcome(remote, true);
+            }
+            if (!shared.tryLock(key, lockTtl)) {
+                inProgress.increment();
+                throw new IdempotencyInProgressException(key);
+            }
+            try {
+                executed.increment();
+                StoredResponse response = action.call();
+                if (response.status() >= 500) {
+                    inFlight.remove(key, mine);
+                } else {
+                    shared.put(key, response, ttl);
+                }
+                mine.complete(response);
+                return new Outcome(response, false);
+            } finally {
+                shared.unlock(key);
+            }
+        } catch (Exception | Error e) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.ramrk.bankingapp.idempotency;
+
+import java.time.Duration;
+
+/** No shared tier: keys are only deduplicated within one node. */
+public class NoOpSharedIdempotencyStore implements SharedIdempotencyStore {
+
+    @Override
+    public StoredResponse get(String key) {
+        return null;
+    }
+
+    @Override
+    public boolean tryLock(String key, Duration ttl) {
+        return true;
+    }
+
+    @Override
+    public void unlock(String key) {
+    }
+
+    @Override
+    public void put(String key, StoredResponse response, Duration ttl) {
+    }
+}
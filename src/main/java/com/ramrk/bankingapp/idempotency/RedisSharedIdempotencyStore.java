@@ -0,0 +1,80 @@
+package com.ramrk.bankingapp.idempotency;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Redis-backed shared tier. Responses are stored as JSON with a TTL; a key being
+ * executed is claimed with {@code SET NX} so two nodes never run it at once.
+ * Any Redis failure is logged, counted and treated as a miss.
+ */
+public class RedisSharedIdempotencyStore implements SharedIdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisSharedIdempotencyStore.class);
+
+    private static final String RESPONSE_KEY = "banking:idempotency:response:";
+    private static final String LOCK_KEY = "banking:idempotency:lock:";
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final Counter errors;
+
+    public RedisSharedIdempotencyStore(StringRedisTemplate redis, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.errors = Counter.builder("banking.idempotency.shared.errors")
+                .description("Redis operations of the idempotency store that failed and were treated as misses")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public StoredResponse get(String key) {
+        try {
+            String json = redis.opsForValue().get(RESPONSE_KEY + key);
+            return json == null ? null : objectMapper.readValue(json, StoredResponse.class);
+        } catch (RuntimeException e) {
+            failed("get", e);
+            return null;
+        }
+    }
+
+    @Override
+    public boolean tryLock(String key, Duration ttl) {
+        try {
+            return !Boolean.FALSE.equals(redis.opsForValue().setIfAbsent(LOCK_KEY + key, "1", ttl));
+        } catch (RuntimeException e) {
+            failed("tryLock", e);
+            return true;
+        }
+    }
+
+    @Override
+    public void unlock(String key) {
+        try {
+            redis.delete(LOCK_KEY + key);
+        } catch (RuntimeException e) {
+            failed("unlock", e);
+        }
+    }
+
+    @Override
+    public void put(String key, StoredResponse response, Duration ttl) {
+        try {
+            redis.opsForValue().set(RESPONSE_KEY + key, objectMapper.writeValueAsString(response), ttl);
+        } catch (RuntimeException e) {
+            failed("put", e);
+        }
+    }
+
+    private void failed(String operation, RuntimeException e) {
+        errors.increment();
+        log.debug("Redis idempotency store {} failed, treating as miss: {}", operation, e.toString());
+    }
+}
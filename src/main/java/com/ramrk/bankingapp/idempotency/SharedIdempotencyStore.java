@@ -0,0 +1,22 @@
+package com.ramrk.bankingapp.idempotency;
+
+import java.time.Duration;
+
+/**
+ * Store for idempotent responses visible to every node. Implementations must treat
+ * backend failures as misses (and locks as granted) so it never fails a request.
+ */
+public interface SharedIdempotencyStore {
+
+    /** Stored response for the key, or null if there is none */
+    StoredResponse get(String key);
+
+    /** Claim the key for execution on this node; false if another node holds it */
+    boolean tryLock(String key, Duration ttl);
+
+    /** Release a claim taken with {@link #tryLock} */
+    void unlock(String key);
+
+    /** Store the response for the key */
+    void put(String key, StoredResponse response, Duration ttl);
+}
@@ -0,0 +1,9 @@
+package com.ramrk.bankingapp.idempotency;
+
+/**
+ * What a request with an idempotency key produced, kept so retries of the same key
+ * get the same answer. {@code fingerprint} identifies the request body the key was
+ * first used with.
+ */
+public record StoredResponse(int status, String contentType, String location, String fingerprint, byte[] body) {
+}
@@ -0,0 +1,398 @@
+package com.ramrk.bankingapp.importer;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ramrk.bankingapp.cache.SharedAccountCache;
+import com.ramrk.bankingapp.config.ImportProperties;
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.model.Account;
+import com.ramrk.bankingapp.model.ImportChunk;
+import com.ramrk.bankingapp.repository.ImportChunkRepository;
+import com.ramrk.bankingapp.service.AccountNumberGenerator;
+import com.ramrk.bankingapp.shard.AccountShards;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+
+/**
+ * Imports accounts from a CSV file of any size. The file is cut into chunks of
+ * {@code banking.import.chunk-size} bytes, each moved to the next line break so no
+ * record is split; chunks are memory-mapped, parsed, validated against the
+ * {@link CreateAccountRequest} constraints and persisted in parallel on a fixed pool
+ * of {@code banking.import.workers} threads. Inserts go out as JDBC batches.
+ * <p>
+ * Every chunk commits in one transaction together with its {@link ImportChunk}
+ * checkpoint, so running the same file again skips the chunks already imported and
+ * retries only those that failed. Rejected rows are appended to the reject file with
+ * their byte offset and the reason, after their chunk has committed.
+ * <p>
+ * Sharded, chunks are dealt out to the shards round robin by index, and each commits
+ * on its shard together with its checkpoint; its accounts get numbers that place them
+ * there.
+ * <p>
+ * The import usually runs in its own short-lived process, so it does not touch any
+ * in-memory structure itself. Once rows were imported it sends a
+ * {@link SharedAccountCache#BULK_LOAD} broadcast, on which every server rebuilds its
+ * account-number filter and search index from the table. Servers that miss it pick
+ * the new numbers up at their next periodic filter rebuild, and the new names at
+ * their next restart.
+ * <p>
+ * The first line must be a header naming the columns {@code owner_name},
+ * {@code email} (optional) and {@code initial_deposit}, in any order. Quoted fields
+ * may contain commas and doubled quotes but not line breaks.
+ */
+@Component
+public class AccountImportJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountImportJob.class);
+
+    /** Longest header line accepted. */
+    private static final int MAX_HEADER = 64 * 1024;
+
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final SharedAccountCache shared;
+    private final ImportChunkRepository chunkRepository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ImportProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountShards shards;
+
+    public AccountImportJob(AccountNumberGenerator accountNumberGenerator, SharedAccountCache shared,
+                            ImportChunkRepository chunkRepository, EntityManager entityManager, Validator validator,
+                            ImportProperties properties, PlatformTransactionManager transactionManager, AccountShards shards) {
+        this.accountNumberGenerator = accountNumberGenerator;
+        this.shared = shared;
+        this.chunkRepository = chunkRepository;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+    }
+
+    /** Where rejects go when no reject file is configured. */
+    public static Path defaultRejectFile(Path file) {
+        return file.resolveSibling(file.getFileName() + ".rejects.csv");
+    }
+
+    /** Import (or resume importing) {@code file}, appending rejected rows to {@code rejectFile}. */
+    public ImportReport run(Path file, Path rejectFile) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        long chunkBytes = Math.max(4096, properties.getChunkSize().toBytes());
+        int workers = properties.getWorkers() > 0 ? properties.getWorkers()
+                : Math.min(Runtime.getRuntime().availableProcessors(), 4);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             RejectWriter rejects = new RejectWriter(rejectFile)) {
+            long size = channel.size();
+            Header header = readHeader(channel, size);
+            int chunks = (int) ((size + chunkBytes - 1) / chunkBytes);
+            String jobId = jobId(file, size, chunkBytes);
+            Set<Integer> done = new HashSet<>();
+            shards.readAll(shard -> chunkRepository.findChunkIndexesByJobId(jobId)).forEach(done::addAll);
+            log.info("Importing {} ({} bytes, {} chunks, {} already done) as job {} on {} workers",
+                    file, size, chunks, done.size(), jobId, workers);
+
+            ExecutorService pool = Executors.newFixedThreadPool(workers);
+            long imported = 0;
+            long rejected = 0;
+            int failed = 0;
+            try {
+                List<Future<ChunkResult>> results = new ArrayList<>();
+                for (int i = 0; i < chunks; i++) {
+                    if (!done.contains(i)) {
+                        Chunk chunk = new Chunk(jobId, i, i == 0 ? header.length() : i * chunkBytes,
+                                i == chunks - 1 ? size : (i + 1) * chunkBytes);
+                        results.add(pool.submit(() -> importChunk(channel, size, header, chunk, rejects)));
+                    }
+                }
+                for (Future<ChunkResult> result : results) {
+                    try {
+                        ChunkResult r = result.get();
+                        imported += r.imported();
+                        rejected += r.rejected();
+                    } catch (ExecutionException e) {
+                        failed++;
+                        log.warn("Import chunk failed and will be retried on the next run: {}", e.getCause().toString());
+                    }
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+            ImportReport report = new ImportReport(jobId, imported, rejected, chunks, done.size(), failed,
+                    Duration.ofNanos(System.nanoTime() - start));
+            log.info("Import finished: {}", report);
+            if (imported > 0) {
+                shared.broadcast(SharedAccountCache.BULK_LOAD, jobId);
+            }
+            return report;
+        }
+    }
+
+    /** Same file, same size and same chunking: chunk indexes mean the same byte ranges. */
+    private static String jobId(Path file, long size, long chunkBytes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((file.toAbsolutePath().normalize() + "|" + size + "|" + chunkBytes).getBytes(StandardCharsets.UTF_8));
+            return file.getFileName() + "-" + HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Chunk(String jobId, int index, long nominalStart, long nominalEnd) {
+    }
+
+    private record ChunkResult(int imported, int rejected) {
+    }
+
+    /** Column positions from the header line, and the header's length in bytes. */
+    private record Header(int ownerName, int email, int initialDeposit, int columns, long length) {
+    }
+
+    private record Reject(long offset, String reason, String line) {
+    }
+
+    private Header readHeader(FileChannel channel, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size, MAX_HEADER));
+        channel.read(buffer, 0);
+        buffer.flip();
+        int end = 0;
+        while (end < buffer.limit() && buffer.get(end) != '\n') {
+            end++;
+        }
+        if (end == buffer.limit() && end == MAX_HEADER) {
+            throw new IllegalArgumentException("CSV header line is longer than " + MAX_HEADER + " bytes");
+        }
+        String line = stripCr(new String(buffer.array(), 0, end, StandardCharsets.UTF_8));
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = parseLine(line.startsWith("﻿") ? line.substring(1) : line);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase().replace("_", ""), i);
+        }
+        Integer ownerName = columns.get("ownername");
+        Integer initialDeposit = columns.get("initialdeposit");
+        if (ownerName == null || initialDeposit == null) {
+            throw new IllegalArgumentException("CSV header must name owner_name and initial_deposit columns: " + line);
+        }
+        return new Header(ownerName, columns.getOrDefault("email", -1), initialDeposit, names.size(),
+                Math.min(size, end + 1L));
+    }
+
+    private ChunkResult importChunk(FileChannel channel, long size, Header header, Chunk chunk, RejectWriter rejects)
+            throws IOException {
+        long from = chunk.index() == 0 ? chunk.nominalStart() : lineStart(channel, size, chunk.nominalStart());
+        long to = chunk.nominalEnd() >= size ? size : lineStart(channel, size, chunk.nominalEnd());
+
+        List<CreateAccountRequest> valid = new ArrayList<>();
+        List<Reject> rejected = new ArrayList<>();
+        if (from < to) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            int lineStart = 0;
+            int limit = mapped.limit();
+            for (int i = 0; i <= limit; i++) {
+                if (i == limit || mapped.get(i) == '\n') {
+                    if (i > lineStart) {
+                        byte[] bytes = new byte[i - lineStart];
+                        mapped.get(lineStart, bytes);
+                        String line = stripCr(new String(bytes, StandardCharsets.UTF_8));
+                        if (!line.isBlank()) {
+                            parseRecord(line, header, from + lineStart, valid, rejected);
+                        }
+                    }
+                    lineStart = i + 1;
+                }
+            }
+        }
+
+        int shard = chunk.index() % shards.count();
+        try {
+            shards.run(shard, () -> transactionTemplate.executeWithoutResult(status -> {
+                int flushEvery = Math.max(1, properties.getFlushEvery());
+                for (int i = 0; i < valid.size(); i++) {
+                    CreateAccountRequest request = valid.get(i);
+                    Account account = Account.builder()
+                            .accountNumber(shards.numberOn(shard, accountNumberGenerator))
+                            .ownerName(request.getOwnerName())
+                            .email(request.getEmail())
+                            .balance(request.getInitialDeposit())
+                            .build();
+                    entityManager.persist(account);
+                    if ((i + 1) % flushEvery == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+                entityManager.persist(new ImportChunk(chunk.jobId(), chunk.index(), valid.size(), rejected.size()));
+            }));
+        } catch (DataAccessException | TransactionException e) {
+            throw new IllegalStateException("Chunk " + chunk.index() + " (bytes " + from + "-" + to + ") was not imported", e);
+        }
+        rejects.write(rejected);
+        return new ChunkResult(valid.size(), rejected.size());
+    }
+
+    private void parseRecord(String line, Header header, long offset, List<CreateAccountRequest> valid, List<Reject> rejected) {
+        List<String> fields;
+        try {
+            fields = parseLine(line);
+        } catch (IllegalArgumentException e) {
+            rejected.add(new Reject(offset, e.getMessage(), line));
+            return;
+        }
+        if (fields.size() != header.columns()) {
+            rejected.add(new Reject(offset, "expected " + header.columns() + " fields but found " + fields.size(), line));
+            return;
+        }
+        BigDecimal deposit = null;
+        String depositField = fields.get(header.initialDeposit()).trim();
+        if (!depositField.isEmpty()) {
+            try {
+                deposit = new BigDecimal(depositField);
+            } catch (NumberFormatException e) {
+                rejected.add(new Reject(offset, "initialDeposit: not a number", line));
+                return;
+            }
+        }
+        String email = header.email() < 0 ? null : fields.get(header.email()).trim();
+        CreateAccountRequest request = new CreateAccountRequest(fields.get(header.ownerName()).trim(),
+                email == null || email.isEmpty() ? null : email, deposit);
+        String violations = validator.validate(request).stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        if (violations.isEmpty()) {
+            valid.add(request);
+        } else {
+            rejected.add(new Reject(offset, violations, line));
+        }
+    }
+
+    /** Offset of the first line that starts at or after {@code position}. */
+    private static long lineStart(FileChannel channel, long size, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long at = position - 1;
+        while (at < size) {
+            buffer.clear();
+            int read = channel.read(buffer, at);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return at + i + 1;
+                }
+            }
+            at += read;
+        }
+        return size;
+    }
+
+    private static String stripCr(String line) {
+        return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+    }
+
+    /** Split one RFC 4180 line into fields. */
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /** Appends rejected rows as CSV (offset, reason, original line); shared by all workers. */
+    private static class RejectWriter implements Closeable {
+
+        private final BufferedWriter out;
+
+        RejectWriter(Path file) throws IOException {
+            boolean fresh = !Files.exists(file) || Files.size(file) == 0;
+            this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (fresh) {
+                out.write("offset,reason,line\n");
+            }
+        }
+
+        synchronized void write(List<Reject> rejects) throws IOException {
+            for (Reject reject : rejects) {
+                out.write(Long.toString(reject.offset()));
+                out.write(',');
+                out.write(quote(reject.reason()));
+                out.write(',');
+                out.write(quote(reject.line()));
+                out.write('\n');
+            }
+            out.flush();
+        }
+
+        private static String quote(String value) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
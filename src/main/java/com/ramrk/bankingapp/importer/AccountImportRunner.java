@@ -0,0 +1,42 @@
+package com.ramrk.bankingapp.importer;
+
+import java.nio.file.Path;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.ramrk.bankingapp.config.ImportProperties;
+
+/**
+ * Runs the account import when {@code banking.import.file} is set, e.g.
+ * <pre>
+ * java -jar bankingapp.jar --spring.main.web-application-type=none --banking.import.file=/data/accounts.csv
+ * </pre>
+ * Without a web server the application exits once the import is done. If any chunk
+ * failed, startup fails so the exit code is non-zero; running the same command again
+ * resumes from the last committed chunk.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.import.file")
+public class AccountImportRunner implements ApplicationRunner {
+
+    private final AccountImportJob job;
+    private final ImportProperties properties;
+
+    public AccountImportRunner(AccountImportJob job, ImportProperties properties) {
+        this.job = job;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path file = properties.getFile();
+        Path rejects = properties.getRejectFile() != null ? properties.getRejectFile() : AccountImportJob.defaultRejectFile(file);
+        ImportReport report = job.run(file, rejects);
+        if (report.failedChunks() > 0) {
+            throw new IllegalStateException("Import incomplete, run again to resume: " + report);
+        }
+    }
+}
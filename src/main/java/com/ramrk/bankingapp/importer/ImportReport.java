@@ -0,0 +1,23 @@
+package com.ramrk.bankingapp.importer;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one run of the account import. Chunks skipped were committed by an
+ * earlier run; failed chunks were rolled back and are retried by running again.
+ */
+public record ImportReport(String jobId, long imported, long rejected, int chunks, int skippedChunks,
+                           int failedChunks, Duration elapsed) {
+
+    /** Accounts imported per second of wall-clock time in this run. */
+    public double rowsPerSecond() {
+        double seconds = elapsed.toNanos() / 1e9;
+        return seconds == 0 ? 0 : imported / seconds;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("job %s: %d imported, %d rejected, %d/%d chunks skipped, %d failed, %.1fs, %.0f rows/s",
+                jobId, imported, rejected, skippedChunks, chunks, failedChunks, elapsed.toNanos() / 1e9, rowsPerSecond());
+    }
+}
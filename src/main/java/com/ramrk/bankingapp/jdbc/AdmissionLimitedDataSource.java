@@ -0,0 +1,136 @@
+package com.ramrk.bankingapp.jdbc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Hands out at most {@code permits} connections at a time through a fair semaphore.
+ * With the permits matched to the pool size, callers never wait inside the pool,
+ * where they would time out after {@code connection-timeout}. Instead they queue
+ * here in arrival order, which costs nothing more than a parked virtual thread.
+ * The permit is returned when the connection is closed.
+ */
+public class AdmissionLimitedDataSource extends DelegatingDataSource implements MeterBinder {
+
+    private final Semaphore permits;
+    private final int limit;
+    private final long maxWaitNanos;
+    private final int maxQueue;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder queueFull = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private volatile Timer waits;
+
+    public AdmissionLimitedDataSource(DataSource target, int permits, Duration maxWait, int maxQueue) {
+        super(target);
+        this.limit = permits;
+        this.permits = new Semaphore(permits, true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.maxQueue = maxQueue;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        admit();
+        try {
+            return release(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        admit();
+        try {
+            return release(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void admit() throws SQLException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            queueFull.increment();
+            throw new SQLTransientConnectionException("Too many requests waiting for a database connection");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                timedOut.increment();
+                throw new SQLTransientConnectionException("Timed out waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waiting.decrementAndGet();
+            Timer timer = waits;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /** Proxy that gives the permit back on the first {@code close()}. */
+    private Connection release(Connection connection) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("banking.admission.waiting", waiting, AtomicInteger::get)
+                .description("Callers queued for a database connection")
+                .register(registry);
+        Gauge.builder("banking.admission.in-use", this, d -> d.limit - d.permits.availablePermits())
+                .register(registry);
+        FunctionCounter.builder("banking.admission.rejected", queueFull, LongAdder::sum).tag("reason", "queue-full").register(registry);
+        FunctionCounter.builder("banking.admission.rejected", timedOut, LongAdder::sum).tag("reason", "timeout").register(registry);
+        this.waits = Timer.builder("banking.admission.wait")
+                .description("Time spent queued for a database connection")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+}
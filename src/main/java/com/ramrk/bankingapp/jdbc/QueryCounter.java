@@ -0,0 +1,30 @@
+package com.ramrk.bankingapp.jdbc;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread. Registered as
+ * Hibernate's statement inspector; {@link com.ramrk.bankingapp.web.QueryCountFilter}
+ * resets it at the start of a request and reads it at the end.
+ * <p>
+ * Statements run on other threads (the balance engine lanes, the journal replayer)
+ * are not attributed to any request.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int current() {
+        return COUNT.get()[0];
+    }
+}
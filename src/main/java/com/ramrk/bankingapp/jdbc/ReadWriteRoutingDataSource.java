@@ -0,0 +1,245 @@
+package com.ramrk.bankingapp.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ramrk.bankingapp.config.ReadReplicaProperties;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Hands out replica connections inside read-only transactions, round-robin over the
+ * replicas that passed their last health check, and primary connections otherwise.
+ * A replica is down while it cannot be reached or lags more than
+ * {@code banking.datasource.max-lag}; with none up, reads fall back to the primary.
+ * A replica that fails to hand out a connection is marked down at once.
+ * <p>
+ * Transaction managers fetch their connection before the read-only flag is published,
+ * so this must sit behind a {@code LazyConnectionDataSourceProxy}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource
+        implements SmartInitializingSingleton, DisposableBean, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final ReadReplicaProperties properties;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder fallbacks = new LongAdder();
+    private ScheduledExecutorService scheduler;
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReadReplicaProperties properties) {
+        this.primary = primary;
+        this.properties = properties;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(Connector connector) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return connector.connect(primary);
+        }
+        Replica replica = nextUp();
+        if (replica != null) {
+            try {
+                return connector.connect(replica.dataSource);
+            } catch (SQLException e) {
+                replica.down("no connection: " + e.getMessage());
+            }
+        }
+        fallbacks.increment();
+        return connector.connect(primary);
+    }
+
+    private Replica nextUp() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.up) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /** Replicas start out down; the first check runs before the context is ready. */
+    @Override
+    public void afterSingletonsInstantiated() {
+        checkReplicas();
+        long interval = properties.getHealthCheckInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /** Check every replica's connection and lag now. */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try {
+                String problem = check(replica);
+                if (problem == null) {
+                    replica.up();
+                } else {
+                    replica.down(problem);
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.down("check failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private String check(Replica replica) throws SQLException {
+        int timeout = (int) Math.max(1, properties.getHealthCheckTimeout().toSeconds());
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (!connection.isValid(timeout)) {
+                return "connection is not valid";
+            }
+            String lagQuery = properties.getLagQuery();
+            if (lagQuery == null || lagQuery.isBlank()) {
+                return null;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(timeout);
+                try (ResultSet rows = statement.executeQuery(lagQuery)) {
+                    Long lag = rows.next() ? lagSeconds(rows) : null;
+                    replica.lagSeconds = lag == null ? Double.NaN : lag;
+                    if (lag == null) {
+                        return "replication is not running";
+                    }
+                    if (lag > properties.getMaxLag().toSeconds()) {
+                        return lag + "s behind the primary";
+                    }
+                    return null;
+                }
+            }
+        }
+    }
+
+    private static Long lagSeconds(ResultSet rows) throws SQLException {
+        ResultSetMetaData meta = rows.getMetaData();
+        int column = 1;
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            String label = meta.getColumnLabel(i);
+            if (label.equalsIgnoreCase("Seconds_Behind_Source") || label.equalsIgnoreCase("Seconds_Behind_Master")) {
+                column = i;
+            }
+        }
+        long lag = rows.getLong(column);
+        return rows.wasNull() ? null : lag;
+    }
+
+    /** The replica pools by name, in routing order. */
+    public Map<String, DataSource> getReplicas() {
+        Map<String, DataSource> byName = new LinkedHashMap<>();
+        replicas.forEach(replica -> byName.put(replica.name, replica.dataSource));
+        return Collections.unmodifiableMap(byName);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("banking.datasource.replica.up", replica, r -> r.up ? 1 : 0)
+                    .description("Whether read-only transactions are routed to the replica")
+                    .tag("replica", replica.name)
+                    .register(registry);
+            Gauge.builder("banking.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replication lag at the last health check")
+                    .tag("replica", replica.name)
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+        FunctionCounter.builder("banking.datasource.replica.fallbacks", fallbacks, LongAdder::sum)
+                .description("Read-only transactions sent to the primary because no replica was up")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Closing replica {} failed", replica.name, e);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean up;
+        private volatile boolean checked;
+        private volatile double lagSeconds = Double.NaN;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        void up() {
+            if (!up) {
+                up = true;
+                log.info("Replica {} is up; routing read-only transactions to it", name);
+            }
+            checked = true;
+        }
+
+        void down(String reason) {
+            if (up || !checked) {
+                log.warn("Replica {} is down ({}); reads fall back to the other replicas or the primary", name, reason);
+            } else {
+                log.debug("Replica {} is still down: {}", name, reason);
+            }
+            up = false;
+            checked = true;
+        }
+    }
+}
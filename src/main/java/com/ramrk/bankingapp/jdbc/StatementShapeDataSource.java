@@ -0,0 +1,171 @@
+package com.ramrk.bankingapp.jdbc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Times every statement run through its connections and records it in
+ * {@link StatementShapes}: the execute call's duration, whether it threw, and the
+ * update count it returns. Only connections and statements are wrapped, to see the SQL and the
+ * execute calls; result sets are the driver's own, so reading rows costs nothing
+ * extra and query rows are not counted.
+ */
+public class StatementShapeDataSource extends DelegatingDataSource {
+
+    private final StatementShapes shapes;
+
+    public StatementShapeDataSource(DataSource target, StatementShapes shapes) {
+        super(target);
+        this.shapes = shapes;
+    }
+
+    public StatementShapes getShapes() {
+        return shapes;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    private Connection connection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (isIdentityMethod(method)) {
+                        return identity(proxy, method, args);
+                    }
+                    Object result = invoke(connection, method, args);
+                    return switch (method.getName()) {
+                        case "prepareStatement" -> statement(proxy, (Statement) result, PreparedStatement.class, (String) args[0]);
+                        case "prepareCall" -> statement(proxy, (Statement) result, CallableStatement.class, (String) args[0]);
+                        case "createStatement" -> statement(proxy, (Statement) result, Statement.class, null);
+                        default -> result;
+                    };
+                });
+    }
+
+    /**
+     * {@code sql} is the prepared statement's; plain statements name theirs on each
+     * execute, or with each {@code addBatch} for {@code executeBatch}.
+     */
+    private Object statement(Object connection, Statement statement, Class<? extends Statement> type, String sql) {
+        List<String> batch = sql == null ? new ArrayList<>() : null;
+        return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    if (isIdentityMethod(method)) {
+                        return identity(proxy, method, args);
+                    }
+                    String name = method.getName();
+                    if (name.startsWith("execute")) {
+                        String executed = sql != null ? sql
+                                : args != null && args.length > 0 && args[0] instanceof String given ? given
+                                : name.equals("executeBatch") || name.equals("executeLargeBatch") ? batch(batch) : null;
+                        return execute(statement, method, args, executed);
+                    }
+                    switch (name) {
+                        case "addBatch" -> {
+                            if (batch != null) {
+                                batch.add((String) args[0]);
+                            }
+                        }
+                        case "clearBatch" -> {
+                            if (batch != null) {
+                                batch.clear();
+                            }
+                        }
+                        case "getConnection" -> {
+                            return connection;
+                        }
+                        default -> {
+                        }
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    /**
+     * The SQL to file a plain statement's batch under: its statement if all share one
+     * shape, otherwise every shape in it, labelled as a batch, since the time cannot be
+     * split between them. Executing the batch empties it, as it does the driver's.
+     */
+    private static String batch(List<String> batch) {
+        if (batch.isEmpty()) {
+            return null;
+        }
+        LinkedHashSet<String> shapes = new LinkedHashSet<>();
+        batch.forEach(sql -> shapes.add(StatementShapes.normalize(sql)));
+        String first = batch.getFirst();
+        batch.clear();
+        return shapes.size() == 1 ? first : "batch: " + String.join("; ", shapes);
+    }
+
+    private Object execute(Statement statement, Method method, Object[] args, String sql) throws Throwable {
+        if (sql == null) {
+            return invoke(statement, method, args);
+        }
+        StatementShapes.Stats stats = shapes.of(sql);
+        long start = System.nanoTime();
+        Object result;
+        boolean failed = true;
+        try {
+            result = invoke(statement, method, args);
+            failed = false;
+        } finally {
+            // statements that throw, e.g. on a lock wait timeout, are often the slowest of all
+            stats.executed(System.nanoTime() - start, failed);
+        }
+        if (result instanceof Integer updated) {
+            stats.rows(updated);
+        } else if (result instanceof Long updated) {
+            stats.rows(updated);
+        } else if (result instanceof int[] updated) {
+            long total = 0;
+            for (int n : updated) {
+                total += Math.max(n, 0);
+            }
+            stats.rows(total);
+        } else if (result instanceof long[] updated) {
+            long total = 0;
+            for (long n : updated) {
+                total += Math.max(n, 0);
+            }
+            stats.rows(total);
+        }
+        return result;
+    }
+
+    /** Proxies are compared by identity, as the resource registries that hold them expect. */
+    private static boolean isIdentityMethod(Method method) {
+        return method.getDeclaringClass() == Object.class && !method.getName().equals("toString");
+    }
+
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return method.getName().equals("equals") ? proxy == args[0] : System.identityHashCode(proxy);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.ramrk.bankingapp.jdbc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Latency and rows written (update counts) per statement shape: the SQL with literals replaced by
+ * {@code ?}, whitespace collapsed and parameter lists folded to {@code (?...)}, so a
+ * query issued with different values or IN-list sizes is one shape. Statements slower
+ * than the threshold are logged by shape (never with their values): the first one of
+ * each shape, then a random {@code sampleRate} share of the rest.
+ * <p>
+ * Recording never blocks. SQL strings are mapped to their shape once; shapes past
+ * {@code maxShapes} are pooled under {@value #OTHER}.
+ */
+public class StatementShapes {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementShapes.class);
+
+    static final String OTHER = "(other)";
+
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    /** Top-N orderings. */
+    public enum Order {
+        P99(Comparator.comparingDouble(Snapshot::p99Ms)),
+        TOTAL(Comparator.comparingDouble(Snapshot::totalMs)),
+        COUNT(Comparator.comparingLong(Snapshot::count));
+
+        private final Comparator<Snapshot> comparator;
+
+        Order(Comparator<Snapshot> comparator) {
+            this.comparator = comparator;
+        }
+    }
+
+    /**
+     * One shape's figures at the time it was read. {@code rows} are the update counts its
+     * executions returned, so always 0 for queries; {@code failed} executions threw and are
+     * included in the count and the timings.
+     */
+    public record Snapshot(String shape, long count, long rows, double totalMs, double meanMs,
+                           double p50Ms, double p99Ms, double maxMs, long slow, long failed) {
+    }
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final int maxShapes;
+    private final ConcurrentHashMap<String, Stats> bySql = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Stats> byShape = new ConcurrentHashMap<>();
+
+    public StatementShapes(Duration threshold, double sampleRate, int maxShapes) {
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.maxShapes = maxShapes;
+    }
+
+    /** Figures for {@code sql}, to record its executions into. */
+    Stats of(String sql) {
+        Stats stats = bySql.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        stats = shape(normalize(sql));
+        // distinct SQL strings are bounded like the shapes; past that, normalize every time
+        if (bySql.size() < maxShapes * 4) {
+            bySql.putIfAbsent(sql, stats);
+        }
+        return stats;
+    }
+
+    private Stats shape(String shape) {
+        Stats stats = byShape.get(shape);
+        if (stats != null) {
+            return stats;
+        }
+        if (byShape.size() >= maxShapes) {
+            return byShape.computeIfAbsent(OTHER, Stats::new);
+        }
+        return byShape.computeIfAbsent(shape, Stats::new);
+    }
+
+    /** The {@code limit} shapes ranking highest by {@code order}; none for a limit below one. */
+    public List<Snapshot> top(int limit, Order order) {
+        List<Snapshot> snapshots = new ArrayList<>(byShape.size());
+        byShape.values().forEach(stats -> snapshots.add(stats.snapshot()));
+        snapshots.sort(order.comparator.reversed());
+        return snapshots.subList(0, Math.clamp(limit, 0, snapshots.size()));
+    }
+
+    public void reset() {
+        bySql.clear();
+        byShape.clear();
+    }
+
+    static String normalize(String sql) {
+        StringBuilder shape = new StringBuilder(sql.length());
+        int length = sql.length();
+        boolean space = false;
+        for (int i = 0; i < length; i++) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = shape.length() > 0;
+                continue;
+            }
+            if (space) {
+                shape.append(' ');
+                space = false;
+            }
+            if (c == '\'') {
+                // string literal; '' inside is an escaped quote
+                i++;
+                while (i < length && !(sql.charAt(i) == '\'' && (i + 1 >= length || sql.charAt(i + 1) != '\''))) {
+                    i += sql.charAt(i) == '\'' ? 2 : 1;
+                }
+                shape.append('?');
+            } else if (Character.isDigit(c) && !partOfIdentifier(shape)) {
+                while (i + 1 < length && (Character.isDigit(sql.charAt(i + 1)) || sql.charAt(i + 1) == '.')) {
+                    i++;
+                }
+                shape.append('?');
+            } else {
+                shape.append(c);
+            }
+        }
+        return PARAMETER_LIST.matcher(shape).replaceAll("(?...)");
+    }
+
+    private static boolean partOfIdentifier(StringBuilder shape) {
+        if (shape.length() == 0) {
+            return false;
+        }
+        char previous = shape.charAt(shape.length() - 1);
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == '$' || previous == '"' || previous == '`';
+    }
+
+    /** One shape's counters. */
+    final class Stats {
+
+        private final String shape;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder slow = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicBoolean slowLogged = new AtomicBoolean();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        Stats(String shape) {
+            this.shape = shape;
+        }
+
+        void executed(long nanos, boolean threw) {
+            count.increment();
+            if (threw) {
+                failed.increment();
+            }
+            totalNanos.add(nanos);
+            latency.record(nanos);
+            long max = maxNanos.get();
+            while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+                max = maxNanos.get();
+            }
+            if (nanos >= thresholdNanos) {
+                slow.increment();
+                if (slowLogged.compareAndSet(false, true) || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                    log.warn("Slow statement ({} ms): {}", nanos / 1_000_000, shape);
+                }
+            }
+        }
+
+        void rows(long n) {
+            if (n > 0) {
+                rows.add(n);
+            }
+        }
+
+        Snapshot snapshot() {
+            long n = count.sum();
+            double total = totalNanos.sum() / 1e6;
+            return new Snapshot(shape, n, rows.sum(), total, n > 0 ? total / n : 0,
+                    latency.percentileMicros(0.5) / 1e3, latency.percentileMicros(0.99) / 1e3,
+                    maxNanos.get() / 1e6, slow.sum(), failed.sum());
+        }
+    }
+}
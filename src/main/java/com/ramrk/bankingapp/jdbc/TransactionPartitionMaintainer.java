@@ -0,0 +1,129 @@
+package com.ramrk.bankingapp.jdbc;
+
+import java.sql.DatabaseMetaData;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.ramrk.bankingapp.config.StatementProperties;
+import com.ramrk.bankingapp.shard.AccountShards;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps monthly partitions of {@code account_transactions} ahead of the clock on
+ * MySQL (see {@code db/mysql/account_transactions.sql}). Each missing month is split
+ * off the empty {@code pmax} partition, so the ALTER moves no rows. Runs once at
+ * startup and then on {@code banking.statement.partition-check-interval}, on every
+ * shard; on other databases, or a table that was not created partitioned, it does nothing.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.statement.maintain-partitions", havingValue = "true", matchIfMissing = true)
+public class TransactionPartitionMaintainer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionPartitionMaintainer.class);
+
+    private static final DateTimeFormatter NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final StatementProperties properties;
+    private final AccountShards shards;
+    private ScheduledExecutorService scheduler;
+
+    public TransactionPartitionMaintainer(DataSource dataSource, JdbcTemplate jdbcTemplate, StatementProperties properties,
+                                          AccountShards shards) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.shards = shards;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!isMySql()) {
+            return;
+        }
+        maintainEveryShard();
+        long interval = properties.getPartitionCheckInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "statement-partitions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::maintainEveryShard, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void maintainEveryShard() {
+        shards.forEach(shard -> maintain());
+    }
+
+    /**
+     * Add every missing month up to {@code partitions-ahead} months from now, on the
+     * current shard; returns how many were added.
+     */
+    public int maintain() {
+        try {
+            List<String> partitions = jdbcTemplate.queryForList(
+                    "select partition_name from information_schema.partitions where table_schema = database()"
+                            + " and table_name = 'account_transactions' and partition_name is not null"
+                            + " order by partition_ordinal_position", String.class);
+            if (!partitions.contains("pmax")) {
+                log.warn("account_transactions is not partitioned by month; create it with db/mysql/account_transactions.sql");
+                return 0;
+            }
+            YearMonth next = partitions.stream()
+                    .filter(name -> name.matches("p\\d{6}"))
+                    .map(name -> YearMonth.parse(name, NAME).plusMonths(1))
+                    .max(YearMonth::compareTo)
+                    .orElse(YearMonth.now());
+            YearMonth last = YearMonth.now().plusMonths(properties.getPartitionsAhead());
+            int added = 0;
+            for (YearMonth month = next; !month.isAfter(last); month = month.plusMonths(1)) {
+                jdbcTemplate.execute("alter table account_transactions reorganize partition pmax into ("
+                        + "partition " + month.format(NAME) + " values less than ('" + month.plusMonths(1).atDay(1) + "'),"
+                        + " partition pmax values less than (maxvalue))");
+                added++;
+            }
+            if (added > 0) {
+                log.info("Added {} monthly partitions to account_transactions, now up to {}", added, last);
+            }
+            return added;
+        } catch (DataAccessException e) {
+            log.warn("Could not maintain account_transactions partitions: {}", e.toString());
+            return 0;
+        }
+    }
+
+    private boolean isMySql() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "MySQL".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not determine the database product: {}", e.toString());
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.ramrk.bankingapp.journal;
+
+import java.math.BigDecimal;
+
+/**
+ * One balance change as written to the journal: the amount moved and the balance
+ * and row version the account was left with.
+ */
+public record JournalRecord(long sequence, long timestamp, Type type, long accountId,
+                            BigDecimal amount, BigDecimal balance, long version) {
+
+    public enum Type {
+        DEPOSIT, WITHDRAWAL, TRANSFER_OUT, TRANSFER_IN;
+
+        private static final Type[] VALUES = values();
+
+        static Type of(int ordinal) {
+            return VALUES[ordinal];
+        }
+    }
+
+    /** Record to be appended; the journal assigns the sequence number and timestamp. */
+    public static JournalRecord of(Type type, long accountId, BigDecimal amount, BigDecimal balance, long version) {
+        return new JournalRecord(0, 0, type, accountId, amount, balance, version);
+    }
+}
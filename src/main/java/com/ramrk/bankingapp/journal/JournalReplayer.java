@@ -0,0 +1,100 @@
+package com.ramrk.bankingapp.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ramrk.bankingapp.cache.AccountCache;
+import com.ramrk.bankingapp.config.JournalProperties;
+import com.ramrk.bankingapp.repository.AccountRepository;
+import com.ramrk.bankingapp.shard.AccountShards;
+
+/**
+ * Replays the journal once all beans exist and before the web server starts. Each
+ * record carries the balance and row version it left behind, so replay only has to
+ * take the newest record per account and move rows that are behind it forward,
+ * which makes it idempotent.
+ * <p>
+ * Rows are matched by id and version alone, so the journal must belong to this very
+ * database: against a recreated schema that reuses ids it would overwrite new accounts
+ * with old balances. Startup replay is therefore opt-in
+ * ({@code banking.journal.replay-on-startup}). Only balances come back; the
+ * {@code account_transactions} rows for the replayed changes are not rebuilt, so
+ * statements miss them.
+ */
+@Component
+public class JournalReplayer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalReplayer.class);
+
+    /** Rows restored per transaction. */
+    private static final int CHUNK = 500;
+
+    private final TransactionJournal journal;
+    private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final JournalProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountShards shards;
+
+    public JournalReplayer(TransactionJournal journal, AccountRepository accountRepository, AccountCache accountCache,
+                           JournalProperties properties, PlatformTransactionManager transactionManager, AccountShards shards) {
+        this.journal = journal;
+        this.accountRepository = accountRepository;
+        this.accountCache = accountCache;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (journal.isEnabled() && properties.isReplayOnStartup()) {
+            replay();
+        }
+    }
+
+    /** Bring every account behind the journal up to its last journaled balance; returns the rows changed. */
+    public int replay() {
+        long start = System.nanoTime();
+        Map<Long, JournalRecord> latest = new HashMap<>();
+        try {
+            journal.forEach(r -> latest.merge(r.accountId(), r, (a, b) -> b.version() >= a.version() ? b : a));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the transaction journal", e);
+        }
+        Map<Integer, List<JournalRecord>> byShard = new TreeMap<>();
+        latest.values().forEach(r -> byShard.computeIfAbsent(shards.ofId(r.accountId()), s -> new ArrayList<>()).add(r));
+        int restored = 0;
+        for (Map.Entry<Integer, List<JournalRecord>> shard : byShard.entrySet()) {
+            List<JournalRecord> records = shard.getValue();
+            for (int from = 0; from < records.size(); from += CHUNK) {
+                List<JournalRecord> chunk = records.subList(from, Math.min(from + CHUNK, records.size()));
+                restored += shards.on(shard.getKey(), () -> transactionTemplate.execute(status -> {
+                    int changed = 0;
+                    for (JournalRecord r : chunk) {
+                        if (accountRepository.restoreBalance(r.accountId(), r.balance(), r.version()) > 0) {
+                            accountCache.evict(r.accountId());
+                            changed++;
+                        }
+                    }
+                    return changed;
+                }));
+            }
+        }
+        log.info("Journal replay: {} accounts journaled, {} restored, in {} ms", latest.size(), restored,
+                (System.nanoTime() - start) / 1_000_000);
+        return restored;
+    }
+}
@@ -0,0 +1,344 @@
+package com.ramrk.bankingapp.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.ramrk.bankingapp.config.JournalProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only journal of balance changes, kept in fixed-size memory-mapped segment
+ * files. Appending is a copy into the mapped region under a short lock; a single
+ * flusher thread then forces everything written since its last pass in one fsync
+ * and releases all the writers waiting on it (group commit). It waits up to
+ * {@code flush-interval} for more records to share that fsync, or less once
+ * {@code max-batch} records are pending.
+ * <p>
+ * Segment layout: a 16-byte header (magic, format, segment index) followed by
+ * records of {@code [int length][int crc32c][payload]}. A zero length marks the end
+ * of the written part; a record whose length or checksum does not match is treated
+ * as a torn write, and the journal resumes appending from there.
+ */
+@Component
+public class TransactionJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionJournal.class);
+
+    static final int MAGIC = 0x424A524E;
+    static final int FORMAT = 1;
+    static final int HEADER_SIZE = 16;
+    /** sequence, timestamp, type, account id, amount, scale, balance, scale, version */
+    static final int PAYLOAD_SIZE = 8 + 8 + 1 + 8 + 8 + 1 + 8 + 1 + 8;
+    static final int RECORD_SIZE = 8 + PAYLOAD_SIZE;
+
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+
+    private final JournalProperties properties;
+    private final Path dir;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Counter records;
+    private final Counter errors;
+    private final Timer syncs;
+    private Segment segment;
+    private long nextSequence = 1;
+    private int pending;
+    private List<CompletableFuture<Void>> waiting = new ArrayList<>();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public TransactionJournal(JournalProperties properties, MeterRegistry meterRegistry) throws IOException {
+        this.properties = properties;
+        this.dir = Paths.get(properties.getDir());
+        this.records = Counter.builder("banking.journal.records").register(meterRegistry);
+        this.errors = Counter.builder("banking.journal.errors").register(meterRegistry);
+        this.syncs = Timer.builder("banking.journal.sync")
+                .description("Time spent forcing one group of journal records to disk")
+                .register(meterRegistry);
+        if (!properties.isEnabled()) {
+            this.flusher = null;
+            return;
+        }
+        Files.createDirectories(dir);
+        List<Path> files = segmentFiles();
+        if (files.isEmpty()) {
+            this.segment = Segment.create(dir, 0, segmentSize());
+        } else {
+            this.segment = Segment.open(files.get(files.size() - 1));
+            long[] last = {0};
+            segment.position = scan(segment.buffer, r -> last[0] = r.sequence());
+            segment.flushed = segment.position;
+            // anything past the last intact record is a torn write; clear it so that an older
+            // record further on can never resurface once appends overwrite the torn one
+            segment.clearFrom(segment.position);
+            this.nextSequence = last[0] + 1;
+        }
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Append records in order. The returned future completes once they are on disk,
+     * or straight away when {@code sync} is off.
+     */
+    public CompletableFuture<Void> append(List<JournalRecord> batch) {
+        if (!properties.isEnabled() || batch.isEmpty()) {
+            return DONE;
+        }
+        for (JournalRecord r : batch) {
+            if (r.amount().unscaledValue().bitLength() > 63 || r.balance().unscaledValue().bitLength() > 63) {
+                errors.increment();
+                return CompletableFuture.failedFuture(new IllegalArgumentException("Amount too large for the journal: " + r));
+            }
+        }
+        CompletableFuture<Void> done = properties.isSync() ? new CompletableFuture<>() : DONE;
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            if (!running) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Journal is closed"));
+            }
+            for (JournalRecord r : batch) {
+                if (segment.buffer.capacity() - segment.position < RECORD_SIZE) {
+                    roll();
+                }
+                segment.position = write(segment.buffer, segment.position, nextSequence++, now, r);
+            }
+            pending += batch.size();
+            if (done != DONE) {
+                waiting.add(done);
+            }
+            appended.signal();
+        } catch (IOException e) {
+            errors.increment();
+            return CompletableFuture.failedFuture(new UncheckedIOException(e));
+
+        } finally {
+            lock.unlock();
+        }
+        records.increment(batch.size());
+        return done;
+    }
+
+    /** Every intact record, oldest first. */
+    public void forEach(Consumer<JournalRecord> consumer) throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (Path file : segmentFiles()) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.getInt(0) != MAGIC) {
+                    log.warn("Skipping {}: not a journal segment", file);
+                    continue;
+                }
+                scan(buffer, consumer);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            running = false;
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void flushLoop() {
+        long interval = properties.getFlushInterval().toNanos();
+        int maxBatch = Math.max(1, properties.getMaxBatch());
+        while (true) {
+            List<CompletableFuture<Void>> released;
+            Segment target;
+            int from;
+            int to;
+            lock.lock();
+            try {
+                while (pending == 0 && running) {
+                    appended.awaitUninterruptibly();
+                }
+                if (pending == 0) {
+                    return;
+                }
+                long deadline = System.nanoTime() + interval;
+                long left;
+                while (pending < maxBatch && running && (left = deadline - System.nanoTime()) > 0) {
+                    appended.awaitNanos(left);
+                }
+                released = waiting;
+                waiting = new ArrayList<>();
+                pending = 0;
+                target = segment;
+                from = target.flushed;
+                to = target.position;
+                target.flushed = to;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            long start = System.nanoTime();
+            try {
+                target.buffer.force(from, to - from);
+                released.forEach(f -> f.complete(null));
+            } catch (RuntimeException e) {
+                errors.increment();
+                log.error("Journal fsync failed", e);
+                released.forEach(f -> f.completeExceptionally(e));
+            }
+            syncs.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** Seal the full segment and start the next one. Called under the lock. */
+    private void roll() throws IOException {
+        segment.buffer.force(segment.flushed, segment.position - segment.flushed);
+        segment.flushed = segment.position;
+        segment.channel.close();
+        segment = Segment.create(dir, segment.index + 1, segmentSize());
+    }
+
+    private int segmentSize() {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(HEADER_SIZE + RECORD_SIZE, properties.getSegmentSize().toBytes()));
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().matches("segment-\\d{10}\\.journal")).sorted().toList();
+        }
+    }
+
+    private static int write(ByteBuffer buf, int pos, long sequence, long timestamp, JournalRecord r) {
+        int p = pos + 8;
+        buf.putLong(p, sequence);
+        buf.putLong(p + 8, timestamp);
+        buf.put(p + 16, (byte) r.type().ordinal());
+        buf.putLong(p + 17, r.accountId());
+        putDecimal(buf, p + 25, r.amount());
+        putDecimal(buf, p + 34, r.balance());
+        buf.putLong(p + 43, r.version());
+        CRC32C crc = new CRC32C();
+        crc.update(buf.slice(p, PAYLOAD_SIZE));
+        buf.putInt(pos + 4, (int) crc.getValue());
+        // length last, so a record is only visible to a scan once it is complete
+        buf.putInt(pos, PAYLOAD_SIZE);
+        return pos + RECORD_SIZE;
+    }
+
+    /** Feed every intact record to {@code consumer} and return the offset just past the last one. */
+    private static int scan(ByteBuffer buf, Consumer<JournalRecord> consumer) {
+        int pos = HEADER_SIZE;
+        CRC32C crc = new CRC32C();
+        while (buf.capacity() - pos >= RECORD_SIZE && buf.getInt(pos) == PAYLOAD_SIZE) {
+            int p = pos + 8;
+            crc.reset();
+            crc.update(buf.slice(p, PAYLOAD_SIZE));
+            if ((int) crc.getValue() != buf.getInt(pos + 4)) {
+                log.warn("Journal record at offset {} fails its checksum; treating it as the end", pos);
+                break;
+            }
+            consumer.accept(new JournalRecord(buf.getLong(p), buf.getLong(p + 8), JournalRecord.Type.of(buf.get(p + 16)),
+                    buf.getLong(p + 17), getDecimal(buf, p + 25), getDecimal(buf, p + 34), buf.getLong(p + 43)));
+            pos += RECORD_SIZE;
+        }
+        return pos;
+    }
+
+    /** Unscaled value as a long plus a one-byte scale; {@link #append} rejects anything wider. */
+    private static void putDecimal(ByteBuffer buf, int pos, BigDecimal value) {
+        buf.putLong(pos, value.unscaledValue().longValue());
+        buf.put(pos + 8, (byte) value.scale());
+    }
+
+    private static BigDecimal getDecimal(ByteBuffer buf, int pos) {
+        return new BigDecimal(BigInteger.valueOf(buf.getLong(pos)), buf.get(pos + 8));
+    }
+
+    /** One mapped segment file; positions are guarded by the journal lock. */
+    private static final class Segment {
+        final long index;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        int position = HEADER_SIZE;
+        int flushed = HEADER_SIZE;
+
+        private Segment(long index, FileChannel channel, MappedByteBuffer buffer) {
+            this.index = index;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment create(Path dir, long index, int size) throws IOException {
+            Path file = dir.resolve(String.format("segment-%010d.journal", index));
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT);
+            buffer.putLong(8, index);
+            buffer.force(0, HEADER_SIZE);
+            return new Segment(index, channel, buffer);
+        }
+
+        static Segment open(Path file) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC) {
+                channel.close();
+                throw new IOException(file + " is not a journal segment");
+            }
+            return new Segment(buffer.getLong(8), channel, buffer);
+        }
+
+        void clearFrom(int offset) {
+            int end = buffer.capacity();
+            int i = offset;
+            for (; i + 8 <= end; i += 8) {
+                buffer.putLong(i, 0);
+            }
+            for (; i < end; i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force(offset, end - offset);
+        }
+    }
+}
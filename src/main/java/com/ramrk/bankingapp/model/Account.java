@@ -2,19 +2,21 @@ package com.ramrk.bankingapp.model;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+import com.ramrk.bankingapp.shard.ShardedSequence;
+
 
 /**
  * Represents a bank account.
@@ -22,15 +24,21 @@ import jakarta.validation.constraints.NotNull;
  * - accountNumber: unique identifier visible to users
  * - ownerName, email: owner information
  * - balance: monetary balance
+ * - version: optimistic lock, bumped on every update so concurrent writers cannot overwrite each other
  * Audit fields track creation and last update timestamps
  */
 @Entity
 @Table(name = "accounts")
 public class Account {
 
-    /** Primary key */
+    /**
+     * Primary key. Drawn from a pooled sequence (a table on MySQL) 50 ids at a time,
+     * so inserts need no per-row round trip and Hibernate can batch them; IDENTITY
+     * would force one INSERT per row. With sharding every shard has its own sequence
+     * and the id carries the shard in its low bits (see {@link ShardedSequence}).
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardedSequence(sequenceName = "account_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -55,6 +63,10 @@ public class Account {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @PrePersist
     public void prePersist() {
         if (createdAt == null) {
@@ -67,7 +79,8 @@ public class Account {
 
     @PreUpdate
     public void preUpdate() {
-        updatedAt = LocalDateTime.now();
+        // at the precision the column keeps, so the value returned after a write matches a later read
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     public Account() {}
@@ -95,6 +108,7 @@ public class Account {
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public long getVersion() { return version; }
 
     public static Builder builder() { return new Builder(); }
 
@@ -0,0 +1,88 @@
+package com.ramrk.bankingapp.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import com.ramrk.bankingapp.shard.ShardedSequence;
+
+/**
+ * One balance movement on an account, written in the same transaction as the balance
+ * change itself. Rows are never updated. {@code balanceAfter} is the running balance,
+ * so a statement page needs no aggregation over earlier rows.
+ * <p>
+ * Statements read by {@code (account_id, occurred_at, id)}, which the index below
+ * covers. On MySQL the table is created by {@code db/mysql/account_transactions.sql}
+ * instead and partitioned by month; its primary key is {@code (id, occurred_at)}, and
+ * {@code idx_account_tx_account_time} there also carries every column a statement
+ * returns, so pages are index-only reads.
+ */
+@Entity
+@Immutable
+@Table(name = "account_transactions",
+        indexes = @Index(name = "idx_account_tx_account_time", columnList = "account_id, occurred_at, id"))
+public class AccountTransaction {
+
+    public enum Type {
+        DEPOSIT, WITHDRAWAL, TRANSFER_OUT, TRANSFER_IN
+    }
+
+    /**
+     * Pooled like {@link Account}'s id, so the entries of a lane batch go out as one JDBC
+     * batch; sharded, drawn from the shard's own sequence like it too.
+     */
+    @Id
+    @ShardedSequence(sequenceName = "account_tx_seq", allocationSize = 50)
+    private Long id;
+
+    /** Plain column rather than an association: entries outlive the account and never load it */
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 16)
+    private Type type;
+
+    /** Signed: negative for money leaving the account */
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "balance_after", nullable = false)
+    private BigDecimal balanceAfter;
+
+    /** The other side of a transfer, null otherwise */
+    @Column(name = "counterparty_id")
+    private Long counterpartyId;
+
+    public AccountTransaction() {}
+
+    public AccountTransaction(Long accountId, LocalDateTime occurredAt, Type type, BigDecimal amount,
+                              BigDecimal balanceAfter, Long counterpartyId) {
+        this.accountId = accountId;
+        this.occurredAt = occurredAt;
+        this.type = type;
+        this.amount = amount;
+        this.balanceAfter = balanceAfter;
+        this.counterpartyId = counterpartyId;
+    }
+
+    public Long getId() { return id; }
+    public Long getAccountId() { return accountId; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public Type getType() { return type; }
+    public BigDecimal getAmount() { return amount; }
+    public BigDecimal getBalanceAfter() { return balanceAfter; }
+    public Long getCounterpartyId() { return counterpartyId; }
+}
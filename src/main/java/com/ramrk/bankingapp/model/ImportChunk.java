@@ -0,0 +1,57 @@
+package com.ramrk.bankingapp.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Checkpoint of a bulk account import: one row per chunk of the source file that has
+ * been committed. It is written in the same transaction as the chunk's accounts, so
+ * a resumed import skips exactly the chunks that made it into the database.
+ */
+@Entity
+@Table(name = "account_import_chunks", uniqueConstraints = @UniqueConstraint(columnNames = {"job_id", "chunk_index"}))
+public class ImportChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false, length = 200)
+    private String jobId;
+
+    @Column(name = "chunk_index", nullable = false)
+    private int chunkIndex;
+
+    @Column(name = "imported", nullable = false)
+    private int imported;
+
+    @Column(name = "rejected", nullable = false)
+    private int rejected;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+
+    public ImportChunk() {}
+
+    public ImportChunk(String jobId, int chunkIndex, int imported, int rejected) {
+        this.jobId = jobId;
+        this.chunkIndex = chunkIndex;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.completedAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public String getJobId() { return jobId; }
+    public int getChunkIndex() { return chunkIndex; }
+    public int getImported() { return imported; }
+    public int getRejected() { return rejected; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+}
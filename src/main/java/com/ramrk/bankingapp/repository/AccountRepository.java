@@ -1,12 +1,27 @@
 package com.ramrk.bankingapp.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.ramrk.bankingapp.dto.AccountDto;
 import com.ramrk.bankingapp.model.Account;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 /**
  * Spring Data JPA repository for Account entities.
  * Spring provides the implementation automatically at runtime.
@@ -14,4 +29,67 @@ import com.ramrk.bankingapp.model.Account;
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByAccountNumber(String accountNumber);
+
+    /** Load and row-lock an account until the surrounding transaction ends. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id = :id")
+    Optional<Account> findByIdForUpdate(Long id);
+
+    /** Keyset page: accounts with an id greater than {@code id}, in id order. */
+    List<Account> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /*
+     * Read-path projections: the DTO is built straight from the result set, so nothing is
+     * attached to the persistence context and no dirty-checking snapshot is taken.
+     */
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.ramrk.bankingapp.dto.AccountDto(a.id, a.accountNumber, a.ownerName, a.email, a.balance, a.createdAt, a.updatedAt) from Account a where a.id = :id")
+    Optional<AccountDto> findDtoById(Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.ramrk.bankingapp.dto.AccountDto(a.id, a.accountNumber, a.ownerName, a.email, a.balance, a.createdAt, a.updatedAt) from Account a where a.accountNumber = :accountNumber")
+    Optional<AccountDto> findDtoByAccountNumber(String accountNumber);
+
+    /** The accounts with the given ids, in no particular order; missing ids are skipped. */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.ramrk.bankingapp.dto.AccountDto(a.id, a.accountNumber, a.ownerName, a.email, a.balance, a.createdAt, a.updatedAt) from Account a where a.id in :ids")
+    List<AccountDto> findDtoByIdIn(Collection<Long> ids);
+
+    /** Keyset page as DTOs: accounts with an id greater than {@code id}, in id order. */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.ramrk.bankingapp.dto.AccountDto(a.id, a.accountNumber, a.ownerName, a.email, a.balance, a.createdAt, a.updatedAt) from Account a where a.id > :id order by a.id")
+    List<AccountDto> findDtoPageAfter(Long id, Limit limit);
+
+    /**
+     * Streams every account as a DTO straight off the JDBC cursor. No entities are
+     * attached to the persistence context, so memory stays flat regardless of table size.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.ramrk.bankingapp.dto.AccountDto(a.id, a.accountNumber, a.ownerName, a.email, a.balance, a.createdAt, a.updatedAt) from Account a order by a.id")
+    Stream<AccountDto> streamAllOrderById();
+
+    /** Every account number, for rebuilding the lookup filter. Same cursor rules as above. */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select a.accountNumber from Account a")
+    Stream<String> streamAllAccountNumbers();
+
+    /**
+     * Owner and email in one UPDATE, bypassing the load-and-dirty-check of {@code save}.
+     * Bumps the version like an entity update would, so concurrent writers still conflict.
+     */
+    @Modifying
+    @Query("update Account a set a.ownerName = :ownerName, a.email = :email, a.updatedAt = :updatedAt, a.version = a.version + 1 where a.id = :id")
+    int updateDetails(Long id, String ownerName, String email, LocalDateTime updatedAt);
+
+    /** One DELETE by id; returns the number of rows removed (0 when the account does not exist). */
+    @Modifying
+    @Query("delete from Account a where a.id = :id")
+    int deleteAccountById(Long id);
+
+    /** Bring a row forward to a journaled balance; rows already at or past {@code version} are left alone. */
+    @Modifying
+    @Query("update Account a set a.balance = :balance, a.version = :version where a.id = :id and a.version < :version")
+    int restoreBalance(Long id, BigDecimal balance, long version);
 }
@@ -0,0 +1,38 @@
+package com.ramrk.bankingapp.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import com.ramrk.bankingapp.dto.StatementEntry;
+import com.ramrk.bankingapp.model.AccountTransaction;
+
+import jakarta.persistence.QueryHint;
+
+/** Balance movements, read back as statement pages. */
+@Repository
+public interface AccountTransactionRepository extends JpaRepository<AccountTransaction, Long> {
+
+    /**
+     * Keyset page of one account's movements in {@code (occurredAt, id)} order, starting
+     * after the entry at {@code (afterAt, afterId)} and stopping before {@code to}. The
+     * first conjunct bounds the index range scan; the disjunction only filters ties at
+     * its start, so a page deep into a long history costs the same as the first one.
+     * Ordering by the full index key (account id included, constant as it is) lets H2
+     * read rows in index order and stop after the limit instead of sorting the range.
+     * For the first page pass the range start with {@code afterId} 0.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.ramrk.bankingapp.dto.StatementEntry(t.id, t.occurredAt, t.type, t.amount, t.balanceAfter, t.counterpartyId)"
+            + " from AccountTransaction t"
+            + " where t.accountId = :accountId and t.occurredAt >= :afterAt and t.occurredAt < :to"
+            + " and (t.occurredAt > :afterAt or t.id > :afterId)"
+            + " order by t.accountId, t.occurredAt, t.id")
+    List<StatementEntry> findStatementPage(Long accountId, LocalDateTime afterAt, long afterId, LocalDateTime to, Limit limit);
+}
@@ -0,0 +1,18 @@
+package com.ramrk.bankingapp.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.ramrk.bankingapp.model.ImportChunk;
+
+/** Checkpoints of bulk account imports. */
+@Repository
+public interface ImportChunkRepository extends JpaRepository<ImportChunk, Long> {
+
+    /** Indexes of the chunks of {@code jobId} already committed. */
+    @Query("select c.chunkIndex from ImportChunk c where c.jobId = :jobId")
+    List<Integer> findChunkIndexesByJobId(String jobId);
+}
@@ -0,0 +1,738 @@
+package com.ramrk.bankingapp.search;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ramrk.bankingapp.config.SearchProperties;
+import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.exception.BadRequestException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory index over every account's owner name and email, answering partial
+ * matches without a {@code LIKE '%x%'} scan. Values are lower-cased and stripped of
+ * accents. Each account gets an ordinal, and posting lists of ordinals hang off two maps:
+ * <ul>
+ * <li>every trigram of either field, for queries of three characters or more:
+ *     candidates are drawn from the query's rarest trigram, leapfrogged through the
+ *     other trigrams' lists, and the survivors checked for the whole query as a
+ *     substring. Trigrams that open a field or a word are also listed under that
+ *     position, so the better-ranked hits are looked at first;</li>
+ * <li>the first one and two characters of every word, for shorter queries, filed
+ *     under the rank they earn. Only those two trie levels are kept; longer prefixes
+ *     are served by the trigrams.</li>
+ * </ul>
+ * Hits are ranked exact field match, then field prefix, then word prefix, then any
+ * substring; the owner name outranks the email at each level and older accounts
+ * come first within one. Ordinals only grow, so every posting list stays sorted, and
+ * a query stops as soon as nothing left to read could displace what it has found.
+ * Updates and deletes leave a dead ordinal behind, and the index is compacted once
+ * those outnumber the live ones.
+ * <p>
+ * Writers take a write lock, and changes made inside a transaction are applied
+ * after it commits. Queries share a read lock. Changes that land while a rebuild
+ * reads the table are replayed onto the rebuilt index, so it can run under traffic.
+ */
+@Component
+public class AccountSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountSearchIndex.class);
+
+    private static final int GRAM = 3;
+    /** Joins the two stored fields, so a candidate is checked with a single string. */
+    private static final char SEPARATOR = '\u0000';
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    /** Best possible rank: the whole owner name. */
+    private static final int TOP_RANK = 8;
+    /**
+     * Trigram passes, best first: name start, email start, word in the name, word in
+     * the email, anywhere. A tag marks a positional trigram list; 0 is the plain list.
+     */
+    private static final int[] PASS_TAGS = {6, 5, 4, 3, 0};
+    /** Best rank a hit can reach in each pass. */
+    private static final int[] PASS_TOP_RANKS = {8, 7, 4, 3, 2};
+    /** Dead ordinals tolerated before compaction, however small the index. */
+    private static final int MIN_DEAD_FOR_COMPACTION = 10_000;
+    /** Hash map node plus table slot plus the boxed key, for the footprint estimate. */
+    private static final long MAP_ENTRY_BYTES = 32 + 4 + 16;
+
+    private final SearchProperties properties;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment segment = new Segment(1024);
+    private BitSet live = new BitSet();
+    private LongIntMap ordinals = new LongIntMap(1024);
+    private int dead;
+    /** Changes applied since the running rebuild started reading, or null outside a rebuild. */
+    private List<Runnable> duringRebuild;
+    private final List<LongConsumer> changeListeners = new CopyOnWriteArrayList<>();
+
+    public AccountSearchIndex(SearchProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("banking.search.index.accounts", this, AccountSearchIndex::size)
+                .description("Accounts in the search index")
+                .register(meterRegistry);
+        Gauge.builder("banking.search.index.size", this, AccountSearchIndex::estimatedBytes)
+                .description("Estimated heap held by the search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /** Ids of the best {@code limit} accounts whose owner name or email contains {@code query}, best first. */
+    public List<Long> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            throw new BadRequestException("Search query must not be blank");
+        }
+        if (q.indexOf(SEPARATOR) >= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (q.length() < GRAM) {
+                return byPrefix(q, Math.max(1, limit));
+            }
+            List<IntList> lists = new ArrayList<>();
+            for (int i = 0; i + GRAM <= q.length(); i++) {
+                IntList postings = segment.trigrams.get(trigram(q, i));
+                if (postings == null) {
+                    return List.of();
+                }
+                if (!lists.contains(postings)) {
+                    lists.add(postings);
+                }
+            }
+            return rank(q, lists, Math.max(1, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Prefix lists are filed by rank, so the first live ordinals read best rank first are the answer. */
+    private List<Long> byPrefix(String q, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        Set<Integer> taken = new HashSet<>();
+        for (int rank = TOP_RANK; rank > 2 && ids.size() < limit; rank--) {
+            IntList postings = segment.prefixes.get(prefixKey(rank, q));
+            for (int i = 0; postings != null && i < postings.size() && ids.size() < limit; i++) {
+                int ordinal = postings.get(i);
+                if (live.get(ordinal) && taken.add(ordinal)) {
+                    ids.add(segment.ids[ordinal]);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private List<Long> rank(String q, List<IntList> plain, int limit) {
+        // keys pack the rank above the inverted ordinal, so a larger key is a better hit
+        PriorityQueue<Long> best = new PriorityQueue<>(limit + 1);
+        int checked = 0;
+        for (int pass = 0; pass < PASS_TAGS.length; pass++) {
+            int tag = PASS_TAGS[pass];
+            int top = PASS_TOP_RANKS[pass];
+            if (best.size() == limit && best.peek() >>> 32 >= top) {
+                break;
+            }
+            List<IntList> lists = new ArrayList<>(plain);
+            if (tag != 0) {
+                IntList positional = segment.trigrams.get(trigram(q, 0) | (long) tag << 48);
+                if (positional == null) {
+                    continue;
+                }
+                lists.add(positional);
+            }
+            lists.sort(Comparator.comparingInt(IntList::size));
+            IntList candidates = lists.get(0);
+            IntList[] filters = lists.subList(1, lists.size()).toArray(IntList[]::new);
+            int[] cursors = new int[filters.length];
+            for (int i = 0; i < candidates.size() && checked < properties.getMaxCandidates(); i++) {
+                int ordinal = candidates.get(i);
+                if (!live.get(ordinal) || !allContain(filters, cursors, ordinal)) {
+                    continue;
+                }
+                checked++;
+                int rank = rankOf(segment.fields[ordinal], q);
+                if (rank <= 0 || tagOf(rank) != tag) {
+                    continue; // no match, or one another pass offers
+                }
+                long key = ((long) rank << 32) | (Integer.MAX_VALUE - ordinal);
+                if (best.size() == limit) {
+                    if (key <= best.peek()) {
+                        continue;
+                    }
+                    best.poll();
+                }
+                best.offer(key);
+                if (best.size() == limit && best.peek() >>> 32 >= top) {
+                    // later ordinals can only tie, and ties go to the older account
+                    break;
+                }
+            }
+        }
+        Long[] keys = best.toArray(Long[]::new);
+        Arrays.sort(keys, Comparator.reverseOrder());
+        List<Long> ids = new ArrayList<>(keys.length);
+        for (Long key : keys) {
+            ids.add(segment.ids[Integer.MAX_VALUE - (int) (key & 0xFFFFFFFFL)]);
+        }
+        return ids;
+    }
+
+    /** The pass whose positional list holds every hit of this rank. */
+    private static int tagOf(int rank) {
+        if (rank >= 5) {
+            return rank % 2 == 0 ? 6 : 5;
+        }
+        return rank >= 3 ? rank : 0;
+    }
+
+    /** Candidates arrive in increasing order, so each list is searched forward from where the last probe stopped. */
+    private static boolean allContain(IntList[] lists, int[] cursors, int ordinal) {
+        for (int f = 0; f < lists.length; f++) {
+            cursors[f] = lists[f].seek(cursors[f], ordinal);
+            if (cursors[f] == lists[f].size() || lists[f].get(cursors[f]) != ordinal) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Best rank of {@code q} in a stored "name, separator, email" value: twice the match
+     * level in the name, or one less in the email. Levels are 4 whole field, 3 field
+     * prefix, 2 word prefix, 1 elsewhere; 0 means no match.
+     */
+    private static int rankOf(String fields, String q) {
+        int split = fields.indexOf(SEPARATOR);
+        int best = 0;
+        for (int at = fields.indexOf(q); at >= 0 && best < TOP_RANK; at = fields.indexOf(q, at + 1)) {
+            boolean name = at < split;
+            int start = name ? 0 : split + 1;
+            int end = name ? split : fields.length();
+            int level = at == start ? (at + q.length() == end ? 4 : 3) : wordStart(fields, at) ? 2 : 1;
+            best = Math.max(best, name ? 2 * level : 2 * level - 1);
+        }
+        return best;
+    }
+
+    /**
+     * Index an account, replacing what was indexed for it before, and tell the
+     * {@link #onChange} listeners. Inside a transaction this happens after commit.
+     */
+    public void put(long id, String ownerName, String email) {
+        afterCommit(() -> {
+            index(id, ownerName, email);
+            changed(id);
+        });
+    }
+
+    /** Drop an account from the index and tell the {@link #onChange} listeners. Inside a transaction this happens after commit. */
+    public void remove(long id) {
+        afterCommit(() -> {
+            unindex(id);
+            changed(id);
+        });
+    }
+
+    /** Register a callback for the ids changed through {@link #put} and {@link #remove}. */
+    public void onChange(LongConsumer listener) {
+        changeListeners.add(listener);
+    }
+
+    /** Bring one account in line with {@code row} as read from the table (null if it is gone), without telling anyone. */
+    void refresh(long id, AccountDto row) {
+        if (row == null) {
+            unindex(id);
+        } else {
+            index(id, row.getOwnerName(), row.getEmail());
+        }
+    }
+
+    private void index(long id, String ownerName, String email) {
+        String name = normalize(ownerName);
+        String mail = normalize(email);
+        apply(() -> {
+            int previous = ordinals.get(id);
+            if (previous >= 0) {
+                kill(previous);
+            }
+            int ordinal = segment.add(id, name, mail);
+            live.set(ordinal);
+            ordinals.put(id, ordinal);
+            compactIfNeeded();
+        });
+    }
+
+    private void unindex(long id) {
+        apply(() -> {
+            int previous = ordinals.remove(id);
+            if (previous >= 0) {
+                kill(previous);
+                compactIfNeeded();
+            }
+        });
+    }
+
+    private void changed(long id) {
+        changeListeners.forEach(listener -> listener.accept(id));
+    }
+
+    /** Run a change under the write lock, keeping it for replay if a rebuild is reading the table. */
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (duringRebuild != null) {
+                duringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private void kill(int ordinal) {
+        live.clear(ordinal);
+        segment.release(ordinal);
+        dead++;
+    }
+
+    private void compactIfNeeded() {
+        if (dead < MIN_DEAD_FOR_COMPACTION || dead < segment.size - dead) {
+            return;
+        }
+        long start = System.nanoTime();
+        Segment next = new Segment(segment.size - dead);
+        LongIntMap nextOrdinals = new LongIntMap(segment.size - dead);
+        for (int ordinal = live.nextSetBit(0); ordinal >= 0; ordinal = live.nextSetBit(ordinal + 1)) {
+            String fields = segment.fields[ordinal];
+            int split = fields.indexOf(SEPARATOR);
+            nextOrdinals.put(segment.ids[ordinal],
+                    next.add(segment.ids[ordinal], fields.substring(0, split), fields.substring(split + 1)));
+        }
+        install(next, nextOrdinals);
+        log.info("Account search index compacted to {} accounts in {} ms", next.size, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Replace the index with the accounts of a stream opened from {@code source}, and
+     * closed afterwards. Batches of {@code banking.search.build-batch} accounts are
+     * tokenized on {@code build-workers} threads and merged in order. Changes applied
+     * from the moment before the stream is opened are replayed onto the result, so none
+     * is lost whether or not the stream saw it. Concurrent rebuilds run one at a time.
+     */
+    public synchronized void rebuild(Supplier<? extends Stream<AccountDto>> source) {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            duringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try (Stream<AccountDto> accounts = source.get()) {
+            build(accounts, start);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                duringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void build(Stream<AccountDto> accounts, long start) {
+        int workers = properties.getBuildWorkers() > 0 ? properties.getBuildWorkers()
+                : Math.min(Runtime.getRuntime().availableProcessors(), 4);
+        int batchSize = Math.max(1, properties.getBuildBatch());
+        Segment merged = new Segment(batchSize);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            Deque<Future<Segment>> building = new ArrayDeque<>();
+            List<AccountDto> batch = new ArrayList<>(batchSize);
+            Iterator<AccountDto> rows = accounts.iterator();
+            while (rows.hasNext()) {
+                batch.add(rows.next());
+                if (batch.size() == batchSize || !rows.hasNext()) {
+                    List<AccountDto> slice = batch;
+                    building.add(pool.submit(() -> segmentOf(slice)));
+                    batch = new ArrayList<>(batchSize);
+                    // merge finished batches in order; a few in flight keep every worker busy without buffering the table
+                    while (!building.isEmpty() && (building.size() > 2 * workers || building.peek().isDone())) {
+                        merged.append(building.poll().get());
+                    }
+                }
+            }
+            while (!building.isEmpty()) {
+                merged.append(building.poll().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search index build interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search index build failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        LongIntMap nextOrdinals = new LongIntMap(merged.size);
+        for (int ordinal = 0; ordinal < merged.size; ordinal++) {
+            nextOrdinals.put(merged.ids[ordinal], ordinal);
+        }
+        int replayed;
+        lock.writeLock().lock();
+        try {
+            install(merged, nextOrdinals);
+            replayed = duringRebuild.size();
+            duringRebuild.forEach(Runnable::run);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Account search index built: {} accounts ({} changes replayed), {} MiB, in {} ms", merged.size, replayed,
+                estimatedBytes() / (1024 * 1024), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static Segment segmentOf(List<AccountDto> accounts) {
+        Segment segment = new Segment(accounts.size());
+        for (AccountDto account : accounts) {
+            segment.add(account.getId(), normalize(account.getOwnerName()), normalize(account.getEmail()));
+        }
+        return segment;
+    }
+
+    private void install(Segment next, LongIntMap nextOrdinals) {
+        BitSet nextLive = new BitSet(next.size);
+        nextLive.set(0, next.size);
+        segment = next;
+        live = nextLive;
+        ordinals = nextOrdinals;
+        dead = 0;
+    }
+
+    /** Accounts currently searchable. */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.size - dead;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap held by the index, assuming compressed references and Latin-1
+     * strings: the stored fields, the posting lists with their map entries, and the
+     * id-to-ordinal table.
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = segment.ids.length * 8L + segment.fields.length * 4L + segment.stringBytes
+                    + live.size() / 8 + ordinals.bytes();
+            for (IntList postings : segment.trigrams.values()) {
+                bytes += MAP_ENTRY_BYTES + postings.bytes();
+            }
+            for (Map.Entry<String, IntList> prefix : segment.prefixes.entrySet()) {
+                bytes += MAP_ENTRY_BYTES + stringBytes(prefix.getKey()) + prefix.getValue().bytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+
+    /** Lower-case, trimmed and without accents, so "José" is found by "jose". */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String lower = value.strip().toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) >= 0x80) {
+                return COMBINING_MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+            }
+        }
+        return lower;
+    }
+
+    private static boolean wordStart(String value, int at) {
+        return Character.isLetterOrDigit(value.charAt(at)) && (at == 0 || !Character.isLetterOrDigit(value.charAt(at - 1)));
+    }
+
+    /** Prefix lists are keyed by the rank they earn followed by the prefix itself. */
+    private static String prefixKey(int rank, String prefix) {
+        return (char) ('0' + rank) + prefix;
+    }
+
+    private static long trigram(String value, int at) {
+        return ((long) value.charAt(at) << 32) | ((long) value.charAt(at + 1) << 16) | value.charAt(at + 2);
+    }
+
+    /** Stored fields by ordinal plus the posting lists over them. */
+    private static final class Segment {
+        private long[] ids;
+        private String[] fields;
+        private int size;
+        private long stringBytes;
+        private final Map<Long, IntList> trigrams = new HashMap<>();
+        private final Map<String, IntList> prefixes = new HashMap<>();
+
+        Segment(int capacity) {
+            ids = new long[Math.max(16, capacity)];
+            fields = new String[ids.length];
+        }
+
+        int add(long id, String name, String email) {
+            ensureCapacity(size + 1);
+            int ordinal = size++;
+            ids[ordinal] = id;
+            fields[ordinal] = name + SEPARATOR + email;
+            stringBytes += stringBytes(fields[ordinal]);
+            index(name, 0, ordinal);
+            index(email, 1, ordinal);
+            return ordinal;
+        }
+
+        /** {@code demotion} is 0 for the owner name and 1 for the email, which ranks one lower. */
+        private void index(String field, int demotion, int ordinal) {
+            for (int i = 0; i + GRAM <= field.length(); i++) {
+                trigrams.computeIfAbsent(trigram(field, i), k -> new IntList()).addOnce(ordinal);
+                if (i == 0 || wordStart(field, i)) {
+                    long tag = (i == 0 ? 6 : 4) - demotion;
+                    trigrams.computeIfAbsent(trigram(field, i) | tag << 48, k -> new IntList()).addOnce(ordinal);
+                }
+            }
+            for (int i = 0; i < field.length(); i++) {
+                if (!wordStart(field, i)) {
+                    continue;
+                }
+                for (int end = i + 1; end <= Math.min(i + 2, field.length()); end++) {
+                    if (end > i + 1 && !Character.isLetterOrDigit(field.charAt(end - 1))) {
+                        break;
+                    }
+                    String prefix = field.substring(i, end);
+                    int level;
+                    if (i == 0) {
+                        level = end == field.length() ? 4 : 3;
+                    } else if (field.startsWith(prefix)) {
+                        continue; // already filed at the field-prefix rank
+                    } else {
+                        level = 2;
+                    }
+                    prefixes.computeIfAbsent(prefixKey(2 * level - demotion, prefix), k -> new IntList()).addOnce(ordinal);
+                }
+            }
+        }
+
+        /** Forget a dead ordinal's values; its postings are skipped until compaction. */
+        void release(int ordinal) {
+            stringBytes -= stringBytes(fields[ordinal]);
+            fields[ordinal] = null;
+        }
+
+        /** Take over another segment's accounts as the next ordinals. */
+        void append(Segment other) {
+            int offset = size;
+            ensureCapacity(size + other.size);
+            System.arraycopy(other.ids, 0, ids, offset, other.size);
+            System.arraycopy(other.fields, 0, fields, offset, other.size);
+            size += other.size;
+            stringBytes += other.stringBytes;
+            other.trigrams.forEach((key, postings) -> trigrams.computeIfAbsent(key, k -> new IntList()).appendShifted(postings, offset));
+            other.prefixes.forEach((key, postings) -> prefixes.computeIfAbsent(key, k -> new IntList()).appendShifted(postings, offset));
+        }
+
+        private void ensureCapacity(int needed) {
+            if (needed > ids.length) {
+                int capacity = Math.max(needed, ids.length + (ids.length >> 1));
+                ids = Arrays.copyOf(ids, capacity);
+                fields = Arrays.copyOf(fields, capacity);
+            }
+        }
+    }
+
+    /** Growable sorted list of ordinals. */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        /** Ordinals arrive in increasing order, so a repeat can only be the last one. */
+        void addOnce(int ordinal) {
+            if (size > 0 && values[size - 1] == ordinal) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1) + 1);
+            }
+            values[size++] = ordinal;
+        }
+
+        void appendShifted(IntList other, int offset) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, size + other.size);
+            }
+            for (int i = 0; i < other.size; i++) {
+                values[size++] = other.values[i] + offset;
+            }
+        }
+
+        /** Index of the first value at or after {@code from} that is not below {@code target}, galloping then bisecting. */
+        int seek(int from, int target) {
+            if (from >= size || values[from] >= target) {
+                return from;
+            }
+            int low = from;
+            int step = 1;
+            while (low + step < size && values[low + step] < target) {
+                low += step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(values, low + 1, Math.min(size, low + step + 1), target);
+            return found >= 0 ? found : -found - 1;
+        }
+
+        long bytes() {
+            return 16 + 16 + values.length * 4L;
+        }
+    }
+
+    /** Open-addressing map from account id to ordinal; -1 means absent. */
+    private static final class LongIntMap {
+        private long[] keys;
+        private int[] values;
+        private int size;
+
+        LongIntMap(int expected) {
+            allocate(Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1);
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            values = new int[capacity];
+            Arrays.fill(values, -1);
+            size = 0;
+        }
+
+        private int slot(long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & (keys.length - 1);
+        }
+
+        int get(long key) {
+            for (int i = slot(key); ; i = (i + 1) & (keys.length - 1)) {
+                if (values[i] < 0) {
+                    return -1;
+                }
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                long[] oldKeys = keys;
+                int[] oldValues = values;
+                allocate(keys.length * 2);
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldValues[i] >= 0) {
+                        put(oldKeys[i], oldValues[i]);
+                    }
+                }
+            }
+            for (int i = slot(key); ; i = (i + 1) & (keys.length - 1)) {
+                if (values[i] < 0) {
+                    keys[i] = key;
+                    values[i] = value;
+                    size++;
+                    return;
+                }
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+            }
+        }
+
+        int remove(long key) {
+            int mask = keys.length - 1;
+            int i = slot(key);
+            while (values[i] >= 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (values[i] < 0) {
+                return -1;
+            }
+            int removed = values[i];
+            values[i] = -1;
+            size--;
+            // re-insert the rest of the probe run so lookups past the hole still find their keys
+            for (int j = (i + 1) & mask; values[j] >= 0; j = (j + 1) & mask) {
+                long k = keys[j];
+                int v = values[j];
+                values[j] = -1;
+                size--;
+                put(k, v);
+            }
+            return removed;
+        }
+
+        long bytes() {
+            return keys.length * 12L;
+        }
+    }
+}
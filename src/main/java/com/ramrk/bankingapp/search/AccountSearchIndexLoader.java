@@ -0,0 +1,131 @@
+package com.ramrk.bankingapp.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ramrk.bankingapp.cache.SharedAccountCache;
+import com.ramrk.bankingapp.config.SearchProperties;
+import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.repository.AccountRepository;
+import com.ramrk.bankingapp.shard.AccountShards;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Fills the {@link AccountSearchIndex} from the accounts table once all beans exist
+ * and before the web server starts, so no search sees a half-built index and no
+ * change slips in while it is read. The table is read from the primary, as a lagging
+ * replica would leave recent accounts out of the index for good. Sharded, the shards
+ * are read in parallel and merged by id.
+ * <p>
+ * Each node holds its own index, which the service keeps current for changes made
+ * here. The ids it changes are broadcast on the shared cache's channel; other nodes
+ * collect them and, every {@code banking.search.sync-interval}, re-read those rows
+ * from the primary and index what they find. A change made elsewhere is therefore
+ * searchable here after at most that interval plus the broadcast delay. A broadcast
+ * lost while a node was cut off from Redis leaves that account stale on that node
+ * until its next reload: a {@link SharedAccountCache#BULK_LOAD} broadcast, sent by
+ * the import tool, or a restart. Reloads run in the background while searches go on.
+ */
+@Component
+public class AccountSearchIndexLoader implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountSearchIndexLoader.class);
+
+    private static final String CHANGED = "search-changed";
+    /** Ids per IN list when re-reading changed rows */
+    private static final int REFRESH_BATCH = 500;
+
+    private final AccountSearchIndex index;
+    private final AccountRepository accountRepository;
+    private final AccountShards shards;
+    private final SearchProperties properties;
+    private final TransactionTemplate primary;
+    /** Ids changed on other nodes and not yet re-read */
+    private final Set<Long> remoteChanges = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService scheduler;
+
+    public AccountSearchIndexLoader(AccountSearchIndex index, AccountRepository accountRepository, AccountShards shards,
+                                    SharedAccountCache shared, SearchProperties properties,
+                                    PlatformTransactionManager transactionManager) {
+        this.index = index;
+        this.accountRepository = accountRepository;
+        this.shards = shards;
+        this.properties = properties;
+        this.primary = new TransactionTemplate(transactionManager);
+        index.onChange(id -> shared.broadcast(CHANGED, Long.toString(id)));
+        shared.onBroadcast(CHANGED, id -> remoteChanges.add(Long.valueOf(id)));
+        shared.onBroadcast(SharedAccountCache.BULK_LOAD, job -> Thread.ofVirtual().name("account-search-reload").start(() -> {
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                log.warn("Search index reload after {} failed, keeping the current one: {}", job, e.toString());
+            }
+        }));
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+        long interval = properties.getSyncInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "account-search-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::applyRemoteChanges, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /** Rebuild the index from the table; safe while the index is in use. */
+    public void reload() {
+        primary.executeWithoutResult(status -> index.rebuild(() -> shards.streamAll(
+                shard -> accountRepository.streamAllOrderById(), Comparator.comparing(AccountDto::getId))));
+    }
+
+    /** Re-read the accounts other nodes changed since the last run and index them as they are now. */
+    public void applyRemoteChanges() {
+        if (remoteChanges.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(remoteChanges);
+        remoteChanges.removeAll(ids);
+        try {
+            Map<Integer, List<Long>> byShard = ids.stream().collect(Collectors.groupingBy(shards::ofId));
+            byShard.forEach((shard, shardIds) -> {
+                for (int from = 0; from < shardIds.size(); from += REFRESH_BATCH) {
+                    List<Long> batch = shardIds.subList(from, Math.min(from + REFRESH_BATCH, shardIds.size()));
+                    Map<Long, AccountDto> rows = shards.on(shard, () -> primary.execute(status -> accountRepository.findDtoByIdIn(batch)))
+                            .stream()
+                            .collect(Collectors.toMap(AccountDto::getId, dto -> dto));
+                    batch.forEach(id -> index.refresh(id, rows.get(id)));
+                }
+            });
+        } catch (RuntimeException e) {
+            // retried on the next run; refreshing an id twice is harmless
+            remoteChanges.addAll(ids);
+            log.warn("Could not refresh {} accounts changed on other nodes, will retry: {}", ids.size(), e.toString());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ramrk.bankingapp.service;
+
+/**
+ * Produces the customer-facing account number for a new account. The active
+ * implementation is chosen with {@code banking.account-number.generator}.
+ */
+public interface AccountNumberGenerator {
+
+    /** A new account number, unique without consulting the database */
+    String next();
+
+    /**
+     * False if {@code accountNumber} cannot belong to any account, so a lookup can be
+     * answered without reading anything. Numbers from earlier schemes must still pass.
+     */
+    default boolean mightExist(String accountNumber) {
+        return true;
+    }
+}
@@ -1,9 +1,16 @@
 package com.ramrk.bankingapp.service;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.dto.AccountPage;
+import com.ramrk.bankingapp.dto.BatchCreateResponse;
 import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.dto.StatementPage;
+import com.ramrk.bankingapp.dto.TransferResult;
 import com.ramrk.bankingapp.dto.UpdateAccountRequest;
 
 /**
@@ -13,15 +20,43 @@ public interface AccountService {
     /** Create a new account */
     AccountDto create(CreateAccountRequest request);
 
+    /** Create many accounts at once; invalid entries are reported, not fatal */
+    BatchCreateResponse createBatch(List<CreateAccountRequest> requests);
+
     /** Get an account by its id */
     AccountDto getById(Long id);
 
-    /** List all accounts */
-    List<AccountDto> getAll();
+    /** Get an account by its customer-facing account number */
+    AccountDto getByAccountNumber(String accountNumber);
+
+    /** List accounts in id order, at most {@code limit} of them, starting after the {@code after} cursor (null for the first page) */
+    AccountPage getAll(Long after, int limit);
+
+    /** Accounts whose owner name or email contains {@code query}, best match first, at most {@code limit} */
+    List<AccountDto> search(String query, int limit);
+
+    /** Push every account to the consumer in id order without materialising the full list */
+    void streamAll(Consumer<AccountDto> consumer);
+
+    /**
+     * Balance movements between {@code from} (inclusive) and {@code to} (exclusive), oldest
+     * first, with the running balance after each; {@code cursor} is the previous page's
+     * {@code nextCursor}, null for the first page. Null bounds default to the last month.
+     */
+    StatementPage getStatement(Long id, LocalDateTime from, LocalDateTime to, String cursor, int limit);
 
     /** Update account metadata (owner, email) */
     AccountDto update(Long id, UpdateAccountRequest request);
 
+    /** Add money to an account and return its new state */
+    AccountDto deposit(Long id, BigDecimal amount);
+
+    /** Take money from an account, failing if the balance would go negative */
+    AccountDto withdraw(Long id, BigDecimal amount);
+
+    /** Atomically move money between two accounts */
+    TransferResult transfer(Long fromId, Long toId, BigDecimal amount);
+
     /** Delete an account */
     void delete(Long id);
 }
@@ -1,76 +1,412 @@
 package com.ramrk.bankingapp.service.impl;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.ramrk.bankingapp.cache.AccountCache;
+import com.ramrk.bankingapp.cache.AccountNumberFilter;
+import com.ramrk.bankingapp.config.AccountBatchProperties;
 import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.dto.AccountPage;
+import com.ramrk.bankingapp.dto.BatchCreateResponse;
+import com.ramrk.bankingapp.dto.BatchItemResult;
 import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.dto.StatementEntry;
+import com.ramrk.bankingapp.dto.StatementPage;
+import com.ramrk.bankingapp.dto.TransferResult;
 import com.ramrk.bankingapp.dto.UpdateAccountRequest;
+import com.ramrk.bankingapp.engine.BalanceEngine;
+import com.ramrk.bankingapp.exception.BadRequestException;
 import com.ramrk.bankingapp.exception.ResourceNotFoundException;
 import com.ramrk.bankingapp.model.Account;
 import com.ramrk.bankingapp.repository.AccountRepository;
+import com.ramrk.bankingapp.repository.AccountTransactionRepository;
+import com.ramrk.bankingapp.search.AccountSearchIndex;
+import com.ramrk.bankingapp.service.AccountNumberGenerator;
 import com.ramrk.bankingapp.service.AccountService;
+import com.ramrk.bankingapp.shard.AccountShards;
+import com.ramrk.bankingapp.shard.KWayMerge;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 
 @Service
 @Transactional
 public class AccountServiceImpl implements AccountService {
 
+    private static final Logger log = LoggerFactory.getLogger(AccountServiceImpl.class);
+
+    /** Upper bound for a single page so one request can never pull the whole table. */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /** Most search hits returned at once. */
+    public static final int MAX_SEARCH_RESULTS = 100;
+
+    private static final Comparator<AccountDto> BY_ID = Comparator.comparing(AccountDto::getId);
+
     private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final BalanceEngine balanceEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final AccountBatchProperties batchProperties;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final AccountNumberFilter accountNumberFilter;
+    private final AccountTransactionRepository transactionRepository;
+    private final AccountSearchIndex searchIndex;
+    private final AccountShards shards;
 
-    public AccountServiceImpl(AccountRepository accountRepository) {
+    public AccountServiceImpl(AccountRepository accountRepository, AccountCache accountCache, BalanceEngine balanceEngine,
+                              PlatformTransactionManager transactionManager, Validator validator,
+                              AccountBatchProperties batchProperties, AccountNumberGenerator accountNumberGenerator,
+                              AccountNumberFilter accountNumberFilter, AccountTransactionRepository transactionRepository,
+                              AccountSearchIndex searchIndex, AccountShards shards) {
         this.accountRepository = accountRepository;
+        this.accountCache = accountCache;
+        this.balanceEngine = balanceEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.batchProperties = batchProperties;
+        this.accountNumberGenerator = accountNumberGenerator;
+        this.accountNumberFilter = accountNumberFilter;
+        this.transactionRepository = transactionRepository;
+        this.searchIndex = searchIndex;
+        this.shards = shards;
     }
 
     /**
-     * Create a new account from the request. Generates a unique account number.
+     * Create a new account from the request. The account number comes from the
+     * configured {@link AccountNumberGenerator} and decides the shard.
      */
     @Override
     public AccountDto create(CreateAccountRequest request) {
-        Account account = Account.builder()
-                .accountNumber(generateAccountNumber())
+        Account account = newAccount(request, accountNumberGenerator.next());
+        // flushed on the shard: an id from an already reserved block needs no query, and the connection is only bound at the first statement
+        Account saved = shards.on(shards.ofNumber(account.getAccountNumber()), () -> accountRepository.saveAndFlush(account));
+        accountNumberFilter.add(saved.getAccountNumber());
+        searchIndex.put(saved.getId(), saved.getOwnerName(), saved.getEmail());
+        return toDto(saved);
+    }
+
+    private static Account newAccount(CreateAccountRequest request, String accountNumber) {
+        return Account.builder()
+                .accountNumber(accountNumber)
                 .ownerName(request.getOwnerName())
                 .email(request.getEmail())
                 .balance(request.getInitialDeposit() == null ? BigDecimal.ZERO : request.getInitialDeposit())
                 .build();
-        Account saved = accountRepository.save(account);
-        return toDto(saved);
     }
 
+    /**
+     * Validate every entry, then insert the valid ones in chunks of
+     * {@code banking.batch.chunk-size}, one transaction per chunk. Within a chunk
+     * Hibernate sends the INSERTs as JDBC batches. Sharded, a chunk commits one
+     * transaction per shard it touches. A transaction that fails to commit marks only
+     * its own entries as FAILED.
+     */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchCreateResponse createBatch(List<CreateAccountRequest> requests) {
+        if (requests.size() > batchProperties.getMaxItems()) {
+            throw new BadRequestException("At most " + batchProperties.getMaxItems() + " accounts per batch");
+        }
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<Integer> valid = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            Map<String, String> errors = validate(requests.get(i));
+            if (errors.isEmpty()) {
+                valid.add(i);
+            } else {
+                results[i] = BatchItemResult.invalid(i, errors);
+            }
+        }
+
+        int chunkSize = Math.max(1, batchProperties.getChunkSize());
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            Map<Integer, List<Integer>> byShard = new LinkedHashMap<>();
+            Map<Integer, Account> accounts = new LinkedHashMap<>();
+            for (int i : valid.subList(from, Math.min(from + chunkSize, valid.size()))) {
+                Account account = newAccount(requests.get(i), accountNumberGenerator.next());
+                accounts.put(i, account);
+                byShard.computeIfAbsent(shards.ofNumber(account.getAccountNumber()), s -> new ArrayList<>()).add(i);
+            }
+            byShard.forEach((shard, chunk) -> {
+                try {
+                    List<Account> saved = shards.on(shard, () -> transactionTemplate.execute(status -> {
+                        List<Account> rows = accountRepository.saveAll(
+                                chunk.stream().map(accounts::get).collect(Collectors.toList()));
+                        rows.forEach(a -> {
+                            accountNumberFilter.add(a.getAccountNumber());
+                            searchIndex.put(a.getId(), a.getOwnerName(), a.getEmail());
+                        });
+                        return rows;
+                    }));
+                    for (int j = 0; j < chunk.size(); j++) {
+                        results[chunk.get(j)] = BatchItemResult.created(chunk.get(j), toDto(saved.get(j)));
+                    }
+                } catch (DataAccessException | TransactionException e) {
+                    log.warn("Batch chunk of {} accounts failed: {}", chunk.size(), e.toString());
+                    chunk.forEach(i -> results[i] = BatchItemResult.failed(i, "Could not be saved, retry this entry"));
+                }
+            });
+        }
+
+        int created = (int) Arrays.stream(results).filter(r -> r.getStatus() == BatchItemResult.Status.CREATED).count();
+        return new BatchCreateResponse(created, results.length - created, List.of(results));
+    }
+
+    private Map<String, String> validate(CreateAccountRequest request) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (request == null) {
+            errors.put("request", "must not be null");
+            return errors;
+        }
+        Set<ConstraintViolation<CreateAccountRequest>> violations = validator.validate(request);
+        violations.forEach(v -> errors.put(v.getPropertyPath().toString(), v.getMessage()));
+        return errors;
+    }
+
+    /**
+     * Served from the account cache. No transaction is opened here; only a cache
+     * miss reaches the database, and it reads the primary (see {@link #loadById}).
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public AccountDto getById(Long id) {
-        Account a = accountRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Account not found"));
-        return toDto(a);
+        return accountCache.getById(id, this::loadById);
+    }
+
+    /**
+     * Numbers that fail the generator's own check, or that the {@link AccountNumberFilter}
+     * has never seen, are rejected before the cache or the database is consulted.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public AccountDto getByAccountNumber(String accountNumber) {
+        if (!accountNumberGenerator.mightExist(accountNumber) || !accountNumberFilter.mightContain(accountNumber)) {
+            throw new ResourceNotFoundException("Account not found");
+        }
+        return accountCache.getByAccountNumber(accountNumber, this::loadByAccountNumber);
+    }
+
+    /**
+     * Reads DTO projections, so the page never passes through the persistence context.
+     * Sharded, every shard is asked for the page after the cursor in parallel and the
+     * answers are merged by id.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public AccountPage getAll(Long after, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long cursor = after == null ? 0L : after;
+        // fetch one extra row to know whether another page exists without a count query
+        List<List<AccountDto>> pages = shards.readAll(shard -> accountRepository.findDtoPageAfter(cursor, Limit.of(size + 1)));
+        List<AccountDto> rows = KWayMerge.merge(pages, BY_ID, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<AccountDto> items = hasMore ? rows.subList(0, size) : rows;
+        Long nextCursor = hasMore ? items.get(items.size() - 1).getId() : null;
+        return new AccountPage(items, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<AccountDto> consumer) {
+        try (Stream<AccountDto> rows = shards.streamAll(shard -> accountRepository.streamAllOrderById(), BY_ID)) {
+            rows.forEach(consumer);
+        }
+    }
+
+    /**
+     * Ranked by the in-memory {@link AccountSearchIndex}; only the hits are then read,
+     * as projections in one query. Ids deleted since the index answered are dropped.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<AccountDto> search(String query, int limit) {
+        List<Long> ids = searchIndex.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, List<Long>> byShard = ids.stream().collect(Collectors.groupingBy(shards::ofId));
+        Map<Long, AccountDto> found = shards.readAll(shard -> byShard.containsKey(shard)
+                        ? accountRepository.findDtoByIdIn(byShard.get(shard)) : List.<AccountDto>of())
+                .stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toMap(AccountDto::getId, dto -> dto));
+        return ids.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
     }
 
+    /**
+     * Keyset page over the account's movements, read as projections from the
+     * {@code (account_id, occurred_at, id)} index. The range defaults to the month up to
+     * now. The cursor carries the timestamp and id of the last entry returned; one
+     * from before {@code from} restarts at {@code from}.
+     */
     @Override
     @Transactional(readOnly = true)
-    public List<AccountDto> getAll() {
-        return accountRepository.findAll().stream().map(this::toDto).collect(Collectors.toList());
+    public StatementPage getStatement(Long id, LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        return shards.on(shards.ofId(id), () -> statement(id, from, to, cursor, limit));
     }
 
+    private StatementPage statement(Long id, LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        LocalDateTime end = to == null ? LocalDateTime.now() : to;
+        LocalDateTime start = from == null ? end.minusMonths(1) : from;
+        if (!start.isBefore(end)) {
+            throw new BadRequestException("'from' must be before 'to'");
+        }
+        // an unknown account is a 404, not an empty statement; usually answered by the cache. A miss is
+        // checked on this read-only transaction's connection, possibly a lagging replica, so nothing is cached
+        if (accountCache.peek(id) == null && !accountRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Account not found");
+        }
+
+        LocalDateTime afterAt = start;
+        long afterId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            StatementCursor position = StatementCursor.decode(cursor);
+            if (!position.at().isBefore(start)) {
+                afterAt = position.at();
+                afterId = position.id();
+            }
+        }
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<StatementEntry> rows = transactionRepository.findStatementPage(id, afterAt, afterId, end, Limit.of(size + 1));
+        boolean hasMore = rows.size() > size;
+        List<StatementEntry> items = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            StatementEntry last = items.get(items.size() - 1);
+            nextCursor = new StatementCursor(last.getOccurredAt(), last.getId()).encode();
+        }
+        return new StatementPage(id, start, end, items, nextCursor);
+    }
+
+    /** Position after a statement entry, handed to clients as an opaque URL-safe token. */
+    private record StatementCursor(LocalDateTime at, long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString((at + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static StatementCursor decode(String token) {
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = value.indexOf('|');
+                return new StatementCursor(LocalDateTime.parse(value.substring(0, separator)),
+                        Long.parseLong(value.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new BadRequestException("Invalid statement cursor");
+            }
+        }
+    }
+
+    /**
+     * One UPDATE statement; no entity is loaded. The returned state is a projection
+     * read of the updated row in the same transaction, so it is exactly what was stored.
+     */
     @Override
     public AccountDto update(Long id, UpdateAccountRequest request) {
-        Account a = accountRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Account not found"));
-        a.setOwnerName(request.getOwnerName());
-        a.setEmail(request.getEmail());
-        Account updated = accountRepository.save(a);
+        return shards.on(shards.ofId(id), () -> updateDetails(id, request));
+    }
+
+    private AccountDto updateDetails(Long id, UpdateAccountRequest request) {
+        // same precision as @PreUpdate, which is what the column keeps
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (accountRepository.updateDetails(id, request.getOwnerName(), request.getEmail(), now) == 0) {
+            throw new ResourceNotFoundException("Account not found");
+        }
+        AccountDto updated = loadById(id);
+        accountCache.evict(id);
+        searchIndex.put(id, request.getOwnerName(), request.getEmail());
+        return updated;
+    }
+
+    /**
+     * Balance changes run in the engine's own (retried) transactions, so the caller
+     * must not hold a transaction, and with it a pooled connection, while it waits.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AccountDto deposit(Long id, BigDecimal amount) {
+        Account updated = balanceEngine.deposit(id, amount);
+        accountCache.evict(id);
         return toDto(updated);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AccountDto withdraw(Long id, BigDecimal amount) {
+        Account updated = balanceEngine.withdraw(id, amount);
+        accountCache.evict(id);
+        return toDto(updated);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TransferResult transfer(Long fromId, Long toId, BigDecimal amount) {
+        BalanceEngine.Transfer transfer = balanceEngine.transfer(fromId, toId, amount);
+        accountCache.evict(fromId);
+        accountCache.evict(toId);
+        return new TransferResult(toDto(transfer.from()), toDto(transfer.to()), amount);
+    }
+
+    /** One DELETE statement; a zero row count means the account never existed. */
     @Override
     public void delete(Long id) {
-        Account a = accountRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Account not found"));
-        accountRepository.delete(a);
+        if (shards.on(shards.ofId(id), () -> accountRepository.deleteAccountById(id)) == 0) {
+            throw new ResourceNotFoundException("Account not found");
+        }
+        accountCache.evict(id);
+        accountNumberFilter.removed();
+        searchIndex.remove(id);
+    }
+
+    /**
+     * Cache-miss loads read a DTO projection; no entity is materialized. They run in a
+     * read-write transaction so they reach the primary: the miss often follows the
+     * eviction of a write a replica has not applied yet, and the stale row would then
+     * be cached in both tiers.
+     */
+    private AccountDto loadById(Long id) {
+        return shards.on(shards.ofId(id), () -> transactionTemplate.execute(status -> accountRepository.findDtoById(id)))
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
     }
 
-    private AccountDto toDto(Account a) {
+    private AccountDto loadByAccountNumber(String accountNumber) {
+        return shards.on(shards.ofNumber(accountNumber),
+                        () -> transactionTemplate.execute(status -> accountRepository.findDtoByAccountNumber(accountNumber)))
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+    }
+
+    /** Entity-to-DTO mapping shared by every read and write path. */
+    public static AccountDto toDto(Account a) {
         return AccountDto.builder()
                 .id(a.getId())
                 .accountNumber(a.getAccountNumber())
@@ -81,9 +417,4 @@ public class AccountServiceImpl implements AccountService {
                 .updatedAt(a.getUpdatedAt())
                 .build();
     }
-
-    private String generateAccountNumber() {
-        // simple unique account number
-        return UUID.randomUUID().toString().replace("-", "").substring(0, 18).toUpperCase();
-    }
 }
@@ -0,0 +1,182 @@
+package com.ramrk.bankingapp.service.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+
+import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.dto.AccountPage;
+import com.ramrk.bankingapp.dto.BatchCreateResponse;
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.dto.StatementPage;
+import com.ramrk.bankingapp.dto.TransferResult;
+import com.ramrk.bankingapp.dto.UpdateAccountRequest;
+import com.ramrk.bankingapp.exception.BadRequestException;
+import com.ramrk.bankingapp.exception.InsufficientFundsException;
+import com.ramrk.bankingapp.exception.ResourceNotFoundException;
+import com.ramrk.bankingapp.service.AccountService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every {@link AccountService} call as {@code banking.account.service}, tagged
+ * with the method and its outcome, and counts failed calls by reason in
+ * {@code banking.account.failures}. Percentile histograms and SLO buckets for the
+ * timer come from {@code management.metrics.distribution.*}.
+ * <p>
+ * Sits in front of the transactional {@link AccountServiceImpl}, so the time
+ * includes waiting for a connection, SQL and commit, but not JSON rendering.
+ */
+@Service
+@Primary
+public class InstrumentedAccountService implements AccountService {
+
+    static final String TIMER = "banking.account.service";
+    static final String FAILURES = "banking.account.failures";
+
+    private final AccountService delegate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> failures = new ConcurrentHashMap<>();
+
+    public InstrumentedAccountService(AccountServiceImpl delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public AccountDto create(CreateAccountRequest request) {
+        return timed("create", () -> delegate.create(request));
+    }
+
+    @Override
+    public BatchCreateResponse createBatch(List<CreateAccountRequest> requests) {
+        BatchCreateResponse response = timed("createBatch", () -> delegate.createBatch(requests));
+        response.getResults().forEach(r -> {
+            switch (r.getStatus()) {
+                case INVALID -> failure("createBatch", "validation").increment();
+                case FAILED -> failure("createBatch", "error").increment();
+                default -> { }
+            }
+        });
+        return response;
+    }
+
+    @Override
+    public AccountDto getById(Long id) {
+        return timed("getById", () -> delegate.getById(id));
+    }
+
+    @Override
+    public AccountDto getByAccountNumber(String accountNumber) {
+        return timed("getByAccountNumber", () -> delegate.getByAccountNumber(accountNumber));
+    }
+
+    @Override
+    public AccountPage getAll(Long after, int limit) {
+        return timed("getAll", () -> delegate.getAll(after, limit));
+    }
+
+    @Override
+    public List<AccountDto> search(String query, int limit) {
+        return timed("search", () -> delegate.search(query, limit));
+    }
+
+    @Override
+    public StatementPage getStatement(Long id, LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        return timed("getStatement", () -> delegate.getStatement(id, from, to, cursor, limit));
+    }
+
+    @Override
+    public void streamAll(Consumer<AccountDto> consumer) {
+        timed("streamAll", () -> {
+            delegate.streamAll(consumer);
+            return null;
+        });
+    }
+
+    @Override
+    public AccountDto update(Long id, UpdateAccountRequest request) {
+        return timed("update", () -> delegate.update(id, request));
+    }
+
+    @Override
+    public AccountDto deposit(Long id, BigDecimal amount) {
+        return timed("deposit", () -> delegate.deposit(id, amount));
+    }
+
+    @Override
+    public AccountDto withdraw(Long id, BigDecimal amount) {
+        return timed("withdraw", () -> delegate.withdraw(id, amount));
+    }
+
+    @Override
+    public TransferResult transfer(Long fromId, Long toId, BigDecimal amount) {
+        return timed("transfer", () -> delegate.transfer(fromId, toId, amount));
+    }
+
+    @Override
+    public void delete(Long id) {
+        timed("delete", () -> {
+            delegate.delete(id);
+            return null;
+        });
+    }
+
+    private <T> T timed(String method, Supplier<T> call) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            outcome = outcome(e);
+            failure(method, outcome).increment();
+            throw e;
+        } finally {
+            timer(method, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String outcome(RuntimeException e) {
+        if (e instanceof ResourceNotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof BadRequestException) {
+            return "validation";
+        }
+        if (e instanceof InsufficientFundsException) {
+            return "insufficient_funds";
+        }
+        if (e instanceof ConcurrencyFailureException) {
+            return "conflict";
+        }
+        return "error";
+    }
+
+    private Timer timer(String method, String outcome) {
+        return timers.computeIfAbsent(method + '|' + outcome, k -> Timer.builder(TIMER)
+                .description("AccountService call latency")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private Counter failure(String method, String reason) {
+        return failures.computeIfAbsent(method + '|' + reason, k -> Counter.builder(FAILURES)
+                .description("AccountService calls and batch entries that did not succeed")
+                .tag("method", method)
+                .tag("reason", reason)
+                .register(meterRegistry));
+    }
+}
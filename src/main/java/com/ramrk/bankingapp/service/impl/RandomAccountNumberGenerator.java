@@ -0,0 +1,23 @@
+package com.ramrk.bankingapp.service.impl;
+
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.ramrk.bankingapp.service.AccountNumberGenerator;
+
+/**
+ * The original scheme: 18 hex characters of a random UUID. Every call goes through
+ * the shared SecureRandom, values scatter across the account_number index and
+ * uniqueness is only probabilistic. Kept for comparison and as a fallback.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.account-number.generator", havingValue = "random")
+public class RandomAccountNumberGenerator implements AccountNumberGenerator {
+
+    @Override
+    public String next() {
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 18).toUpperCase();
+    }
+}
@@ -0,0 +1,144 @@
+package com.ramrk.bankingapp.service.impl;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.ramrk.bankingapp.service.AccountNumberGenerator;
+
+/**
+ * Time-ordered, 19-digit account numbers: {@code TTTTTTTTTTTTTTTT NN C}.
+ * <ul>
+ * <li>{@code T}: 16 digits of (milliseconds since 2024-01-01 &lt;&lt; 12) plus a sequence,
+ * so values grow with time and new rows land at the right edge of the unique index</li>
+ * <li>{@code N}: the node id (00-99), so nodes never hand out the same number</li>
+ * <li>{@code C}: a Luhn check digit over the first 18 digits, catching typos</li>
+ * </ul>
+ * Each platform thread reserves a small block of sequence values with one CAS on a
+ * shared counter and then hands them out from thread-local state, so the hot path
+ * takes no lock and rarely touches shared memory. A virtual thread usually serves a
+ * single request and would throw most of its block away, pushing the counter ahead
+ * of the clock; it reserves one value per CAS instead. Numbers are strictly increasing per thread
+ * and roughly time-ordered across threads. The counter never goes backwards; above
+ * 4096 numbers per millisecond it runs ahead of the clock instead of repeating, so a
+ * restart is only safe once the wall clock has passed the last value handed out.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.account-number.generator", havingValue = "time-ordered", matchIfMissing = true)
+public class TimeOrderedAccountNumberGenerator implements AccountNumberGenerator {
+
+    /** Custom epoch keeps the time component within 16 decimal digits for ~69 years */
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int SEQUENCE_BITS = 12;
+    static final int BLOCK_SIZE = 16;
+    public static final int LENGTH = 19;
+
+    private final int nodeId;
+    private final LongSupplier clock;
+    private final AtomicLong counter = new AtomicLong();
+    /** [next, end) of the block this thread reserved */
+    private final ThreadLocal<long[]> block = ThreadLocal.withInitial(() -> new long[2]);
+
+    @Autowired
+    public TimeOrderedAccountNumberGenerator(@Value("${banking.node-id:0}") int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    public TimeOrderedAccountNumberGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > 99) {
+            throw new IllegalArgumentException("banking.node-id must be between 0 and 99");
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    @Override
+    public String next() {
+        if (Thread.currentThread().isVirtual()) {
+            return format(reserve(1));
+        }
+        long[] range = block.get();
+        if (range[0] == range[1]) {
+            range[0] = reserve(BLOCK_SIZE);
+            range[1] = range[0] + BLOCK_SIZE;
+        }
+        return format(range[0]++);
+    }
+
+    private long reserve(int size) {
+        long floor = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        while (true) {
+            long current = counter.get();
+            long start = Math.max(current, floor);
+            if (counter.compareAndSet(current, start + size)) {
+                return start;
+            }
+        }
+    }
+
+    private String format(long sequence) {
+        char[] digits = new char[LENGTH];
+        long value = sequence;
+        for (int i = 15; i >= 0; i--) {
+            digits[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        digits[16] = (char) ('0' + nodeId / 10);
+        digits[17] = (char) ('0' + nodeId % 10);
+        digits[18] = (char) ('0' + luhnCheckDigit(digits, 18));
+        return new String(digits);
+    }
+
+    /**
+     * A 19-digit number with the wrong check digit is a typo; any other shape may come
+     * from an earlier generator and is left to the lookup.
+     */
+    @Override
+    public boolean mightExist(String accountNumber) {
+        return !hasShape(accountNumber) || isWellFormed(accountNumber);
+    }
+
+    /** True if the number has the expected shape and its Luhn check digit matches. */
+    public static boolean isWellFormed(String accountNumber) {
+        if (!hasShape(accountNumber)) {
+            return false;
+        }
+        char[] digits = accountNumber.toCharArray();
+        return digits[LENGTH - 1] - '0' == luhnCheckDigit(digits, LENGTH - 1);
+    }
+
+    private static boolean hasShape(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() != LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            char c = accountNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int luhnCheckDigit(char[] digits, int length) {
+        int sum = 0;
+        boolean doubleIt = true;
+        for (int i = length - 1; i >= 0; i--) {
+            int d = digits[i] - '0';
+            if (doubleIt) {
+                d *= 2;
+                if (d > 9) {
+                    d -= 9;
+                }
+            }
+            sum += d;
+            doubleIt = !doubleIt;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
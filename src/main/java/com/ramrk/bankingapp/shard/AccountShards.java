@@ -0,0 +1,197 @@
+package com.ramrk.bankingapp.shard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ramrk.bankingapp.config.ShardingProperties;
+import com.ramrk.bankingapp.exception.ResourceNotFoundException;
+import com.ramrk.bankingapp.service.AccountNumberGenerator;
+
+/**
+ * Where accounts live when {@code banking.sharding.shards} is set, and the means to
+ * run work there. An account is placed on shard {@code hash(account number) mod N}
+ * and its id carries that shard in the low {@value #SHARD_BITS} bits, so a lookup by
+ * either goes straight to one shard. Reads over all accounts go to every shard in
+ * parallel and are merged by id.
+ * <p>
+ * Without sharding there is one shard, 0, and every method runs its work in place, so
+ * callers need no separate code path.
+ */
+@Component
+public class AccountShards {
+
+    /** Low id bits holding the shard. */
+    public static final int SHARD_BITS = 6;
+
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+
+    /** Rows buffered per shard while a merged stream is read. */
+    private static final int STREAM_BUFFER = 1024;
+
+    private final int count;
+    private final boolean sharded;
+    private final TransactionTemplate readOnly;
+
+    public AccountShards(ShardingProperties properties, PlatformTransactionManager transactionManager) {
+        int configured = properties.getShards().size();
+        if (configured > MAX_SHARDS) {
+            throw new IllegalStateException("At most " + MAX_SHARDS + " shards are supported, " + configured + " configured");
+        }
+        this.count = Math.max(1, configured);
+        this.sharded = configured > 0;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    /** Id for a sequence value drawn on {@code shard}. */
+    public static long id(long sequenceValue, int shard) {
+        return sequenceValue << SHARD_BITS | shard;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean isSharded() {
+        return sharded;
+    }
+
+    /** Shard of the account with this id; an id naming no configured shard cannot exist. */
+    public int ofId(long id) {
+        if (!sharded) {
+            return 0;
+        }
+        int shard = (int) (id & (MAX_SHARDS - 1));
+        if (shard >= count) {
+            throw new ResourceNotFoundException("Account not found");
+        }
+        return shard;
+    }
+
+    /** Shard an account with this number is (or would be) placed on. */
+    public int ofNumber(String accountNumber) {
+        if (!sharded) {
+            return 0;
+        }
+        // numbers issued one after the other differ only in their last digits; mix before reducing
+        return Math.floorMod(Long.hashCode(accountNumber.hashCode() * 0x9E3779B97F4A7C15L), count);
+    }
+
+    /** A fresh number that places its account on {@code shard}; N draws on average. */
+    public String numberOn(int shard, AccountNumberGenerator generator) {
+        String number = generator.next();
+        while (ofNumber(number) != shard) {
+            number = generator.next();
+        }
+        return number;
+    }
+
+    /**
+     * Run {@code work} with its connections on {@code shard}. A transaction must either
+     * start inside or, if already open, not have run a statement yet: its connection is
+     * bound at the first one.
+     */
+    public <T> T on(int shard, Supplier<T> work) {
+        if (!sharded) {
+            return work.get();
+        }
+        Integer previous = ShardContext.bind(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.bind(previous);
+        }
+    }
+
+    public void run(int shard, Runnable work) {
+        on(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /** Run {@code work} on every shard in turn. */
+    public void forEach(IntConsumer work) {
+        for (int shard = 0; shard < count; shard++) {
+            int s = shard;
+            run(s, () -> work.accept(s));
+        }
+    }
+
+    /**
+     * Run {@code read} on every shard in parallel, each in its own read-only transaction,
+     * and return the results in shard order. Unsharded it runs on the calling thread and
+     * joins the caller's transaction.
+     */
+    public <T> List<T> readAll(IntFunction<T> read) {
+        if (!sharded) {
+            return Collections.singletonList(readOnly.execute(status -> read.apply(0)));
+        }
+        List<Future<T>> results = new ArrayList<>(count);
+        try (ExecutorService scatter = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int shard = 0; shard < count; shard++) {
+                int s = shard;
+                results.add(scatter.submit(() -> on(s, () -> readOnly.execute(status -> read.apply(s)))));
+            }
+        }
+        List<T> gathered = new ArrayList<>(count);
+        for (Future<T> result : results) {
+            try {
+                gathered.add(result.get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while gathering shard results", e);
+            }
+        }
+        return gathered;
+    }
+
+    /**
+     * The rows of {@code source} on every shard, each sorted by {@code order}, as one
+     * stream in that order. Sharded, every shard is read on its own thread in its own
+     * read-only transaction; unsharded, {@code source} is simply called and the caller
+     * must hold the transaction. Close the stream to stop the reads.
+     */
+    public <T> Stream<T> streamAll(IntFunction<Stream<T>> source, Comparator<? super T> order) {
+        if (!sharded) {
+            return source.apply(0);
+        }
+        KWayMerge.Streaming<T> merge = new KWayMerge.Streaming<>(count, STREAM_BUFFER, order);
+        for (int shard = 0; shard < count; shard++) {
+            int s = shard;
+            Thread.ofVirtual().name("shard-stream-" + s).start(() -> {
+                try {
+                    run(s, () -> readOnly.executeWithoutResult(status -> {
+                        try (Stream<T> rows = source.apply(s)) {
+                            rows.forEach(row -> merge.put(s, row));
+                        }
+                    }));
+                    merge.done(s);
+                } catch (RuntimeException e) {
+                    merge.failed(s, e);
+                }
+            });
+        }
+        return StreamSupport.stream(merge, false).onClose(merge::cancel);
+    }
+}
@@ -0,0 +1,159 @@
+package com.ramrk.bankingapp.shard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Merges per-shard results that are each sorted by the same order into one sorted
+ * result, holding only the head of every input in a heap: O(n log k) for k shards.
+ */
+public final class KWayMerge {
+
+    private KWayMerge() {
+    }
+
+    /** The first {@code limit} elements of the merged lists. */
+    public static <T> List<T> merge(List<? extends List<T>> sorted, Comparator<? super T> order, int limit) {
+        if (sorted.size() == 1) {
+            List<T> only = sorted.get(0);
+            return only.size() > limit ? only.subList(0, limit) : only;
+        }
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(Math.max(1, sorted.size()), (a, b) -> order.compare(a.value, b.value));
+        for (int i = 0; i < sorted.size(); i++) {
+            if (!sorted.get(i).isEmpty()) {
+                heads.add(new Head<>(sorted.get(i).get(0), i, 0));
+            }
+        }
+        List<T> merged = new ArrayList<>(limit);
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head<T> head = heads.poll();
+            merged.add(head.value);
+            List<T> source = sorted.get(head.source);
+            if (head.position + 1 < source.size()) {
+                heads.add(new Head<>(source.get(head.position + 1), head.source, head.position + 1));
+            }
+        }
+        return merged;
+    }
+
+    private record Head<T>(T value, int source, int position) {
+    }
+
+    /**
+     * Streaming variant: one producer per input pushes its rows into a bounded queue
+     * (so a slow consumer holds back the reads instead of buffering the table) and the
+     * consumer pulls the merged rows. Producers call {@link #put}, then {@link #done}
+     * or {@link #failed}; the consumer calls {@link #cancel} when it stops early.
+     */
+    static final class Streaming<T> implements Spliterator<T> {
+
+        private static final Object END = new Object();
+
+        private final List<BlockingQueue<Object>> queues = new ArrayList<>();
+        private final Comparator<? super T> order;
+        private PriorityQueue<Head<T>> heads;
+        private volatile boolean cancelled;
+
+        Streaming(int inputs, int buffer, Comparator<? super T> order) {
+            for (int i = 0; i < inputs; i++) {
+                queues.add(new ArrayBlockingQueue<>(buffer));
+            }
+            this.order = order;
+        }
+
+        /** Throws {@link CancellationException} once the consumer has gone, to stop the read. */
+        void put(int input, T row) {
+            if (!offer(input, row)) {
+                throw new CancellationException("Merged stream was closed");
+            }
+        }
+
+        void done(int input) {
+            offer(input, END);
+        }
+
+        void failed(int input, RuntimeException failure) {
+            offer(input, new Failure(failure));
+        }
+
+        void cancel() {
+            cancelled = true;
+            queues.forEach(BlockingQueue::clear);
+        }
+
+        /** False if the consumer went away before the item could be queued. */
+        private boolean offer(int input, Object item) {
+            try {
+                while (!queues.get(input).offer(item, 100, TimeUnit.MILLISECONDS)) {
+                    if (cancelled) {
+                        return false;
+                    }
+                }
+                return !cancelled;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (heads == null) {
+                heads = new PriorityQueue<>(queues.size(), (a, b) -> order.compare(a.value, b.value));
+                for (int i = 0; i < queues.size(); i++) {
+                    pull(i);
+                }
+            }
+            Head<T> head = heads.poll();
+            if (head == null) {
+                return false;
+            }
+            action.accept(head.value);
+            pull(head.source);
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void pull(int input) {
+            Object item;
+            try {
+                item = queues.get(input).take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while merging shards");
+            }
+            if (item instanceof Failure failure) {
+                throw failure.cause;
+            }
+            if (item != END) {
+                heads.add(new Head<>((T) item, input, 0));
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+
+        private record Failure(RuntimeException cause) {
+        }
+    }
+}
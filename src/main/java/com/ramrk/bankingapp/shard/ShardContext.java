@@ -0,0 +1,30 @@
+package com.ramrk.bankingapp.shard;
+
+/**
+ * The shard the current thread works on, bound by {@link AccountShards#on}. Read by
+ * the {@link ShardRoutingDataSource} when a connection is fetched and by the
+ * {@link ShardedSequenceGenerator} when an id is drawn. Unbound means shard 0.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /** The shard bound to this thread, or null. */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /** Bind {@code shard} (null unbinds) and return what was bound before, to be restored afterwards. */
+    static Integer bind(Integer shard) {
+        Integer previous = CURRENT.get();
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+        return previous;
+    }
+}
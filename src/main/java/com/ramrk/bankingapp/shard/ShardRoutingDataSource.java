@@ -0,0 +1,61 @@
+package com.ramrk.bankingapp.shard;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections of the shard bound in {@link ShardContext}, shard 0 when none
+ * is. Transaction managers fetch their connection before any code of the transaction
+ * runs, so this must sit behind a {@code LazyConnectionDataSourceProxy}: the shard is
+ * then picked at the first statement.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRoutingDataSource.class);
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        // a shard that is not in the map is a bug, never a reason to write to shard 0
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        return shard == null ? 0 : shard;
+    }
+
+    /** The shard pools, by shard number. */
+    public List<DataSource> getShards() {
+        return shards;
+    }
+
+    @Override
+    public void destroy() {
+        for (int i = 0; i < shards.size(); i++) {
+            if (shards.get(i) instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Closing shard {} failed", i, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.ramrk.bankingapp.shard;
+
+import java.sql.ResultSet;
+import java.util.Locale;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.relational.SchemaManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Applies {@code spring.jpa.hibernate.ddl-auto} to shards 1 and up once the session
+ * factory exists; Hibernate's own schema action only reaches shard 0. {@code create}
+ * and {@code create-drop} recreate the mapped tables and sequences, {@code validate}
+ * validates them and {@code update} creates them on a shard that has no accounts
+ * table yet. Later mapping changes have to be migrated on every shard.
+ */
+public class ShardSchemaExporter implements SessionFactoryObserver {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardSchemaExporter.class);
+
+    private final int shards;
+
+    public ShardSchemaExporter(int shards) {
+        this.shards = shards;
+    }
+
+    @Override
+    public void sessionFactoryCreated(SessionFactory factory) {
+        String action = action(factory);
+        SchemaManager schema = factory.getSchemaManager();
+        for (int shard = 1; shard < shards; shard++) {
+            Integer previous = ShardContext.bind(shard);
+            try {
+                switch (action) {
+                    case "create", "create-drop" -> {
+                        schema.dropMappedObjects(false);
+                        schema.exportMappedObjects(false);
+                    }
+                    case "create-only" -> schema.exportMappedObjects(false);
+                    case "validate" -> schema.validateMappedObjects();
+                    case "update" -> {
+                        if (!hasAccountsTable(factory)) {
+                            log.info("Creating the schema on shard {}", shard);
+                            schema.exportMappedObjects(false);
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            } finally {
+                ShardContext.bind(previous);
+            }
+        }
+    }
+
+    @Override
+    public void sessionFactoryClosing(SessionFactory factory) {
+        if (action(factory).equals("create-drop")) {
+            for (int shard = 1; shard < shards; shard++) {
+                Integer previous = ShardContext.bind(shard);
+                try {
+                    factory.getSchemaManager().dropMappedObjects(false);
+                } finally {
+                    ShardContext.bind(previous);
+                }
+            }
+        }
+    }
+
+    private static String action(SessionFactory factory) {
+        Object action = factory.getProperties().get(AvailableSettings.HBM2DDL_AUTO);
+        return action == null ? "none" : action.toString().trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean hasAccountsTable(SessionFactory factory) {
+        return factory.fromSession(session -> session.doReturningWork(connection -> {
+            try (ResultSet tables = connection.getMetaData().getTables(connection.getCatalog(), null, "%", new String[] {"TABLE"})) {
+                while (tables.next()) {
+                    if (tables.getString("TABLE_NAME").equalsIgnoreCase("accounts")) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }));
+    }
+}
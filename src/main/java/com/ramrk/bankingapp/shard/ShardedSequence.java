@@ -0,0 +1,24 @@
+package com.ramrk.bankingapp.shard;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Ids from a pooled sequence with the shard they are drawn on in the low bits; see
+ * {@link ShardedSequenceGenerator}.
+ */
+@IdGeneratorType(ShardedSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface ShardedSequence {
+
+    /** Sequence (a table where the database has none) every shard keeps its own copy of. */
+    String sequenceName();
+
+    /** Values reserved per round trip, as in {@code @SequenceGenerator}. */
+    int allocationSize() default 50;
+}
@@ -0,0 +1,62 @@
+package com.ramrk.bankingapp.shard;
+
+import java.lang.reflect.Member;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.AnnotationBasedGenerator;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.OptimizerDescriptor;
+import org.hibernate.id.enhanced.OptimizerFactory;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+/**
+ * A pooled sequence generator that, inside {@link AccountShards#on}, reads the bound
+ * shard's copy of the sequence and returns {@link AccountShards#id(long, int)}: the
+ * value with the shard number in its low bits. Each shard gets its own optimizer, so
+ * a block reserved on one shard is never handed out for another. Without a bound
+ * shard (no sharding configured) it behaves exactly like {@code @SequenceGenerator}.
+ */
+public class ShardedSequenceGenerator extends SequenceStyleGenerator implements AnnotationBasedGenerator<ShardedSequence> {
+
+    private ShardedSequence config;
+    private OptimizerDescriptor optimizerDescriptor;
+    private final Map<Integer, Optimizer> optimizers = new ConcurrentHashMap<>();
+
+    @Override
+    public void initialize(ShardedSequence annotation, Member member, GeneratorCreationContext context) {
+        this.config = annotation;
+    }
+
+    @Override
+    public void configure(GeneratorCreationContext context, Properties parameters) throws MappingException {
+        parameters.setProperty(SEQUENCE_PARAM, config.sequenceName());
+        parameters.setProperty(OptimizableGenerator.INCREMENT_PARAM, Integer.toString(config.allocationSize()));
+        parameters.setProperty(OptimizableGenerator.INITIAL_PARAM, "1");
+        super.configure(context, parameters);
+    }
+
+    @Override
+    protected OptimizerDescriptor determineOptimizationStrategy(Properties params, int incrementSize) {
+        optimizerDescriptor = super.determineOptimizationStrategy(params, incrementSize);
+        return optimizerDescriptor;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner) {
+        Integer shard = ShardContext.current();
+        if (shard == null) {
+            return super.generate(session, owner);
+        }
+        Optimizer optimizer = optimizers.computeIfAbsent(shard, s -> OptimizerFactory.buildOptimizer(
+                optimizerDescriptor, Long.class, getOptimizer().getIncrementSize(), getDatabaseStructure().getInitialValue()));
+        // the callback runs the sequence query on the session's connection, which is the bound shard's
+        Number value = (Number) optimizer.generate(getDatabaseStructure().buildCallback(session));
+        return AccountShards.id(value.longValue(), shard);
+    }
+}
@@ -0,0 +1,125 @@
+package com.ramrk.bankingapp.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Concurrency limit that adapts to observed latency (additive increase,
+ * multiplicative decrease). Requests that finish within the latency threshold while
+ * the limit was actually being used grow it by about one per round trip (1/limit
+ * each, as in TCP congestion avoidance); a slow or
+ * overloaded one shrinks it by the backoff ratio, at most once per round trip:
+ * requests admitted before the last cut already ran under the higher limit, so
+ * their slowness is not counted again.
+ * <p>
+ * Lower priorities may only use part of the limit, so as it shrinks they are
+ * rejected first and the remaining capacity goes to more important requests.
+ */
+public class AimdLimiter {
+
+    /** Share of the limit each class of request may occupy. */
+    public enum Priority {
+        CRITICAL(1.0), NORMAL(0.9), SHEDDABLE(0.75);
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /** Fractional limit, so increases of less than one request accumulate. */
+    private double estimate;
+    private volatile int limit;
+    /** Only meaningful once {@code decreased} is set; nanoTime values may be negative, so there is no safe "never" value. */
+    private long lastDecreaseNanos;
+    private boolean decreased;
+    private final Counter decreases;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdNanos,
+                       MeterRegistry meterRegistry) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.estimate = limit;
+        Gauge.builder("banking.load-shedding.limit", this, AimdLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("banking.load-shedding.in-flight", this, AimdLimiter::getInFlight)
+                .description("Requests currently admitted")
+                .register(meterRegistry);
+        this.decreases = Counter.builder("banking.load-shedding.decreases")
+                .description("Times the limit was cut after a slow or overloaded request")
+                .register(meterRegistry);
+    }
+
+    /** Admit a request of the given priority, or return false if it must be rejected. */
+    public boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release an admitted request and adjust the limit from its latency.
+     * {@code overloaded} marks a request that failed because a downstream resource was exhausted.
+     */
+    public void release(long latencyNanos, boolean overloaded) {
+        int current = inFlight.getAndDecrement();
+        if (overloaded || latencyNanos > latencyThresholdNanos) {
+            decrease(System.nanoTime() - latencyNanos);
+        } else if (current * 2 >= limit) {
+            // only grow when the limit is being used, not while traffic is light
+            increase();
+        }
+    }
+
+    /** Release an admitted request without using it as a latency sample. */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void increase() {
+        estimate = Math.min(maxLimit, estimate + 1.0 / estimate);
+        limit = (int) estimate;
+    }
+
+    private synchronized void decrease(long startedNanos) {
+        if (decreased && startedNanos - lastDecreaseNanos < 0) {
+            return;
+        }
+        decreased = true;
+        lastDecreaseNanos = System.nanoTime();
+        double reduced = Math.max(minLimit, estimate * backoffRatio);
+        if (reduced < estimate) {
+            estimate = reduced;
+            limit = (int) reduced;
+            decreases.increment();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,172 @@
+package com.ramrk.bankingapp.web;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.ramrk.bankingapp.exception.ProblemResponses;
+import com.ramrk.bankingapp.idempotency.IdempotencyInProgressException;
+import com.ramrk.bankingapp.idempotency.IdempotencyStore;
+import com.ramrk.bankingapp.idempotency.StoredResponse;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Makes POST, PUT and DELETE requests that carry an {@code Idempotency-Key} header
+ * safe to retry: the first request with a key runs, and every later (or concurrent)
+ * request with the same key, method and path gets the first one's status, headers
+ * and body, marked with {@code Idempotent-Replayed: true}.
+ * <p>
+ * Reusing a key with a different request body is rejected with 422; a key whose
+ * original request is still running elsewhere gets 409 with {@code Retry-After}.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+
+    public IdempotencyFilter(IdempotencyStore store) {
+        this.store = store;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("POST".equals(method) || "PUT".equals(method) || "DELETE".equals(method))
+                || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            ProblemResponses.write(response, HttpStatus.BAD_REQUEST, HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        String fingerprint = fingerprint(request.getQueryString(), body);
+        HttpServletRequest replayable = new CachedBodyRequest(request, body);
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+
+        IdempotencyStore.Outcome outcome;
+        try {
+            outcome = store.execute(request.getMethod() + ' ' + request.getRequestURI() + ' ' + key, () -> {
+                chain.doFilter(replayable, captured);
+                return new StoredResponse(captured.getStatus(), captured.getContentType(),
+                        captured.getHeader(HttpHeaders.LOCATION), fingerprint, captured.getContentAsByteArray());
+            });
+        } catch (IdempotencyInProgressException e) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            ProblemResponses.write(response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is still in progress");
+            return;
+        } catch (ServletException | IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+
+        if (!outcome.replayed()) {
+            captured.copyBodyToResponse();
+            return;
+        }
+        StoredResponse stored = outcome.response();
+        if (!stored.fingerprint().equals(fingerprint)) {
+            ProblemResponses.write(response, HttpStatus.UNPROCESSABLE_CONTENT, HEADER + " was already used with a different request body");
+            return;
+        }
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static String fingerprint(String query, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (query != null) {
+                digest.update(query.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0);
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Serves the already-read body again to the rest of the chain. */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
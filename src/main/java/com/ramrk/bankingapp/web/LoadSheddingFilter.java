@@ -0,0 +1,102 @@
+package com.ramrk.bankingapp.web;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.ramrk.bankingapp.exception.ProblemResponses;
+import com.ramrk.bankingapp.web.AimdLimiter.Priority;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admits {@code /api} requests through an {@link AimdLimiter} and rejects the rest
+ * straight away with 503 and {@code Retry-After}, so a spike is shed at the door
+ * instead of queuing for the connection pool until everything times out.
+ * <p>
+ * Each request is classified by the configured endpoint lists; otherwise GET is
+ * sheddable and every other method is normal priority. A 503 produced further in
+ * (no database connection available) counts as overload for the limit.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private record Rule(String method, PathPattern pattern, Priority priority) {
+    }
+
+    private final AimdLimiter limiter;
+    private final List<Rule> rules = new ArrayList<>();
+    private final String retryAfterSeconds;
+    private final MeterRegistry meterRegistry;
+    private final Map<Priority, Counter> rejected = new ConcurrentHashMap<>();
+
+    public LoadSheddingFilter(AimdLimiter limiter, List<String> criticalEndpoints, List<String> sheddableEndpoints,
+                              Duration retryAfter, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        criticalEndpoints.forEach(e -> rules.add(rule(e, Priority.CRITICAL)));
+        sheddableEndpoints.forEach(e -> rules.add(rule(e, Priority.SHEDDABLE)));
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        this.meterRegistry = meterRegistry;
+    }
+
+    private static Rule rule(String endpoint, Priority priority) {
+        String[] parts = endpoint.trim().split("\\s+", 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Endpoint must be \"METHOD /path\": " + endpoint);
+        }
+        return new Rule(parts[0].toUpperCase(), PathPatternParser.defaultInstance.parse(parts[1]), priority);
+    }
+
+    Priority classify(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (Rule rule : rules) {
+            if (rule.method().equals(request.getMethod()) && rule.pattern().matches(path)) {
+                return rule.priority();
+            }
+        }
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()) ? Priority.SHEDDABLE : Priority.NORMAL;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Priority priority = classify(request);
+        if (!limiter.tryAcquire(priority)) {
+            rejected.computeIfAbsent(priority, p -> Counter.builder("banking.load-shedding.rejected")
+                    .description("Requests rejected over the adaptive concurrency limit")
+                    .tag("priority", p.name().toLowerCase())
+                    .register(meterRegistry)).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            ProblemResponses.write(response, HttpStatus.SERVICE_UNAVAILABLE, "Service is busy, please retry");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean sampled = false;
+        try {
+            chain.doFilter(request, response);
+            if (!request.isAsyncStarted()) {
+                sampled = true;
+                limiter.release(System.nanoTime() - start, response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value());
+            }
+        } finally {
+            if (!sampled) {
+                // failed, or a streaming response still being written: its latency says nothing about capacity
+                limiter.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.ramrk.bankingapp.web;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import com.ramrk.bankingapp.jdbc.StatementShapes;
+
+/**
+ * {@code /actuator/slowqueries}: the statement shapes ranking highest by p99 latency,
+ * or by {@code order=total} time or {@code order=count}; {@code limit} caps the list.
+ * {@code rows} counts rows written (update counts), not rows a query returned, and
+ * {@code failed} the executions that threw. A DELETE starts the figures afresh.
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final StatementShapes shapes;
+    private final int defaultLimit;
+
+    public SlowQueryEndpoint(StatementShapes shapes, int defaultLimit) {
+        this.shapes = shapes;
+        this.defaultLimit = defaultLimit;
+    }
+
+    @ReadOperation
+    public List<StatementShapes.Snapshot> top(@Nullable Integer limit, @Nullable String order) {
+        StatementShapes.Order by = StatementShapes.Order.P99;
+        if (order != null) {
+            try {
+                by = StatementShapes.Order.valueOf(order.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidEndpointRequestException("order must be p99, total or count", "Invalid order: " + order);
+            }
+        }
+        if (limit != null && limit < 0) {
+            throw new InvalidEndpointRequestException("limit must not be negative", "Invalid limit: " + limit);
+        }
+        return shapes.top(limit != null ? limit : defaultLimit, by);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        shapes.reset();
+    }
+}
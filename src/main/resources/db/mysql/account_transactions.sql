@@ -0,0 +1,32 @@
+-- Statement history on MySQL, partitioned by month of occurred_at.
+-- Run once before the application first starts against the database. Hibernate's
+-- ddl-auto=update then finds the table and the index by name and leaves them alone.
+-- TransactionPartitionMaintainer splits monthly partitions off pmax at startup and
+-- daily, keeping banking.statement.partitions-ahead months ready, so pmax stays empty
+-- and every split is instant. Expire old history with ALTER TABLE ... DROP PARTITION.
+--
+-- Every unique key of a partitioned table must include the partition column, hence
+-- the (id, occurred_at) primary key. Statements range-scan idx_account_tx_account_time,
+-- which also carries every column a statement returns, so a page is an index-only
+-- read of adjacent entries and a date range only touches the partitions it overlaps.
+
+CREATE TABLE IF NOT EXISTS account_transactions (
+    id              BIGINT         NOT NULL,
+    account_id      BIGINT         NOT NULL,
+    occurred_at     DATETIME(6)    NOT NULL,
+    type            VARCHAR(16)    NOT NULL,
+    amount          DECIMAL(38, 2) NOT NULL,
+    balance_after   DECIMAL(38, 2) NOT NULL,
+    counterparty_id BIGINT         NULL,
+    PRIMARY KEY (id, occurred_at),
+    KEY idx_account_tx_account_time (account_id, occurred_at, id, type, amount, balance_after, counterparty_id)
+) ENGINE = InnoDB
+PARTITION BY RANGE COLUMNS (occurred_at) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- Hibernate's emulated sequence for AccountTransaction ids (allocationSize 50)
+CREATE TABLE IF NOT EXISTS account_tx_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+INSERT INTO account_tx_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM account_tx_seq);
@@ -0,0 +1,88 @@
+package com.ramrk.bankingapp;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ramrk.bankingapp.dto.BatchCreateResponse;
+import com.ramrk.bankingapp.dto.BatchItemResult;
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.repository.AccountRepository;
+import com.ramrk.bankingapp.service.AccountService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AccountBatchCreateTest {
+
+    @Autowired
+    private WebApplicationContext wac;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private MockMvc mvc;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeEach
+    @SuppressWarnings("unused")
+    void setUp() {
+        this.mvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+    }
+
+    @Test
+    void batchEndpoint_reportsEachEntry() throws Exception {
+        List<CreateAccountRequest> batch = List.of(
+                new CreateAccountRequest("Partner One", "one@partner.example", new BigDecimal("10.00")),
+                new CreateAccountRequest(" ", "two@partner.example", BigDecimal.ONE),
+                new CreateAccountRequest("Partner Three", "not-an-email", BigDecimal.ONE));
+
+        mvc.perform(post("/api/accounts/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[0].account.ownerName").value("Partner One"))
+                .andExpect(jsonPath("$.results[1].status").value("INVALID"))
+                .andExpect(jsonPath("$.results[1].errors.ownerName").exists())
+                .andExpect(jsonPath("$.results[2].errors.email").exists());
+    }
+
+    @Test
+    void largeBatch_spanningSeveralChunks_isFullyPersisted() {
+        long before = accountRepository.count();
+        List<CreateAccountRequest> batch = new ArrayList<>();
+        for (int i = 0; i < 1_234; i++) {
+            batch.add(new CreateAccountRequest("Bulk " + i, "bulk" + i + "@partner.example", BigDecimal.TEN));
+        }
+
+        BatchCreateResponse response = accountService.createBatch(batch);
+
+        assertThat(response.getCreated()).isEqualTo(1_234);
+        assertThat(response.getResults()).extracting(BatchItemResult::getIndex).containsExactlyElementsOf(
+                IntStream.range(0, 1_234).boxed().toList());
+        assertThat(response.getResults()).extracting(r -> r.getAccount().getId()).doesNotHaveDuplicates();
+        assertThat(accountRepository.count()).isEqualTo(before + 1_234);
+    }
+}
@@ -0,0 +1,167 @@
+package com.ramrk.bankingapp;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ramrk.bankingapp.cache.AccountCache;
+import com.ramrk.bankingapp.cache.InMemorySharedAccountCache;
+import com.ramrk.bankingapp.cache.SingleFlight;
+import com.ramrk.bankingapp.config.AccountCacheProperties;
+import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.exception.ResourceNotFoundException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Two AccountCache instances over one in-memory shared tier stand in for two nodes
+ * sharing a Redis instance.
+ */
+public class AccountCacheTest {
+
+    private InMemorySharedAccountCache shared;
+    private AccountCache nodeA;
+    private AccountCache nodeB;
+    private SimpleMeterRegistry registryA;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    @SuppressWarnings("unused")
+    void setUp() {
+        shared = new InMemorySharedAccountCache();
+        registryA = new SimpleMeterRegistry();
+        nodeA = new AccountCache(new AccountCacheProperties(), shared, registryA);
+        nodeB = new AccountCache(new AccountCacheProperties(), shared, new SimpleMeterRegistry());
+        loads.set(0);
+    }
+
+    private AccountDto load(Long id) {
+        loads.incrementAndGet();
+        return new AccountDto(id, "ACC" + id, "Owner " + loads.get(), null, BigDecimal.TEN, null, null);
+    }
+
+    @Test
+    void getById_loadsOnce_thenServesFromL1() {
+        nodeA.getById(1L, this::load);
+        AccountDto second = nodeA.getById(1L, this::load);
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(second.getOwnerName()).isEqualTo("Owner 1");
+        assertThat(registryA.get("cache.gets").tag("cache", "accounts.byId").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void otherNode_isServedFromSharedTier() {
+        nodeA.getById(1L, this::load);
+        nodeB.getById(1L, this::load);
+
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void evict_dropsEntryFromBothTiersOnEveryNode() {
+        nodeA.getById(1L, this::load);
+        nodeB.getById(1L, this::load);
+
+        nodeA.evict(1L);
+
+        assertThat(nodeB.getById(1L, this::load).getOwnerName()).isEqualTo("Owner 2");
+        assertThat(nodeA.getById(1L, this::load).getOwnerName()).isEqualTo("Owner 2");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void loadOverlappingAnInvalidation_isReturnedButNotCached() {
+        AccountDto stale = nodeA.getById(1L, id -> {
+            nodeB.evict(id);
+            return load(id);
+        });
+
+        assertThat(stale).isNotNull();
+        assertThat(shared.get(1L)).isNull();
+        nodeA.getById(1L, this::load);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void loadOverlappingAnotherAccountsInvalidation_isCached() {
+        nodeA.getById(1L, id -> {
+            nodeB.evict(2L);
+            return load(id);
+        });
+
+        assertThat(shared.get(1L)).isNotNull();
+        nodeA.getById(1L, this::load);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void getByAccountNumber_reusesEntryCachedById() {
+        nodeA.getById(7L, this::load);
+
+        AccountDto byNumber = nodeB.getByAccountNumber("ACC7", number -> {
+            throw new AssertionError("should be served from cache");
+        });
+
+        assertThat(byNumber.getId()).isEqualTo(7L);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentMisses_shareOneLoad() throws Exception {
+        int callers = 16;
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<AccountDto>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> nodeA.getById(3L, id -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return load(id);
+                })));
+            }
+            Counter followers = registryA.get("banking.accounts.loads").tag("lookup", "id").tag("role", "follower").counter();
+            while (followers.count() < callers - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<AccountDto> result : results) {
+                assertThat(result.get().getOwnerName()).isEqualTo("Owner 1");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(registryA.get("banking.accounts.loads.coalesced.ratio").tag("lookup", "id").gauge().value())
+                .isEqualTo((callers - 1) / (double) callers);
+    }
+
+    @Test
+    void followers_getTheLeadersException() {
+        SingleFlight<Long, AccountDto> flight = new SingleFlight<>("test", new SimpleMeterRegistry());
+
+        assertThatThrownBy(() -> flight.load(9L, id -> {
+            throw new ResourceNotFoundException("Account not found");
+        })).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(flight.inFlight()).isZero();
+        // a finished flight is not reused
+        assertThat(flight.load(9L, this::load).getId()).isEqualTo(9L);
+    }
+}
@@ -1,27 +1,45 @@
 package com.ramrk.bankingapp;
 
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ramrk.bankingapp.config.ErrorResponseProperties;
 import com.ramrk.bankingapp.controller.AccountController;
 import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.dto.AccountPage;
+import com.ramrk.bankingapp.dto.AmountRequest;
 import com.ramrk.bankingapp.dto.UpdateAccountRequest;
+import com.ramrk.bankingapp.exception.BadRequestException;
 import com.ramrk.bankingapp.exception.GlobalExceptionHandler;
+import com.ramrk.bankingapp.exception.InsufficientFundsException;
 import com.ramrk.bankingapp.exception.ResourceNotFoundException;
+import com.ramrk.bankingapp.export.AccountExporter;
 import com.ramrk.bankingapp.service.AccountService;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
 public class AccountControllerMvcTest {
 
     private MockMvc mvc;
@@ -29,15 +47,20 @@ public class AccountControllerMvcTest {
     @Mock
     private AccountService accountService;
 
+    @Mock
+    private AccountExporter accountExporter;
+
     private final ObjectMapper mapper = new ObjectMapper();
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @BeforeEach
     @SuppressWarnings("unused")
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        AccountController controller = new AccountController(accountService);
+        AccountController controller = new AccountController(accountService, JsonMapper.builder().build(), accountExporter);
         this.mvc = MockMvcBuilders.standaloneSetup(controller)
-                .setControllerAdvice(new GlobalExceptionHandler())
+                .setControllerAdvice(new GlobalExceptionHandler(meterRegistry, new ErrorResponseProperties()))
                 .build();
     }
 
@@ -62,7 +85,11 @@ public class AccountControllerMvcTest {
         mvc.perform(put("/api/accounts/2")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(mapper.writeValueAsString(req)))
-                .andExpect(status().isNotFound());
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.title").value("Not Found"))
+                .andExpect(jsonPath("$.detail").value("Account not found"));
     }
 
     @Test
@@ -76,4 +103,94 @@ public class AccountControllerMvcTest {
 
         mvc.perform(delete("/api/accounts/2")).andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void list_passesCursorAndReturnsNextCursor() throws Exception {
+        AccountDto dto = new AccountDto(11L, "ACC11", "Page", "page@example.com", null, null, null);
+        when(accountService.getAll(10L, 1)).thenReturn(new AccountPage(List.of(dto), 11L));
+
+        mvc.perform(get("/api/accounts").param("after", "10").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(11))
+                .andExpect(jsonPath("$.nextCursor").value(11));
+    }
+
+    @Test
+    void withdraw_insufficientFunds_returnsConflict() throws Exception {
+        when(accountService.withdraw(eq(1L), any())).thenThrow(new InsufficientFundsException("Insufficient funds"));
+
+        mvc.perform(post("/api/accounts/1/withdraw")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new AmountRequest(new BigDecimal("50.00")))))
+                .andExpect(status().isConflict())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.detail").value("Insufficient funds"));
+    }
+
+    @Test
+    void deposit_nonPositiveAmount_isRejected() throws Exception {
+        mvc.perform(post("/api/accounts/1/deposit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new AmountRequest(BigDecimal.ZERO))))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.errors.amount").exists());
+        assertThat(meterRegistry.get("banking.errors").tag("type", "validation").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void amountsFinerThanACent_areRejected() throws Exception {
+        mvc.perform(post("/api/accounts/1/deposit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\": 1.005}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.amount").exists());
+        mvc.perform(post("/api/accounts/transfer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromAccountId\": 1, \"toAccountId\": 2, \"amount\": 0.015}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.amount").exists());
+    }
+
+    @Test
+    void unexpectedFailure_returnsGenericProblemWithoutTrace() throws Exception {
+        when(accountService.getById(3L)).thenThrow(new IllegalStateException("connection string user=secret"));
+
+        String body = mvc.perform(get("/api/accounts/3"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.detail").value("An unexpected error occurred"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).doesNotContain("secret").doesNotContain("IllegalStateException").doesNotContain("trace");
+        assertThat(meterRegistry.get("banking.errors").tag("type", "internal").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void badRequest_isOnlyTheServicesOwnArgumentChecks() throws Exception {
+        when(accountService.getById(5L)).thenThrow(new BadRequestException("Invalid statement cursor"));
+        when(accountService.getById(6L)).thenThrow(new IllegalArgumentException("Parameter index out of range (internal)"));
+
+        mvc.perform(get("/api/accounts/5"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Invalid statement cursor"));
+        String body = mvc.perform(get("/api/accounts/6"))
+                .andExpect(status().isInternalServerError())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body).doesNotContain("Parameter index");
+    }
+
+    @Test
+    void notFound_isStacklessAndCounted() throws Exception {
+        ResourceNotFoundException missing = new ResourceNotFoundException("Account not found");
+        assertThat(missing.getStackTrace()).isEmpty();
+        when(accountService.getById(4L)).thenThrow(missing);
+
+        for (int i = 0; i < 3; i++) {
+            mvc.perform(get("/api/accounts/4")).andExpect(status().isNotFound());
+        }
+
+        assertThat(meterRegistry.get("banking.errors").tag("type", "not_found").tag("status", "404").counter().count())
+                .isEqualTo(3.0);
+    }
+}
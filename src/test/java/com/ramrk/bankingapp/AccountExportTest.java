@@ -0,0 +1,104 @@
+package com.ramrk.bankingapp;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ramrk.bankingapp.export.AccountExporter;
+import com.ramrk.bankingapp.export.ExportFormat;
+
+/**
+ * Streams a seeded table through the exporter. The million-row run, which checks the
+ * live heap does not grow with the rows, takes about a minute and is tagged
+ * {@code load} ({@code mvn -Pload test}); the default build exports a small table.
+ * The rows live in a file-backed H2 database of their own per test, so the table
+ * itself is not on the heap.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:file:./target/export-test/${random.uuid};LAZY_QUERY_EXECUTION=1")
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class AccountExportTest {
+
+    @Autowired
+    private AccountExporter accountExporter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private void seed(int rows) {
+        jdbcTemplate.update("insert into accounts (id, account_number, owner_name, email, balance, created_at, version)"
+                + " select x, 'EXP' || x, 'Owner ' || x, 'owner' || x || '@example.com', 100.00, current_timestamp, 0"
+                + " from system_range(1, " + rows + ")");
+    }
+
+    @Test
+    void export_streamsEveryRow() throws Exception {
+        seed(20_000);
+
+        HeapSamplingStream out = new HeapSamplingStream();
+        long exported = accountExporter.export(ExportFormat.NDJSON, out);
+
+        assertThat(exported).isEqualTo(20_000);
+        assertThat(out.lines).isEqualTo(20_000);
+    }
+
+    @Test
+    @Tag("load")
+    void exportOfAMillionRows_keepsHeapFlat() throws Exception {
+        seed(1_000_000);
+
+        HeapSamplingStream out = new HeapSamplingStream(100_000, 500_000, 900_000);
+        long exported = accountExporter.export(ExportFormat.NDJSON, out);
+
+        assertThat(exported).isEqualTo(1_000_000);
+        assertThat(out.lines).isEqualTo(1_000_000);
+        assertThat(out.samples).hasSize(3);
+        long growth = out.samples.get(2) - out.samples.get(0);
+        // a million DTOs or entities would retain hundreds of megabytes
+        assertThat(growth).isLessThan(32L * 1024 * 1024);
+    }
+
+    /** Discards the export, counting lines and recording the live heap at the given line counts. */
+    private static class HeapSamplingStream extends OutputStream {
+
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final long[] sampleAt;
+        private final List<Long> samples = new ArrayList<>();
+        private long lines;
+
+        HeapSamplingStream(long... sampleAt) {
+            this.sampleAt = sampleAt;
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+                for (long at : sampleAt) {
+                    if (lines == at) {
+                        System.gc();
+                        samples.add(memory.getHeapMemoryUsage().getUsed());
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
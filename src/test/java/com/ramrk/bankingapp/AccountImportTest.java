@@ -0,0 +1,123 @@
+package com.ramrk.bankingapp;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ramrk.bankingapp.cache.AccountNumberFilter;
+import com.ramrk.bankingapp.cache.SharedAccountCache;
+import com.ramrk.bankingapp.importer.AccountImportJob;
+import com.ramrk.bankingapp.importer.ImportReport;
+import com.ramrk.bankingapp.search.AccountSearchIndex;
+
+/**
+ * Imports a CSV spanning many chunks (the test profile uses 16KB chunks), then runs
+ * the same file again to check that committed chunks are not imported twice, and
+ * that the servers are told to rebuild their filter and search index.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class AccountImportTest {
+
+    private static final int ROWS = 5000;
+
+    @Autowired
+    private AccountImportJob importJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SharedAccountCache sharedAccountCache;
+
+    @Autowired
+    private AccountNumberFilter accountNumberFilter;
+
+    @Autowired
+    private AccountSearchIndex searchIndex;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void import_persistsValidRows_rejectsInvalidOnes_andResumesWithoutDuplicates() throws Exception {
+        Path file = dir.resolve("accounts.csv");
+        Path rejects = dir.resolve("rejects.csv");
+        int expectedRejects = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("initial_deposit,owner_name,email\r\n");
+            for (int i = 0; i < ROWS; i++) {
+                if (i % 100 == 7) {
+                    out.write("10.00,Importee " + i + ",not-an-email\r\n");
+                    expectedRejects++;
+                } else if (i % 250 == 11) {
+                    out.write("ten,Importee " + i + ",i" + i + "@example.com\r\n");
+                    expectedRejects++;
+                } else if (i % 50 == 3) {
+                    out.write("25.50,\"Importee " + i + ", \"\"Jr\"\"\",\r\n");
+                } else {
+                    out.write((i % 1000) + ".00,Importee " + i + ",i" + i + "@example.com\r\n");
+                }
+            }
+        }
+        assertThat(Files.size(file)).isGreaterThan(8 * 16 * 1024);
+
+        List<String> bulkLoads = new CopyOnWriteArrayList<>();
+        sharedAccountCache.onBroadcast(SharedAccountCache.BULK_LOAD, bulkLoads::add);
+
+        ImportReport first = importJob.run(file, rejects);
+
+        assertThat(first.failedChunks()).isZero();
+        assertThat(first.skippedChunks()).isZero();
+        assertThat(first.chunks()).isGreaterThan(8);
+        assertThat(first.imported()).isEqualTo(ROWS - expectedRejects);
+        assertThat(first.rejected()).isEqualTo(expectedRejects);
+        assertThat(importedRows()).isEqualTo(ROWS - expectedRejects);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(distinct account_number) from accounts where owner_name like 'Importee %'", Long.class))
+                .isEqualTo(ROWS - expectedRejects);
+        assertThat(jdbcTemplate.queryForObject(
+                "select email from accounts where owner_name = 'Importee 3, \"Jr\"'", String.class)).isNull();
+
+        List<String> rejectLines = Files.readAllLines(rejects);
+        assertThat(rejectLines).hasSize(expectedRejects + 1);
+        assertThat(rejectLines.get(0)).isEqualTo("offset,reason,line");
+        assertThat(rejectLines).anyMatch(l -> l.contains("\"email: ") && l.contains("not-an-email"));
+        assertThat(rejectLines).anyMatch(l -> l.contains("\"initialDeposit: not a number\"") && l.contains("ten,Importee 11,"));
+
+        assertThat(bulkLoads).containsExactly(first.jobId());
+        // the broadcast reaches this context too, which reloads in the background
+        String imported = jdbcTemplate.queryForObject(
+                "select account_number from accounts where owner_name = 'Importee 4998'", String.class);
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (searchIndex.search("importee 4998", 10).isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(searchIndex.search("importee 4998", 10)).hasSize(1);
+        assertThat(accountNumberFilter.mightContain(imported)).isTrue();
+
+        ImportReport second = importJob.run(file, rejects);
+
+        assertThat(second.jobId()).isEqualTo(first.jobId());
+        assertThat(second.skippedChunks()).isEqualTo(first.chunks());
+        assertThat(second.imported()).isZero();
+        assertThat(importedRows()).isEqualTo(ROWS - expectedRejects);
+        assertThat(Files.readAllLines(rejects)).hasSize(expectedRejects + 1);
+        assertThat(bulkLoads).hasSize(1);
+    }
+
+    private long importedRows() {
+        return jdbcTemplate.queryForObject("select count(*) from accounts where owner_name like 'Importee %'", Long.class);
+    }
+}
@@ -1,28 +1,48 @@
 package com.ramrk.bankingapp;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.context.WebApplicationContext;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.cache.SharedAccountCache;
+import com.ramrk.bankingapp.config.SearchProperties;
 import com.ramrk.bankingapp.dto.CreateAccountRequest;
 import com.ramrk.bankingapp.dto.UpdateAccountRequest;
+import com.ramrk.bankingapp.repository.AccountRepository;
+import com.ramrk.bankingapp.search.AccountSearchIndex;
+import com.ramrk.bankingapp.search.AccountSearchIndexLoader;
+import com.ramrk.bankingapp.service.AccountService;
+import com.ramrk.bankingapp.shard.AccountShards;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @SpringBootTest
+@ActiveProfiles("test")
 @TestPropertySource(properties = {
         "spring.jpa.hibernate.ddl-auto=create-drop",
         "spring.datasource.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
@@ -32,6 +52,21 @@ public class AccountIntegrationTest {
     @Autowired
     private WebApplicationContext wac;
 
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountShards shards;
+
+    @Autowired
+    private SharedAccountCache sharedAccountCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     private MockMvc mvc;
 
     @BeforeEach
@@ -54,8 +89,7 @@ public class AccountIntegrationTest {
                 .andReturn();
 
         String createJson = createResult.getResponse().getContentAsString();
-        AccountDto created = mapper.readValue(createJson, AccountDto.class);
-        Long id = created.getId();
+        Long id = mapper.readTree(createJson).get("id").asLong();
 
         // Update
         UpdateAccountRequest update = new UpdateAccountRequest("Alice Cooper", "acooper@example.com");
@@ -72,4 +106,146 @@ public class AccountIntegrationTest {
         // Confirm deletion -> 404
         mvc.perform(get("/api/accounts/" + id)).andExpect(status().isNotFound());
     }
+
+    @Test
+    void list_pagesWithCursor_and_streamsNdjson() throws Exception {
+        long[] ids = new long[3];
+        for (int i = 0; i < ids.length; i++) {
+            CreateAccountRequest create = new CreateAccountRequest("Pager " + i, "pager" + i + "@example.com", new java.math.BigDecimal("10.00"));
+            String json = mvc.perform(post("/api/accounts")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(mapper.writeValueAsString(create)))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            ids[i] = mapper.readTree(json).get("id").asLong();
+        }
+
+        // first page of two, starting just before our first account
+        mvc.perform(get("/api/accounts").param("after", String.valueOf(ids[0] - 1)).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(ids[0]))
+                .andExpect(jsonPath("$.nextCursor").value(ids[1]));
+
+        // last page has no cursor
+        mvc.perform(get("/api/accounts").param("after", String.valueOf(ids[1])).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(ids[2]))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        MvcResult streaming = mvc.perform(get("/api/accounts/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String ndjson = mvc.perform(asyncDispatch(streaming))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(ndjson.lines().map(line -> {
+            try {
+                return mapper.readTree(line).get("ownerName").asText();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        })).contains("Pager 0", "Pager 1", "Pager 2");
+    }
+
+    @Test
+    void export_writesCsvAndGzippedNdjson() throws Exception {
+        CreateAccountRequest create = new CreateAccountRequest("Export, \"Quoted\"", "export@example.com", new java.math.BigDecimal("42.50"));
+        mvc.perform(post("/api/accounts").contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(create)))
+                .andExpect(status().isCreated());
+
+        MvcResult csvRequest = mvc.perform(get("/api/accounts/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csv = mvc.perform(asyncDispatch(csvRequest))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"accounts.csv\""))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(csv.lines().findFirst()).contains("id,account_number,owner_name,email,balance,created_at,updated_at");
+        assertThat(csv).contains(",\"Export, \"\"Quoted\"\"\",export@example.com,42.50,");
+
+        MvcResult ndjsonRequest = mvc.perform(get("/api/accounts/export").param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] gzipped = mvc.perform(asyncDispatch(ndjsonRequest))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        String ndjson;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            ndjson = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertThat(ndjson.lines().map(line -> {
+            try {
+                return mapper.readTree(line).get("ownerName").asText();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        })).contains("Export, \"Quoted\"");
+
+        mvc.perform(get("/api/accounts/export").param("format", "xml")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void search_findsCreatedAndUpdatedAccounts_andForgetsDeletedOnes() throws Exception {
+        Long id = null;
+        for (String name : new String[] {"Quillon Marsh", "Anna Quillon", "Bob Tranquillon"}) {
+            CreateAccountRequest create = new CreateAccountRequest(name, name.toLowerCase().replace(' ', '.') + "@example.com", java.math.BigDecimal.ONE);
+            String json = mvc.perform(post("/api/accounts").contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(create)))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            if (id == null) {
+                id = mapper.readTree(json).get("id").asLong();
+            }
+        }
+
+        // name prefix, then word prefix, then mid-word
+        mvc.perform(get("/api/accounts/search").param("q", "QUILLON"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].ownerName").value("Quillon Marsh"))
+                .andExpect(jsonPath("$[1].ownerName").value("Anna Quillon"))
+                .andExpect(jsonPath("$[2].ownerName").value("Bob Tranquillon"));
+        mvc.perform(get("/api/accounts/search").param("q", "quillon").param("limit", "1"))
+                .andExpect(jsonPath("$.length()").value(1));
+
+        UpdateAccountRequest update = new UpdateAccountRequest("Renamed Ottoline", "ottoline@example.com");
+        mvc.perform(put("/api/accounts/" + id).contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+        mvc.perform(get("/api/accounts/search").param("q", "ottoli"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(id));
+        mvc.perform(get("/api/accounts/search").param("q", "quillon"))
+                .andExpect(jsonPath("$.length()").value(2));
+
+        mvc.perform(delete("/api/accounts/" + id)).andExpect(status().isNoContent());
+        mvc.perform(get("/api/accounts/search").param("q", "ottoli"))
+                .andExpect(jsonPath("$.length()").value(0));
+        mvc.perform(get("/api/accounts/search").param("q", " ")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void search_onAnotherNode_catchesUpWithChangesMadeHere() {
+        AccountSearchIndex otherIndex = new AccountSearchIndex(new SearchProperties(), new SimpleMeterRegistry());
+        AccountSearchIndexLoader otherNode = new AccountSearchIndexLoader(otherIndex, accountRepository, shards,
+                sharedAccountCache, new SearchProperties(), transactionManager);
+        Long renamed = accountService.create(new CreateAccountRequest("Pemberton Vale", null, java.math.BigDecimal.ONE)).getId();
+        Long deleted = accountService.create(new CreateAccountRequest("Pemberton Hollis", null, java.math.BigDecimal.ONE)).getId();
+        otherNode.reload();
+        assertThat(otherIndex.search("pemberton", 10)).containsExactlyInAnyOrder(renamed, deleted);
+
+        Long created = accountService.create(new CreateAccountRequest("Wilhelmina Crane", null, java.math.BigDecimal.ONE)).getId();
+        accountService.update(renamed, new UpdateAccountRequest("Wilhelmina Vale", "vale@example.com"));
+        accountService.delete(deleted);
+        // nothing reaches the other index until its next sync
+        assertThat(otherIndex.search("wilhelmina", 10)).isEmpty();
+
+        otherNode.applyRemoteChanges();
+
+        assertThat(otherIndex.search("wilhelmina", 10)).containsExactlyInAnyOrder(created, renamed);
+        assertThat(otherIndex.search("pemberton", 10)).isEmpty();
+    }
 }
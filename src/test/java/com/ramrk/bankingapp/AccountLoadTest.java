@@ -0,0 +1,180 @@
+package com.ramrk.bankingapp;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Capacity test for the account API: boots the application on H2 on a random port
+ * and drives create/get/list/update/delete through {@link LoadGenerator}.
+ * Run with {@code mvn -Pload test}. Settings (system properties):
+ * <ul>
+ * <li>{@code load.model}: {@code open} (fixed arrival rate, default) or {@code closed} (fixed concurrency)</li>
+ * <li>{@code load.rate}: requests per second for the open model (default 100)</li>
+ * <li>{@code load.concurrency}: clients for the closed model (default 32)</li>
+ * <li>{@code load.warmup} / {@code load.duration}: seconds (default 5 / 20)</li>
+ * <li>{@code load.mix}: weights, default {@code create=20,get=50,list=15,update=10,delete=5}</li>
+ * <li>{@code load.accounts}: accounts created before the run (default 500)</li>
+ * <li>{@code load.output}: report directory (default {@code target/load-report})</li>
+ * <li>{@code load.max-error-rate}: fail when more 5xx/failed requests than this (default 0.01)</li>
+ * </ul>
+ */
+@Tag("load")
+public class AccountLoadTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final String model = System.getProperty("load.model", "open");
+    private final int rate = Integer.getInteger("load.rate", 100);
+    private final int concurrency = Integer.getInteger("load.concurrency", 32);
+    private final int warmup = Integer.getInteger("load.warmup", 5);
+    private final int duration = Integer.getInteger("load.duration", 20);
+    private final String mix = System.getProperty("load.mix", "create=20,get=50,list=15,update=10,delete=5");
+    private final int accounts = Integer.getInteger("load.accounts", 500);
+    private final Path output = Path.of(System.getProperty("load.output", "target/load-report"));
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+
+    private final IdPool ids = new IdPool();
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Test
+    void accountApi() throws Exception {
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(BankingappApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:load" + System.nanoTime() + ";DB_CLOSE_DELAY=-1")
+                .run();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build()) {
+            String base = "http://localhost:" + app.getEnvironment().getProperty("local.server.port") + "/api/accounts";
+            for (int i = 0; i < accounts; i++) {
+                remember(http.send(create(base), HttpResponse.BodyHandlers.ofString()));
+            }
+
+            LoadGenerator generator = new LoadGenerator(http, operations(base));
+            LoadGenerator.Model mode = LoadGenerator.Model.valueOf(model.toUpperCase());
+            LoadGenerator.Report report = generator.run(mode, rate, concurrency,
+                    Duration.ofSeconds(warmup), Duration.ofSeconds(duration), 10_000);
+
+            String header = String.format("Account API load: %s model, %s, %ds after %ds warm-up, mix %s",
+                    model, mode == LoadGenerator.Model.OPEN ? rate + " req/s" : concurrency + " clients", duration, warmup, mix);
+            report.write(output, header);
+            System.out.printf("%n%s%n%s(reports in %s)%n", header, report.table(), output.toAbsolutePath());
+
+            assertThat(report.errorRate()).isLessThanOrEqualTo(maxErrorRate);
+        }
+    }
+
+    private List<LoadGenerator.Operation> operations(String base) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split("=");
+            weights.put(kv[0], Integer.parseInt(kv[1]));
+        }
+        List<LoadGenerator.Operation> ops = new ArrayList<>();
+        weights.forEach((name, weight) -> ops.add(switch (name) {
+            case "create" -> new LoadGenerator.Operation(name, weight, () -> create(base), this::remember);
+            case "get" -> new LoadGenerator.Operation(name, weight, () -> {
+                Long id = ids.any();
+                return id == null ? null : HttpRequest.newBuilder(URI.create(base + "/" + id)).build();
+            }, r -> {});
+            case "list" -> new LoadGenerator.Operation(name, weight, () -> {
+                Long after = ids.any();
+                return HttpRequest.newBuilder(URI.create(base + "?limit=50" + (after == null ? "" : "&after=" + after))).build();
+            }, r -> {});
+            case "update" -> new LoadGenerator.Operation(name, weight, () -> {
+                Long id = ids.any();
+                return id == null ? null : json(base + "/" + id, "PUT",
+                        "{\"ownerName\":\"Updated " + id + "\",\"email\":\"updated" + id + "@example.com\"}");
+            }, r -> {});
+            case "delete" -> new LoadGenerator.Operation(name, weight, () -> {
+                Long id = ids.take();
+                return id == null ? null : HttpRequest.newBuilder(URI.create(base + "/" + id)).DELETE().build();
+            }, r -> {});
+            default -> throw new IllegalArgumentException("Unknown operation in load.mix: " + name);
+        }));
+        return ops;
+    }
+
+    private HttpRequest create(String base) {
+        long n = sequence.incrementAndGet();
+        return json(base, "POST", "{\"ownerName\":\"Load " + n + "\",\"email\":\"load" + n + "@example.com\",\"initialDeposit\":100}");
+    }
+
+    private static HttpRequest json(String uri, String method, String body) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private void remember(HttpResponse<String> response) {
+        if (response.statusCode() == 201) {
+            Matcher m = ID.matcher(response.body());
+            if (m.find()) {
+                ids.add(Long.parseLong(m.group(1)));
+            }
+        }
+    }
+
+    /** Ids of live accounts; random pick and removal are O(1). */
+    private static final class IdPool {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<Long> ids = new ArrayList<>();
+
+        void add(Long id) {
+            lock.lock();
+            try {
+                ids.add(id);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Long any() {
+            lock.lock();
+            try {
+                return ids.isEmpty() ? null : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Long take() {
+            lock.lock();
+            try {
+                if (ids.isEmpty()) {
+                    return null;
+                }
+                int i = ThreadLocalRandom.current().nextInt(ids.size());
+                Long id = ids.get(i);
+                ids.set(i, ids.get(ids.size() - 1));
+                ids.remove(ids.size() - 1);
+                return id;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.ramrk.bankingapp;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.ramrk.bankingapp.cache.AccountNumberFilter;
+import com.ramrk.bankingapp.cache.SharedAccountCache;
+import com.ramrk.bankingapp.config.AccountNumberFilterProperties;
+import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.model.Account;
+import com.ramrk.bankingapp.repository.AccountRepository;
+import com.ramrk.bankingapp.service.AccountService;
+import com.ramrk.bankingapp.shard.AccountShards;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AccountNumberLookupTest {
+
+    @Autowired
+    private WebApplicationContext wac;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountNumberFilter filter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SharedAccountCache sharedAccountCache;
+
+    @Autowired
+    private AccountShards shards;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    @SuppressWarnings("unused")
+    void setUp() {
+        this.mvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+    }
+
+    @Test
+    void byNumber_findsCreatedAccountsAndRejectsUnknownOnes() throws Exception {
+        // an account inserted behind the service's back is only known after a rebuild
+        Account existing = accountRepository.save(Account.builder()
+                .accountNumber("LEGACY-0001").ownerName("Legacy").email("legacy@example.com").balance(BigDecimal.ONE).build());
+        filter.rebuild();
+        AccountDto created = accountService.create(new CreateAccountRequest("Lookup", "lookup@example.com", BigDecimal.TEN));
+
+        mvc.perform(get("/api/accounts/by-number/" + created.getAccountNumber()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(created.getId()));
+        mvc.perform(get("/api/accounts/by-number/LEGACY-0001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(existing.getId()));
+
+        double rejectedBefore = meterRegistry.counter("banking.accounts.filter.rejections").count();
+        mvc.perform(get("/api/accounts/by-number/0000000000000000000"))
+                .andExpect(status().isNotFound());
+        assertThat(meterRegistry.counter("banking.accounts.filter.rejections").count()).isGreaterThan(rejectedBefore);
+        assertThat(meterRegistry.get("banking.accounts.filter.size").gauge().value()).isPositive();
+        assertThat(meterRegistry.get("banking.accounts.filter.fpp").gauge().value()).isBetween(0.0, 0.01);
+    }
+
+    @Test
+    void byNumber_rejectsAWrongCheckDigitWithoutLookingItUp() throws Exception {
+        String number = accountService.create(new CreateAccountRequest("Typo", null, BigDecimal.ONE)).getAccountNumber();
+        char[] digits = number.toCharArray();
+        digits[5] = digits[5] == '9' ? '0' : (char) (digits[5] + 1);
+        String typo = new String(digits);
+        // even a row that really has the mistyped number is never reached
+        accountRepository.save(Account.builder()
+                .accountNumber(typo).ownerName("Typo").email("typo@example.com").balance(BigDecimal.ONE).build());
+        filter.rebuild();
+
+        double rejectedBefore = meterRegistry.counter("banking.accounts.filter.rejections").count();
+        mvc.perform(get("/api/accounts/by-number/" + typo))
+                .andExpect(status().isNotFound());
+        assertThat(meterRegistry.counter("banking.accounts.filter.rejections").count()).isEqualTo(rejectedBefore);
+        mvc.perform(get("/api/accounts/by-number/" + number))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void filter_hasNoFalseNegativesAndFewFalsePositives() {
+        for (int i = 0; i < 2_000; i++) {
+            accountService.create(new CreateAccountRequest("Owner " + i, "owner" + i + "@example.com", BigDecimal.ONE));
+        }
+        filter.rebuild();
+        accountRepository.findAll().forEach(a -> assertThat(filter.mightContain(a.getAccountNumber())).isTrue());
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("MISSING-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(200);
+    }
+
+    @Test
+    void filter_learnsNumbersIssuedOnOtherNodes() {
+        AccountNumberFilter otherNode = new AccountNumberFilter(accountRepository, new AccountNumberFilterProperties(),
+                shards, sharedAccountCache, transactionManager, new SimpleMeterRegistry());
+        otherNode.rebuild();
+        filter.rebuild();
+
+        String issuedHere = accountService.create(new CreateAccountRequest("Here", null, BigDecimal.ONE)).getAccountNumber();
+        otherNode.add("ISSUED-ELSEWHERE-1");
+
+        assertThat(otherNode.mightContain(issuedHere)).isTrue();
+        assertThat(filter.mightContain("ISSUED-ELSEWHERE-1")).isTrue();
+        assertThat(filter.mightContain("NEVER-ISSUED-1")).isFalse();
+    }
+}
@@ -0,0 +1,58 @@
+package com.ramrk.bankingapp;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.dto.AccountPage;
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.repository.AccountRepository;
+import com.ramrk.bankingapp.service.AccountService;
+
+import jakarta.persistence.EntityManager;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AccountReadPathTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void projections_returnFullDtosWithoutManagingEntities() {
+        AccountDto created = accountService.create(new CreateAccountRequest("Reader", "reader@example.com", new BigDecimal("12.50")));
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            AccountDto byId = accountRepository.findDtoById(created.getId()).orElseThrow();
+            assertThat(byId.getAccountNumber()).isEqualTo(created.getAccountNumber());
+            assertThat(byId.getOwnerName()).isEqualTo("Reader");
+            assertThat(byId.getBalance()).isEqualByComparingTo("12.50");
+            assertThat(byId.getCreatedAt()).isNotNull();
+            assertThat(accountRepository.findDtoByAccountNumber(created.getAccountNumber())).map(AccountDto::getId).contains(created.getId());
+
+            AccountPage page = accountService.getAll(created.getId() - 1, 10);
+            assertThat(page.getItems()).first().extracting(AccountDto::getId).isEqualTo(created.getId());
+
+            assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+        });
+    }
+}
@@ -0,0 +1,122 @@
+package com.ramrk.bankingapp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import com.ramrk.bankingapp.config.SearchProperties;
+import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.exception.BadRequestException;
+import com.ramrk.bankingapp.search.AccountSearchIndex;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AccountSearchIndexTest {
+
+    private static AccountDto account(long id, String ownerName, String email) {
+        return new AccountDto(id, "ACC" + id, ownerName, email, null, null, null);
+    }
+
+    private static AccountSearchIndex index(SearchProperties properties, AccountDto... accounts) {
+        AccountSearchIndex index = new AccountSearchIndex(properties, new SimpleMeterRegistry());
+        index.rebuild(() -> Stream.of(accounts));
+        return index;
+    }
+
+    @Test
+    void search_ranksNameMatchesByPosition_aheadOfEmailMatches() {
+        AccountSearchIndex index = index(new SearchProperties(),
+                account(1, "Bob Tranquillon", "bob@example.com"),
+                account(2, "Carla Ruiz", "quillon.fan@example.com"),
+                account(3, "Anna Quillon", "anna@example.com"),
+                account(4, "Quillon", "q@example.com"),
+                account(5, "Quillon Marsh", "marsh@example.com"),
+                account(6, "Unrelated", "nobody@example.com"));
+
+        assertThat(index.search("quillon", 10)).containsExactly(4L, 5L, 2L, 3L, 1L);
+        assertThat(index.search("quillon", 2)).containsExactly(4L, 5L);
+        assertThat(index.search("quillon", 4)).containsExactly(4L, 5L, 2L, 3L);
+        assertThat(index.search("example", 2)).containsExactly(1L, 2L);
+        assertThat(index.search("zzz", 10)).isEmpty();
+        assertThrows(BadRequestException.class, () -> index.search("  ", 10));
+    }
+
+    @Test
+    void shortQueries_matchWordPrefixes_andAccentsAreIgnored() {
+        AccountSearchIndex index = index(new SearchProperties(),
+                account(1, "José Álvarez", "jose@example.com"),
+                account(2, "Mia Jo", "mia@example.com"),
+                account(3, "Bojan", "bojan@example.com"));
+
+        assertThat(index.search("jo", 10)).containsExactly(1L, 2L);
+        assertThat(index.search("ALVA", 10)).containsExactly(1L);
+        assertThat(index.search("álvarez", 10)).containsExactly(1L);
+        assertThat(index.search("j", 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void changes_replaceAndRemoveEntries_andCompactionKeepsResults() {
+        AccountSearchIndex index = index(new SearchProperties(), account(1, "Old Name", "old@example.com"));
+
+        index.put(1, "New Name", "new@example.com");
+        index.put(2, "Other Person", null);
+        assertThat(index.search("old", 10)).isEmpty();
+        assertThat(index.search("name", 10)).containsExactly(1L);
+        assertThat(index.search("other", 10)).containsExactly(2L);
+
+        index.remove(2);
+        assertThat(index.search("other", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+
+        // enough rewrites of one account to trigger compaction
+        for (int i = 0; i < 25_000; i++) {
+            index.put(1, "Churn " + i, "churn" + i + "@example.com");
+        }
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search("churn 24999", 10)).containsExactly(1L);
+        assertThat(index.search("churn 12", 10)).isEmpty();
+    }
+
+    @Test
+    void parallelBuild_keepsEveryAccount_andReportsItsSize() {
+        SearchProperties properties = new SearchProperties();
+        properties.setBuildBatch(100);
+        properties.setBuildWorkers(4);
+        List<AccountDto> accounts = new ArrayList<>();
+        for (int i = 1; i <= 5_000; i++) {
+            accounts.add(account(i, "Owner " + i, "owner" + i + "@example.com"));
+        }
+        AccountSearchIndex index = index(properties, accounts.toArray(AccountDto[]::new));
+
+        assertThat(index.size()).isEqualTo(5_000);
+        assertThat(index.search("owner4321@", 10)).containsExactly(4321L);
+        assertThat(index.search("owner 1", 5)).containsExactly(1L, 10L, 11L, 12L, 13L);
+        assertThat(index.estimatedBytes()).isBetween(100_000L, 20_000_000L);
+    }
+
+    @Test
+    void changesDuringARebuild_areReplayedOntoTheNewIndex() {
+        AccountSearchIndex index = index(new SearchProperties(), account(1, "Gone Soon", "gone@example.com"));
+
+        // the stream reads id 1 before it is deleted and misses id 3, created meanwhile
+        index.rebuild(() -> Stream.of(account(1, "Gone Soon", "gone@example.com"), account(2, "Kept", "kept@example.com"))
+                .peek(account -> {
+                    if (account.getId() == 2) {
+                        index.remove(1);
+                        index.put(3, "Latecomer", "late@example.com");
+                    }
+                }));
+
+        assertThat(index.search("gone", 10)).isEmpty();
+        assertThat(index.search("latecomer", 10)).containsExactly(3L);
+        assertThat(index.size()).isEqualTo(2);
+
+        index.put(4, "After", "after@example.com");
+        index.rebuild(Stream::empty);
+        assertThat(index.size()).isZero();
+    }
+}
@@ -1,6 +1,7 @@
 package com.ramrk.bankingapp;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -8,23 +9,54 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import com.ramrk.bankingapp.cache.AccountCache;
+import com.ramrk.bankingapp.cache.AccountNumberFilter;
+import com.ramrk.bankingapp.config.ShardingProperties;
+import com.ramrk.bankingapp.dto.AccountDto;
 import com.ramrk.bankingapp.dto.UpdateAccountRequest;
+import com.ramrk.bankingapp.engine.BalanceEngine;
 import com.ramrk.bankingapp.exception.ResourceNotFoundException;
 import com.ramrk.bankingapp.model.Account;
 import com.ramrk.bankingapp.repository.AccountRepository;
+import com.ramrk.bankingapp.search.AccountSearchIndex;
 import com.ramrk.bankingapp.service.impl.AccountServiceImpl;
+import com.ramrk.bankingapp.shard.AccountShards;
 
 public class AccountServiceImplTest {
 
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private AccountCache accountCache;
+
+    @Mock
+    private BalanceEngine balanceEngine;
+
+    @Mock
+    private AccountNumberFilter accountNumberFilter;
+
+    @Mock
+    private AccountSearchIndex searchIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    /** No shards configured, so every call runs in place. */
+    @Spy
+    private AccountShards shards = new AccountShards(new ShardingProperties(), null);
+
     @InjectMocks
     private AccountServiceImpl accountService;
 
@@ -36,22 +68,30 @@ public class AccountServiceImplTest {
 
     @Test
     void update_existingAccount_shouldReturnUpdatedDto() {
-        Account existing = new Account(1L, "ACC123", "Old Name", "old@example.com", BigDecimal.ZERO, null, null);
-        when(accountRepository.findById(1L)).thenReturn(Optional.of(existing));
-        when(accountRepository.save(any(Account.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        LocalDateTime stored = LocalDateTime.of(2026, 1, 2, 3, 4, 5, 123_456_000);
+        AccountDto row = new AccountDto(1L, "ACC123", "New Name", "new@example.com", BigDecimal.TEN, null, stored);
+        when(accountRepository.updateDetails(eq(1L), eq("New Name"), eq("new@example.com"), any())).thenReturn(1);
+        when(accountRepository.findDtoById(1L)).thenReturn(Optional.of(row));
 
         UpdateAccountRequest req = new UpdateAccountRequest("New Name", "new@example.com");
 
         var dto = accountService.update(1L, req);
 
-        assertThat(dto.getOwnerName()).isEqualTo("New Name");
-        assertThat(dto.getEmail()).isEqualTo("new@example.com");
-        verify(accountRepository).save(any(Account.class));
+        // the response is the row as read back, not a cached copy patched with the request
+        assertThat(dto).isSameAs(row);
+        ArgumentCaptor<LocalDateTime> updatedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(accountRepository).updateDetails(eq(1L), eq("New Name"), eq("new@example.com"), updatedAt.capture());
+        assertThat(updatedAt.getValue().getNano() % 1_000).isZero();
+        verify(accountCache, never()).peek(any());
+        verify(accountRepository, never()).findById(any());
+        verify(accountRepository, never()).save(any(Account.class));
+        verify(accountCache).evict(1L);
+        verify(searchIndex).put(1L, "New Name", "new@example.com");
     }
 
     @Test
     void update_missingAccount_shouldThrow() {
-        when(accountRepository.findById(2L)).thenReturn(Optional.empty());
+        when(accountRepository.updateDetails(eq(2L), any(), any(), any())).thenReturn(0);
         UpdateAccountRequest req = new UpdateAccountRequest("Name", "email@example.com");
         ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class, () -> accountService.update(2L, req));
         // ensure exception instance is observed to satisfy static analysis
@@ -62,17 +102,19 @@ public class AccountServiceImplTest {
 
     @Test
     void delete_existingAccount_shouldCallDelete() {
-        Account existing = new Account(3L, "ACC333", "User", "u@example.com", BigDecimal.ZERO, null, null);
-        when(accountRepository.findById(3L)).thenReturn(Optional.of(existing));
+        when(accountRepository.deleteAccountById(3L)).thenReturn(1);
 
         accountService.delete(3L);
 
-        verify(accountRepository).delete(existing);
+        verify(accountRepository).deleteAccountById(3L);
+        verify(accountRepository, never()).findById(any());
+        verify(accountCache).evict(3L);
+        verify(searchIndex).remove(3L);
     }
 
     @Test
     void delete_missingAccount_shouldThrow() {
-        when(accountRepository.findById(4L)).thenReturn(Optional.empty());
+        when(accountRepository.deleteAccountById(4L)).thenReturn(0);
         ResourceNotFoundException ex2 = assertThrows(ResourceNotFoundException.class, () -> accountService.delete(4L));
         // ensure exception instance is observed to satisfy static analysis
         assertThat(ex2).isNotNull();
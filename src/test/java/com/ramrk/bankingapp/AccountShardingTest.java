@@ -0,0 +1,249 @@
+package com.ramrk.bankingapp;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.dto.AccountPage;
+import com.ramrk.bankingapp.dto.BatchCreateResponse;
+import com.ramrk.bankingapp.dto.BatchItemResult;
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.dto.UpdateAccountRequest;
+import com.ramrk.bankingapp.exception.BadRequestException;
+import com.ramrk.bankingapp.exception.ResourceNotFoundException;
+import com.ramrk.bankingapp.export.AccountExporter;
+import com.ramrk.bankingapp.export.ExportFormat;
+import com.ramrk.bankingapp.service.AccountService;
+import com.ramrk.bankingapp.shard.AccountShards;
+import com.ramrk.bankingapp.shard.KWayMerge;
+import com.ramrk.bankingapp.shard.ShardRoutingDataSource;
+
+/**
+ * Three in-memory H2 databases as shards; shards 1 and 2 get their schema from the
+ * {@code ShardSchemaExporter}. Rows are checked directly in each shard's pool.
+ */
+@SpringBootTest(properties = {
+        "banking.sharding.shards[0].url=jdbc:h2:mem:sharding-test-0;DB_CLOSE_DELAY=-1",
+        "banking.sharding.shards[1].url=jdbc:h2:mem:sharding-test-1;DB_CLOSE_DELAY=-1",
+        "banking.sharding.shards[2].url=jdbc:h2:mem:sharding-test-2;DB_CLOSE_DELAY=-1",
+        "banking.sharding.shards[2].hikari.maximum-pool-size=4"
+})
+@ActiveProfiles("test")
+public class AccountShardingTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountShards shards;
+
+    @Autowired
+    private ShardRoutingDataSource routing;
+
+    @Autowired
+    private AccountExporter exporter;
+
+    private AccountDto open(String owner, String balance) {
+        return accountService.create(new CreateAccountRequest(owner, null, new BigDecimal(balance)));
+    }
+
+    private List<Long> idsOn(int shard) {
+        return new JdbcTemplate(routing.getShards().get(shard)).queryForList("select id from accounts order by id", Long.class);
+    }
+
+    private List<Long> allIds() {
+        List<Long> ids = new ArrayList<>();
+        for (int shard = 0; shard < shards.count(); shard++) {
+            ids.addAll(idsOn(shard));
+        }
+        ids.sort(Comparator.naturalOrder());
+        return ids;
+    }
+
+    @Test
+    void accounts_arePlacedByNumber_andCarryTheirShardInTheId() {
+        List<AccountDto> created = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            created.add(open("Placed " + i, "10.00"));
+        }
+
+        Set<Integer> used = new HashSet<>();
+        for (AccountDto account : created) {
+            int shard = shards.ofNumber(account.getAccountNumber());
+            used.add(shard);
+            assertThat(shards.ofId(account.getId())).isEqualTo(shard);
+            assertThat(idsOn(shard)).contains(account.getId());
+            for (int other = 0; other < shards.count(); other++) {
+                if (other != shard) {
+                    assertThat(idsOn(other)).doesNotContain(account.getId());
+                }
+            }
+        }
+        assertThat(used).containsExactlyInAnyOrder(0, 1, 2);
+        assertThat(routing.getShards().get(2)).extracting("maximumPoolSize").isEqualTo(4);
+    }
+
+    @Test
+    void pointOperations_goToTheAccountsShard() {
+        for (int i = 0; i < 6; i++) {
+            AccountDto account = open("Point " + i, "50.00");
+            Long id = account.getId();
+
+            assertThat(accountService.getById(id).getAccountNumber()).isEqualTo(account.getAccountNumber());
+            assertThat(accountService.getByAccountNumber(account.getAccountNumber()).getId()).isEqualTo(id);
+            assertThat(accountService.update(id, new UpdateAccountRequest("Renamed " + i, "r" + i + "@example.com")).getOwnerName())
+                    .isEqualTo("Renamed " + i);
+            assertThat(accountService.deposit(id, new BigDecimal("5.00")).getBalance()).isEqualByComparingTo("55.00");
+            assertThat(accountService.withdraw(id, new BigDecimal("15.00")).getBalance()).isEqualByComparingTo("40.00");
+            assertThat(accountService.getStatement(id, null, null, null, 10).getItems()).hasSize(2);
+            assertThat(accountService.getById(id).getOwnerName()).isEqualTo("Renamed " + i);
+
+            accountService.delete(id);
+            assertThrows(ResourceNotFoundException.class, () -> accountService.getById(id));
+        }
+        // low bits naming a shard that does not exist
+        assertThrows(ResourceNotFoundException.class, () -> accountService.getById(AccountShards.id(1, 63)));
+    }
+
+    @Test
+    void statementEntries_drawTheirIdsFromTheirShard() {
+        List<AccountDto> accounts = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            accounts.add(open("Movements " + i, "0.00"));
+        }
+        // more entries than one reserved block, so every shard's sequence is read repeatedly
+        for (int round = 0; round < 15; round++) {
+            for (AccountDto account : accounts) {
+                accountService.deposit(account.getId(), BigDecimal.ONE);
+            }
+        }
+
+        for (int shard = 0; shard < shards.count(); shard++) {
+            List<Long> entryIds = new JdbcTemplate(routing.getShards().get(shard))
+                    .queryForList("select id from account_transactions", Long.class);
+            int s = shard;
+            assertThat(entryIds).allMatch(id -> shards.ofId(id) == s);
+        }
+        for (AccountDto account : accounts) {
+            assertThat(accountService.getById(account.getId()).getBalance()).isEqualByComparingTo("15.00");
+        }
+    }
+
+    @Test
+    void getAllAndStreamAll_mergeEveryShardById() {
+        for (int i = 0; i < 40; i++) {
+            open("Listed " + i, "1.00");
+        }
+        List<Long> expected = allIds();
+
+        List<Long> paged = new ArrayList<>();
+        Long cursor = null;
+        do {
+            AccountPage page = accountService.getAll(cursor, 7);
+            page.getItems().forEach(a -> paged.add(a.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertThat(paged).isEqualTo(expected);
+
+        List<Long> streamed = new ArrayList<>();
+        accountService.streamAll(a -> streamed.add(a.getId()));
+        assertThat(streamed).isEqualTo(expected);
+    }
+
+    @Test
+    void export_readsEveryShard_inIdOrder() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            open("Exported " + i, "2.00");
+        }
+        List<Long> expected = allIds();
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        long rows = exporter.export(ExportFormat.CSV, csv);
+
+        List<Long> exported = csv.toString(StandardCharsets.UTF_8).lines()
+                .skip(1)
+                .map(line -> Long.valueOf(line.substring(0, line.indexOf(','))))
+                .collect(Collectors.toList());
+        assertThat(rows).isEqualTo(expected.size());
+        assertThat(exported).isEqualTo(expected);
+    }
+
+    @Test
+    void search_findsMatchesOnEveryShard() {
+        Set<Integer> placed = new HashSet<>();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; placed.size() < 3 && i < 100; i++) {
+            AccountDto account = open("Quillfeather " + i, "0.00");
+            placed.add(shards.ofId(account.getId()));
+            ids.add(account.getId());
+        }
+        assertThat(placed).hasSize(3);
+
+        List<Long> found = accountService.search("quillfeather", 100).stream().map(AccountDto::getId).collect(Collectors.toList());
+        assertThat(found).containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    @Test
+    void transfers_runWithinAShard_andAreRefusedAcrossShards() {
+        List<AccountDto> onShard = new ArrayList<>();
+        AccountDto elsewhere = null;
+        while (onShard.size() < 2 || elsewhere == null) {
+            AccountDto account = open("Transfer", "100.00");
+            if (onShard.isEmpty() || shards.ofId(account.getId()) == shards.ofId(onShard.get(0).getId())) {
+                if (onShard.size() < 2) {
+                    onShard.add(account);
+                }
+            } else {
+                elsewhere = account;
+            }
+        }
+        Long from = onShard.get(0).getId();
+        Long to = onShard.get(1).getId();
+        Long other = elsewhere.getId();
+
+        assertThat(accountService.transfer(from, to, new BigDecimal("30.00")).getTo().getBalance()).isEqualByComparingTo("130.00");
+        assertThrows(BadRequestException.class, () -> accountService.transfer(from, other, BigDecimal.ONE));
+        assertThat(accountService.getById(from).getBalance()).isEqualByComparingTo("70.00");
+        assertThat(accountService.getById(other).getBalance()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void batchCreate_commitsEachShardsShare() {
+        List<CreateAccountRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            requests.add(new CreateAccountRequest("Batch " + i, null, BigDecimal.ONE));
+        }
+
+        BatchCreateResponse response = accountService.createBatch(requests);
+
+        assertThat(response.getCreated()).isEqualTo(25);
+        for (BatchItemResult result : response.getResults()) {
+            AccountDto account = result.getAccount();
+            assertThat(result.getIndex()).isBetween(0, 24);
+            assertThat(idsOn(shards.ofNumber(account.getAccountNumber()))).contains(account.getId());
+        }
+    }
+
+    @Test
+    void kWayMerge_keepsOrderAcrossInputs() {
+        List<List<Integer>> sorted = List.of(List.of(1, 4, 9), List.of(), List.of(2, 3, 10, 11), List.of(5));
+
+        assertThat(KWayMerge.merge(sorted, Comparator.naturalOrder(), 100)).containsExactly(1, 2, 3, 4, 5, 9, 10, 11);
+        assertThat(KWayMerge.merge(sorted, Comparator.naturalOrder(), 4)).containsExactly(1, 2, 3, 4);
+    }
+}
@@ -0,0 +1,132 @@
+package com.ramrk.bankingapp;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.service.AccountService;
+
+/**
+ * Balance changes leave statement entries with running balances, read back page by
+ * page through the cursor and limited to the requested time range.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class AccountStatementTest {
+
+    @Autowired
+    private WebApplicationContext wac;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockMvc mvc;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.webAppContextSetup(wac).build();
+    }
+
+    @Test
+    void statement_pagesThroughMovementsWithRunningBalances() throws Exception {
+        long a = accountService.create(new CreateAccountRequest("Stella", "stella@example.com", new BigDecimal("100.00"))).getId();
+        long b = accountService.create(new CreateAccountRequest("Sam", "sam@example.com", BigDecimal.ZERO)).getId();
+        accountService.deposit(a, new BigDecimal("50.00"));
+        accountService.withdraw(a, new BigDecimal("30.00"));
+        accountService.transfer(a, b, new BigDecimal("20.00"));
+        accountService.deposit(a, new BigDecimal("5.00"));
+
+        List<JsonNode> entries = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String url = "/api/accounts/" + a + "/statement?limit=2" + (cursor == null ? "" : "&cursor=" + cursor);
+            JsonNode page = mapper.readTree(mvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(entries::add);
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(2);
+        assertThat(entries).extracting(e -> e.get("type").asText())
+                .containsExactly("DEPOSIT", "WITHDRAWAL", "TRANSFER_OUT", "DEPOSIT");
+        assertThat(entries).extracting(e -> e.get("amount").decimalValue())
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("50"), new BigDecimal("-30"), new BigDecimal("-20"), new BigDecimal("5"));
+        assertThat(entries).extracting(e -> e.get("balance").decimalValue())
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("150"), new BigDecimal("120"), new BigDecimal("100"), new BigDecimal("105"));
+        assertThat(entries.get(2).get("counterpartyId").asLong()).isEqualTo(b);
+
+        mvc.perform(get("/api/accounts/" + b + "/statement"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].type").value("TRANSFER_IN"))
+                .andExpect(jsonPath("$.items[0].counterpartyId").value(a))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void statement_returnsOnlyTheRequestedRange() throws Exception {
+        long id = accountService.create(new CreateAccountRequest("Ranger", "ranger@example.com", BigDecimal.ZERO)).getId();
+        // history older than the default one-month window, one entry per day of 2025
+        jdbcTemplate.update("insert into account_transactions (id, account_id, occurred_at, type, amount, balance_after)"
+                + " select 1000000 + x, ?, dateadd(day, x - 1, timestamp '2025-01-01 12:00:00'), 'DEPOSIT', 1, x"
+                + " from system_range(1, 365)", id);
+
+        mvc.perform(get("/api/accounts/" + id + "/statement"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+
+        mvc.perform(get("/api/accounts/" + id + "/statement")
+                        .param("from", "2025-03-01T00:00:00")
+                        .param("to", "2025-04-01T00:00:00")
+                        .param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(31))
+                .andExpect(jsonPath("$.items[0].occurredAt").value("2025-03-01T12:00:00"))
+                .andExpect(jsonPath("$.items[0].balance").value(60))
+                .andExpect(jsonPath("$.items[30].balance").value(90))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void statement_rejectsBadRequests() throws Exception {
+        long id = accountService.create(new CreateAccountRequest("Strict", "strict@example.com", BigDecimal.ZERO)).getId();
+
+        mvc.perform(get("/api/accounts/" + id + "/statement").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/accounts/" + id + "/statement")
+                        .param("from", "2025-02-01T00:00:00")
+                        .param("to", "2025-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/accounts/99999999/statement").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,141 @@
+package com.ramrk.bankingapp;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.dto.TransferResult;
+import com.ramrk.bankingapp.engine.ConflictRetry;
+import com.ramrk.bankingapp.exception.BadRequestException;
+import com.ramrk.bankingapp.exception.InsufficientFundsException;
+import com.ramrk.bankingapp.exception.ResourceNotFoundException;
+import com.ramrk.bankingapp.service.AccountService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AccountTransferTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    private Long open(String owner, String balance) {
+        return accountService.create(new CreateAccountRequest(owner, null, new BigDecimal(balance))).getId();
+    }
+
+    @Test
+    void transfer_movesMoneyBetweenAccounts() {
+        Long from = open("Payer", "100.00");
+        Long to = open("Payee", "5.00");
+
+        TransferResult result = accountService.transfer(from, to, new BigDecimal("40.00"));
+
+        assertThat(result.getFrom().getBalance()).isEqualByComparingTo("60.00");
+        assertThat(result.getTo().getBalance()).isEqualByComparingTo("45.00");
+        assertThat(accountService.getById(from).getBalance()).isEqualByComparingTo("60.00");
+        assertThat(accountService.getById(to).getBalance()).isEqualByComparingTo("45.00");
+    }
+
+    @Test
+    void balanceChanges_returnTheUpdatedAtALaterReadSees() {
+        Long from = open("Stamped payer", "100.00");
+        Long to = open("Stamped payee", "0.00");
+
+        AccountDto deposited = accountService.deposit(from, BigDecimal.ONE);
+        assertThat(deposited.getUpdatedAt()).isNotNull().isEqualTo(accountService.getById(from).getUpdatedAt());
+
+        AccountDto withdrawn = accountService.withdraw(from, BigDecimal.ONE);
+        assertThat(withdrawn.getUpdatedAt()).isNotNull().isEqualTo(accountService.getById(from).getUpdatedAt());
+
+        TransferResult result = accountService.transfer(from, to, BigDecimal.TEN);
+        assertThat(result.getFrom().getUpdatedAt()).isNotNull().isEqualTo(accountService.getById(from).getUpdatedAt());
+        assertThat(result.getTo().getUpdatedAt()).isNotNull().isEqualTo(accountService.getById(to).getUpdatedAt());
+    }
+
+    @Test
+    void transfer_rejectsOverdraftSameAccountAndUnknownAccount() {
+        Long from = open("Short", "10.00");
+        Long to = open("Other", "0.00");
+
+        assertThrows(InsufficientFundsException.class, () -> accountService.transfer(from, to, new BigDecimal("10.01")));
+        assertThrows(BadRequestException.class, () -> accountService.transfer(from, from, BigDecimal.ONE));
+        assertThrows(ResourceNotFoundException.class, () -> accountService.transfer(from, Long.MAX_VALUE, BigDecimal.ONE));
+        assertThat(accountService.getById(from).getBalance()).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void oppositeDirectionTransfers_andDeposits_neitherDeadlockNorLoseMoney() throws Exception {
+        Long a = open("Left", "1000.00");
+        Long b = open("Right", "1000.00");
+
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService threads = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 400; i++) {
+                boolean leftToRight = i % 2 == 0;
+                results.add(threads.submit(() -> leftToRight
+                        ? accountService.transfer(a, b, BigDecimal.ONE)
+                        : accountService.transfer(b, a, BigDecimal.ONE)));
+                if (i % 10 == 0) {
+                    results.add(threads.submit(() -> accountService.deposit(a, BigDecimal.ONE)));
+                }
+            }
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+
+        BigDecimal total = accountService.getById(a).getBalance().add(accountService.getById(b).getBalance());
+        assertThat(total).isEqualByComparingTo("2040.00");
+    }
+
+    @Test
+    void amounts_areKeptAtTheBalanceScale() {
+        Long from = open("Cents payer", "10.00");
+        Long to = open("Cents payee", "0.00");
+
+        assertThrows(BadRequestException.class, () -> accountService.deposit(from, new BigDecimal("1.005")));
+        assertThrows(BadRequestException.class, () -> accountService.transfer(from, to, new BigDecimal("0.001")));
+        AccountDto deposited = accountService.deposit(from, new BigDecimal("1.5"));
+
+        assertThat(deposited.getBalance()).isEqualTo(new BigDecimal("11.50"));
+        assertThat(accountService.getById(to).getBalance()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void conflictRetry_countsRetriedAndExhaustedAttempts() {
+        ConflictRetry retry = new ConflictRetry(3, Duration.ZERO, Duration.ZERO);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        retry.bindTo(registry);
+
+        int succeededOn = retry.execute((int attempt) -> {
+            if (attempt < 2) {
+                throw new OptimisticLockingFailureException("lost the race");
+            }
+            return attempt;
+        });
+        assertThat(succeededOn).isEqualTo(2);
+        assertThrows(ConcurrencyFailureException.class, () -> retry.execute((int attempt) -> {
+            throw new OptimisticLockingFailureException("always loses");
+        }));
+
+        assertThat(registry.get("banking.engine.retries").tag("outcome", "retried").functionCounter().count()).isEqualTo(3);
+        assertThat(registry.get("banking.engine.retries").tag("outcome", "exhausted").functionCounter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,75 @@
+package com.ramrk.bankingapp;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.ramrk.bankingapp.jdbc.AdmissionLimitedDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AdmissionLimitedDataSourceTest {
+
+    @Test
+    void callersBeyondThePermitsWait_untilAConnectionIsClosed() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        Connection physical = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(physical);
+        AdmissionLimitedDataSource limited = new AdmissionLimitedDataSource(pool, 1, Duration.ofSeconds(5), 10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limited.bindTo(registry);
+
+        Connection first = limited.getConnection();
+        CompletableFuture<Connection> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limited.getConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertThat(second).isNotDone();
+        assertThat(registry.get("banking.admission.waiting").gauge().value()).isEqualTo(1.0);
+
+        first.close();
+        first.close();
+        Connection next = second.get(5, TimeUnit.SECONDS);
+        // the second close must not hand back a second permit
+        assertThat(registry.get("banking.admission.in-use").gauge().value()).isEqualTo(1.0);
+        next.close();
+        assertThat(registry.get("banking.admission.in-use").gauge().value()).isZero();
+    }
+
+    @Test
+    void fullQueueAndTimeout_failWithATransientError() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenReturn(mock(Connection.class));
+        AdmissionLimitedDataSource noQueue = new AdmissionLimitedDataSource(pool, 1, Duration.ofSeconds(5), 0);
+        noQueue.getConnection();
+        assertThrows(SQLTransientConnectionException.class, noQueue::getConnection);
+
+        AdmissionLimitedDataSource shortWait = new AdmissionLimitedDataSource(pool, 1, Duration.ofMillis(50), 10);
+        shortWait.getConnection();
+        assertThrows(SQLTransientConnectionException.class, shortWait::getConnection);
+    }
+
+    @Test
+    void failedAcquisitionFromThePool_returnsThePermit() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenThrow(new SQLException("down")).thenReturn(mock(Connection.class));
+        AdmissionLimitedDataSource limited = new AdmissionLimitedDataSource(pool, 1, Duration.ofMillis(50), 10);
+        assertThrows(SQLException.class, limited::getConnection);
+        assertThat(limited.getConnection()).isNotNull();
+    }
+}
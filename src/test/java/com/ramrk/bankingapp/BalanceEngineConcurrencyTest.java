@@ -0,0 +1,77 @@
+package com.ramrk.bankingapp;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.exception.InsufficientFundsException;
+import com.ramrk.bankingapp.repository.AccountRepository;
+import com.ramrk.bankingapp.service.AccountService;
+
+/**
+ * Hammers a handful of hot accounts from thousands of threads at once. Every thread
+ * deposits 2.00 and then withdraws 1.00 from its account, so a single lost update
+ * shows up as a wrong final balance.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class BalanceEngineConcurrencyTest {
+
+    private static final int HOT_ACCOUNTS = 4;
+    private static final int THREADS = 12_000;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void concurrentDepositsAndWithdrawals_loseNoUpdates() throws Exception {
+        Long[] ids = new Long[HOT_ACCOUNTS];
+        for (int i = 0; i < HOT_ACCOUNTS; i++) {
+            ids[i] = accountService.create(new CreateAccountRequest("Hot " + i, null, BigDecimal.ZERO)).getId();
+        }
+
+        List<Future<AccountDto>> results = new ArrayList<>(THREADS);
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < THREADS; t++) {
+                Long id = ids[t % HOT_ACCOUNTS];
+                results.add(threads.submit(() -> {
+                    accountService.deposit(id, new BigDecimal("2.00"));
+                    return accountService.withdraw(id, new BigDecimal("1.00"));
+                }));
+            }
+        }
+        for (Future<AccountDto> result : results) {
+            result.get();
+        }
+
+        BigDecimal expected = BigDecimal.valueOf(THREADS / HOT_ACCOUNTS);
+        for (Long id : ids) {
+            assertThat(accountRepository.findById(id).orElseThrow().getBalance()).isEqualByComparingTo(expected);
+            assertThat(accountService.getById(id).getBalance()).isEqualByComparingTo(expected);
+        }
+    }
+
+    @Test
+    void withdrawBeyondBalance_isRejectedAndLeavesBalanceUntouched() {
+        Long id = accountService.create(new CreateAccountRequest("Thin", null, new BigDecimal("5.00"))).getId();
+
+        assertThrows(InsufficientFundsException.class, () -> accountService.withdraw(id, new BigDecimal("5.01")));
+
+        assertThat(accountService.getById(id).getBalance()).isEqualByComparingTo("5.00");
+    }
+}
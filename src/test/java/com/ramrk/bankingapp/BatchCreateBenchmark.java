@@ -0,0 +1,74 @@
+package com.ramrk.bankingapp;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ramrk.bankingapp.dto.BatchCreateResponse;
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.service.AccountService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Compares the batch create path against N calls to the single-item create on H2,
+ * reporting accounts/s and how many JDBC statements each path prepared. Run with
+ * {@code mvn -Pbenchmark test}; size it with -Dbench.accounts.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class BatchCreateBenchmark {
+
+    private static final int ACCOUNTS = Integer.getInteger("bench.accounts", 10_000);
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void batchPath_vsSingleItemPath() {
+        List<CreateAccountRequest> requests = new ArrayList<>(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            requests.add(new CreateAccountRequest("Partner " + i, "partner" + i + "@bank.example", BigDecimal.TEN));
+        }
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // warm up both paths so the comparison is not dominated by JIT and pool start-up
+        accountService.createBatch(requests.subList(0, 500));
+        requests.subList(0, 500).forEach(accountService::create);
+
+        stats.clear();
+        long start = System.nanoTime();
+        for (CreateAccountRequest request : requests) {
+            accountService.create(request);
+        }
+        double singleSeconds = (System.nanoTime() - start) / 1e9;
+        long singleStatements = stats.getPrepareStatementCount();
+
+        stats.clear();
+        start = System.nanoTime();
+        BatchCreateResponse response = accountService.createBatch(requests);
+        double batchSeconds = (System.nanoTime() - start) / 1e9;
+        long batchStatements = stats.getPrepareStatementCount();
+
+        System.out.printf("%nCreate %d accounts%n", ACCOUNTS);
+        System.out.printf("  %-18s %10s %14s %16s%n", "path", "seconds", "accounts/s", "JDBC statements");
+        System.out.printf("  %-18s %10.2f %14.0f %16d%n", "single create x N", singleSeconds, ACCOUNTS / singleSeconds, singleStatements);
+        System.out.printf("  %-18s %10.2f %14.0f %16d%n", "batch", batchSeconds, ACCOUNTS / batchSeconds, batchStatements);
+
+        assertThat(response.getCreated()).isEqualTo(ACCOUNTS);
+        assertThat(batchStatements).isLessThan(singleStatements);
+    }
+}
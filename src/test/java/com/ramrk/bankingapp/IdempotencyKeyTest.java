@@ -0,0 +1,159 @@
+package com.ramrk.bankingapp;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ramrk.bankingapp.config.IdempotencyProperties;
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.idempotency.IdempotencyStore;
+import com.ramrk.bankingapp.idempotency.SharedIdempotencyStore;
+import com.ramrk.bankingapp.idempotency.StoredResponse;
+import com.ramrk.bankingapp.repository.AccountRepository;
+import com.ramrk.bankingapp.web.IdempotencyFilter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class IdempotencyKeyTest {
+
+    @Autowired
+    private WebApplicationContext wac;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private FilterRegistrationBean<IdempotencyFilter> idempotencyFilter;
+
+    private MockMvc mvc;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeEach
+    @SuppressWarnings("unused")
+    void setUp() {
+        this.mvc = MockMvcBuilders.webAppContextSetup(this.wac).addFilters(idempotencyFilter.getFilter()).build();
+    }
+
+    @Test
+    void concurrentRetriesWithOneKey_createOneAccount() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String email = key + "@example.com";
+        byte[] body = mapper.writeValueAsBytes(new CreateAccountRequest("Retry Storm", email, BigDecimal.TEN));
+        int clients = 32;
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<MockHttpServletResponse>> calls = new ArrayList<>();
+        try {
+            for (int i = 0; i < clients; i++) {
+                calls.add(pool.submit(() -> {
+                    start.await();
+                    return mvc.perform(post("/api/accounts")
+                            .header(IdempotencyFilter.HEADER, key)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                            .andReturn().getResponse();
+                }));
+            }
+            start.countDown();
+
+            String first = null;
+            int replays = 0;
+            for (Future<MockHttpServletResponse> call : calls) {
+                MockHttpServletResponse response = call.get();
+                assertThat(response.getStatus()).isEqualTo(201);
+                if (first == null) {
+                    first = response.getContentAsString();
+                }
+                assertThat(response.getContentAsString()).isEqualTo(first);
+                if ("true".equals(response.getHeader(IdempotencyFilter.REPLAYED_HEADER))) {
+                    replays++;
+                }
+            }
+            assertThat(replays).isEqualTo(clients - 1);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(accountRepository.findAll().stream().filter(a -> email.equals(a.getEmail()))).hasSize(1);
+    }
+
+    @Test
+    void reusedKeyWithDifferentBody_isRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+        mvc.perform(post("/api/accounts").header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsBytes(new CreateAccountRequest("First", "first@example.com", BigDecimal.ONE))))
+                .andExpect(status().isCreated());
+
+        mvc.perform(post("/api/accounts").header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsBytes(new CreateAccountRequest("Second", "second@example.com", BigDecimal.ONE))))
+                .andExpect(status().isUnprocessableContent());
+
+        // no key: every request runs
+        mvc.perform(post("/api/accounts").contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsBytes(new CreateAccountRequest("Plain", "plain@example.com", BigDecimal.ONE))))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void sharedClaim_outlastsTheDuplicateWait() throws Exception {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setWaitTimeout(Duration.ofSeconds(1));
+        properties.setLockTtl(Duration.ofMinutes(10));
+        List<Duration> claims = new ArrayList<>();
+        SharedIdempotencyStore shared = new SharedIdempotencyStore() {
+            @Override
+            public StoredResponse get(String key) {
+                return null;
+            }
+
+            @Override
+            public boolean tryLock(String key, Duration ttl) {
+                claims.add(ttl);
+                return true;
+            }
+
+            @Override
+            public void unlock(String key) {
+            }
+
+            @Override
+            public void put(String key, StoredResponse response, Duration ttl) {
+            }
+        };
+        IdempotencyStore store = new IdempotencyStore(properties, shared, new SimpleMeterRegistry());
+
+        store.execute("slow-original", () -> new StoredResponse(201, null, null, "f", new byte[0]));
+
+        // a retry on another node must not run the request while the original is still going
+        assertThat(claims).containsExactly(Duration.ofMinutes(10));
+    }
+}
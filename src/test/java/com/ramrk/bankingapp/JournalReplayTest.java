@@ -0,0 +1,51 @@
+package com.ramrk.bankingapp;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.journal.JournalReplayer;
+import com.ramrk.bankingapp.repository.AccountRepository;
+import com.ramrk.bankingapp.service.AccountService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class JournalReplayTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JournalReplayer replayer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void replay_restoresRowsThatFellBehindTheJournal_andIsIdempotent() {
+        Long a = accountService.create(new CreateAccountRequest("Journal A", "a@journal.example", new BigDecimal("100.00"))).getId();
+        Long b = accountService.create(new CreateAccountRequest("Journal B", "b@journal.example", BigDecimal.ZERO)).getId();
+        accountService.deposit(a, new BigDecimal("25.00"));
+        accountService.withdraw(a, new BigDecimal("5.00"));
+        accountService.transfer(a, b, new BigDecimal("20.00"));
+        long versionA = accountRepository.findById(a).orElseThrow().getVersion();
+
+        // simulate restoring an older backup of the table
+        jdbcTemplate.update("update accounts set balance = 100.00, version = 0 where id in (?, ?)", a, b);
+
+        assertThat(replayer.replay()).isGreaterThanOrEqualTo(2);
+        assertThat(accountRepository.findById(a).orElseThrow().getBalance()).isEqualByComparingTo("100.00");
+        assertThat(accountRepository.findById(a).orElseThrow().getVersion()).isEqualTo(versionA);
+        assertThat(accountRepository.findById(b).orElseThrow().getBalance()).isEqualByComparingTo("20.00");
+        assertThat(replayer.replay()).isZero();
+    }
+}
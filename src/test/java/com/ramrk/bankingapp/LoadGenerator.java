@@ -0,0 +1,240 @@
+package com.ramrk.bankingapp;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Drives a weighted mix of HTTP operations and records each one's latency in an
+ * HDR histogram (microseconds).
+ * <ul>
+ * <li>{@link Model#OPEN}: requests are started on a fixed schedule whether or not
+ * earlier ones have finished, and latency is measured from the scheduled start.
+ * A stall therefore shows up in every request that should have been sent during
+ * it, instead of being hidden by the client waiting (coordinated omission).</li>
+ * <li>{@link Model#CLOSED}: a fixed number of clients each send their next
+ * request as soon as the previous one returns.</li>
+ * </ul>
+ */
+public class LoadGenerator {
+
+    public enum Model { OPEN, CLOSED }
+
+    /**
+     * One kind of request. {@code request} may return null when the operation has
+     * nothing to act on yet (e.g. no account to delete); that pick is skipped.
+     */
+    public record Operation(String name, int weight, Supplier<HttpRequest> request,
+                            Consumer<HttpResponse<String>> onResponse) {}
+
+    private final HttpClient http;
+    private final List<Operation> operations;
+    private final int[] cumulativeWeights;
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+    public LoadGenerator(HttpClient http, List<Operation> operations) {
+        this.http = http;
+        this.operations = List.copyOf(operations);
+        this.cumulativeWeights = new int[operations.size()];
+        int total = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            total += operations.get(i).weight();
+            cumulativeWeights[i] = total;
+            stats.put(operations.get(i).name(), new Stats());
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Operation weights must add up to more than zero");
+        }
+    }
+
+    /**
+     * Run for {@code warmup + duration}; only requests scheduled after the warm-up
+     * are recorded. {@code rate} (requests per second) applies to the open model,
+     * {@code concurrency} to the closed one. In the open model at most
+     * {@code maxInFlight} requests are outstanding; further ones count as failed.
+     */
+    public Report run(Model model, int rate, int concurrency, Duration warmup, Duration duration, int maxInFlight) {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        AtomicInteger inFlight = new AtomicInteger();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (model == Model.OPEN) {
+                long period = TimeUnit.SECONDS.toNanos(1) / Math.max(1, rate);
+                for (long i = 0; ; i++) {
+                    long scheduled = start + i * period;
+                    if (scheduled >= end) {
+                        break;
+                    }
+                    LockSupport.parkNanos(scheduled - System.nanoTime());
+                    Operation op = pick();
+                    if (inFlight.incrementAndGet() > maxInFlight) {
+                        inFlight.decrementAndGet();
+                        if (scheduled >= measureFrom) {
+                            stats.get(op.name()).failed.increment();
+                        }
+                        continue;
+                    }
+                    clients.submit(() -> {
+                        try {
+                            execute(op, scheduled, measureFrom);
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                    });
+                }
+            } else {
+                for (int c = 0; c < concurrency; c++) {
+                    clients.submit(() -> {
+                        long now;
+                        while ((now = System.nanoTime()) < end) {
+                            execute(pick(), now, measureFrom);
+                        }
+                    });
+                }
+            }
+        }
+        return new Report(stats, duration);
+    }
+
+    private Operation pick() {
+        int r = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (r < cumulativeWeights[i]) {
+                return operations.get(i);
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private void execute(Operation op, long scheduled, long measureFrom) {
+        HttpRequest request = op.request().get();
+        Stats s = stats.get(op.name());
+        boolean measured = scheduled >= measureFrom;
+        if (request == null) {
+            return;
+        }
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            op.onResponse().accept(response);
+            if (measured) {
+                int status = response.statusCode();
+                (status >= 500 ? s.serverErrors : status >= 400 ? s.clientErrors : s.ok).increment();
+            }
+        } catch (IOException e) {
+            if (measured) {
+                s.failed.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (measured) {
+            s.latency.recordValue(Math.max(0, (System.nanoTime() - scheduled) / 1_000));
+        }
+    }
+
+    static final class Stats {
+        final Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(10), 3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder clientErrors = new LongAdder();
+        final LongAdder serverErrors = new LongAdder();
+        final LongAdder failed = new LongAdder();
+    }
+
+    /** Per-operation results of one run. */
+    public static final class Report {
+        private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+        private final Map<String, Stats> stats;
+        private final double seconds;
+
+        Report(Map<String, Stats> stats, Duration duration) {
+            this.stats = stats;
+            this.seconds = duration.toNanos() / 1e9;
+        }
+
+        /** Share of measured requests that got a 5xx or no response at all. */
+        public double errorRate() {
+            long total = 0;
+            long bad = 0;
+            for (Stats s : stats.values()) {
+                total += s.ok.sum() + s.clientErrors.sum() + s.serverErrors.sum() + s.failed.sum();
+                bad += s.serverErrors.sum() + s.failed.sum();
+            }
+            return total == 0 ? 0 : (double) bad / total;
+        }
+
+        public long requests(String operation) {
+            return stats.get(operation).latency.getTotalCount();
+        }
+
+        /**
+         * Write {@code <operation>.hgrm} percentile distributions (in ms) and a
+         * {@code summary.txt} / {@code summary.csv} throughput table to {@code dir}.
+         */
+        public void write(Path dir, String header) throws IOException {
+            Files.createDirectories(dir);
+            for (Map.Entry<String, Stats> e : stats.entrySet()) {
+                try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(e.getKey() + ".hgrm")))) {
+                    e.getValue().latency.outputPercentileDistribution(out, 1000.0);
+                }
+            }
+            Files.writeString(dir.resolve("summary.txt"), header + System.lineSeparator() + table());
+            try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(dir.resolve("summary.csv")))) {
+                csv.println("operation,requests,per_second,ok,4xx,5xx,failed,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+                for (String[] row : rows()) {
+                    csv.println(String.join(",", row));
+                }
+            }
+        }
+
+        public String table() {
+            StringBuilder out = new StringBuilder(String.format("%-10s %9s %9s %8s %6s %6s %7s %9s %9s %9s %9s %9s%n",
+                    "operation", "requests", "req/s", "ok", "4xx", "5xx", "failed", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+            for (String[] row : rows()) {
+                out.append(String.format("%-10s %9s %9s %8s %6s %6s %7s %9s %9s %9s %9s %9s%n", (Object[]) row));
+            }
+            return out.toString();
+        }
+
+        private List<String[]> rows() {
+            List<String[]> rows = new ArrayList<>();
+            for (Map.Entry<String, Stats> e : stats.entrySet()) {
+                Stats s = e.getValue();
+                Histogram h = s.latency;
+                List<String> row = new ArrayList<>(List.of(e.getKey(), Long.toString(h.getTotalCount()),
+                        String.format("%.1f", h.getTotalCount() / seconds), Long.toString(s.ok.sum()),
+                        Long.toString(s.clientErrors.sum()), Long.toString(s.serverErrors.sum()), Long.toString(s.failed.sum())));
+                for (double p : PERCENTILES) {
+                    row.add(String.format("%.2f", h.getValueAtPercentile(p) / 1000.0));
+                }
+                row.add(String.format("%.2f", h.getMaxValue() / 1000.0));
+                rows.add(row.toArray(String[]::new));
+            }
+            return rows;
+        }
+    }
+}
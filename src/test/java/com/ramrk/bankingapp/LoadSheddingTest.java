@@ -0,0 +1,131 @@
+package com.ramrk.bankingapp;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.ramrk.bankingapp.web.AimdLimiter;
+import com.ramrk.bankingapp.web.AimdLimiter.Priority;
+import com.ramrk.bankingapp.web.LoadSheddingFilter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Overload behaviour of the adaptive limiter against a simulated backend that, like
+ * a 10-connection pool, gets slower for everyone once more than 10 requests share it.
+ */
+public class LoadSheddingTest {
+
+    private static final int CAPACITY = 10;
+    private static final long SERVICE_MILLIS = 20;
+    private static final long DEADLINE_MILLIS = 250;
+    private static final int CLIENTS = 150;
+    private static final Duration RUN = Duration.ofSeconds(3);
+
+    @Test
+    void overload_goodputHoldsWithTheLimiter() throws Exception {
+        double unlimited = goodputPerSecond(null);
+        AimdLimiter limiter = new AimdLimiter(20, 2, 200, 0.9, TimeUnit.MILLISECONDS.toNanos(100), new SimpleMeterRegistry());
+        double limited = goodputPerSecond(limiter);
+
+        // the backend can serve CAPACITY / SERVICE_MILLIS = 500 requests/s
+        assertThat(limited).isGreaterThan(200);
+        assertThat(unlimited).isLessThan(limited / 4);
+        assertThat(limiter.getLimit()).isBetween(2, 100);
+    }
+
+    @Test
+    void slowRequests_cutTheLimitOncePerRoundTrip() throws Exception {
+        AimdLimiter limiter = new AimdLimiter(20, 2, 200, 0.5, TimeUnit.MILLISECONDS.toNanos(1), new SimpleMeterRegistry());
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.tryAcquire(Priority.CRITICAL)).isTrue();
+        }
+        // all of these were admitted before the first cut, so only one of them counts
+        for (int i = 0; i < 20; i++) {
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(100), true);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        Thread.sleep(20);
+        assertThat(limiter.tryAcquire(Priority.CRITICAL)).isTrue();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(5), false);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void sheddableRequests_areRejectedFirst_with503AndRetryAfter() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AimdLimiter limiter = new AimdLimiter(4, 2, 200, 0.9, TimeUnit.SECONDS.toNanos(1), registry);
+        LoadSheddingFilter filter = new LoadSheddingFilter(limiter, List.of("POST /api/accounts/{id}/deposit"), List.of(),
+                Duration.ofSeconds(2), registry);
+        // 3 of 4 slots taken: sheddable requests may use 75% of the limit, critical ones all of it
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(Priority.CRITICAL)).isTrue();
+        }
+
+        MockHttpServletResponse read = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/accounts/1"), read, new MockFilterChain());
+        assertThat(read.getStatus()).isEqualTo(503);
+        assertThat(read.getHeader("Retry-After")).isEqualTo("2");
+
+        MockHttpServletResponse deposit = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/accounts/1/deposit"), deposit, new MockFilterChain());
+        assertThat(deposit.getStatus()).isEqualTo(200);
+
+        assertThat(registry.get("banking.load-shedding.rejected").tag("priority", "sheddable").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("banking.load-shedding.in-flight").gauge().value()).isEqualTo(3.0);
+    }
+
+    /** Closed-loop clients for {@link #RUN}; counts responses that arrived within the deadline. */
+    private double goodputPerSecond(AimdLimiter limiter) throws InterruptedException {
+        AtomicInteger active = new AtomicInteger();
+        AtomicLong good = new AtomicLong();
+        long end = System.nanoTime() + RUN.toNanos();
+        List<Thread> clients = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.add(Thread.ofPlatform().start(() -> {
+                while (System.nanoTime() < end) {
+                    if (limiter != null && !limiter.tryAcquire(Priority.NORMAL)) {
+                        pause(10);
+                        continue;
+                    }
+                    long start = System.nanoTime();
+                    int sharing = active.incrementAndGet();
+                    try {
+                        pause(SERVICE_MILLIS * Math.max(1, sharing / CAPACITY));
+                    } finally {
+                        active.decrementAndGet();
+                    }
+                    long latency = System.nanoTime() - start;
+                    if (limiter != null) {
+                        limiter.release(latency, false);
+                    }
+                    if (latency <= TimeUnit.MILLISECONDS.toNanos(DEADLINE_MILLIS)) {
+                        good.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+        return good.get() / (double) RUN.toSeconds();
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
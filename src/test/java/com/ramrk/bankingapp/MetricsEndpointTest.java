@@ -0,0 +1,71 @@
+package com.ramrk.bankingapp;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.service.AccountService;
+import com.ramrk.bankingapp.web.QueryCountFilter;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class MetricsEndpointTest {
+
+    @Autowired
+    private WebApplicationContext wac;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private FilterRegistrationBean<QueryCountFilter> queryCountFilter;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    @SuppressWarnings("unused")
+    void setUp() {
+        this.mvc = MockMvcBuilders.webAppContextSetup(this.wac).addFilters(queryCountFilter.getFilter()).build();
+    }
+
+    @Test
+    void prometheus_exposesServiceHibernateAndPoolMetrics() throws Exception {
+        AccountDto created = accountService.create(new CreateAccountRequest("Metrics", "metrics@example.com", BigDecimal.TEN));
+        mvc.perform(get("/api/accounts/" + created.getId())).andExpect(status().isOk());
+        mvc.perform(get("/api/accounts/999999")).andExpect(status().isNotFound());
+        mvc.perform(post("/api/accounts").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+
+        String scrape = mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("banking_account_service_seconds_bucket{method=\"getById\",outcome=\"success\"")
+                .contains("banking_account_service_seconds_bucket{method=\"getById\",outcome=\"not_found\"")
+                .contains("le=\"0.025\"")
+                .contains("banking_account_failures_total{method=\"getById\",reason=\"not_found\"}")
+                .contains("banking_account_failures_total{method=\"create\",reason=\"validation\"}")
+                .contains("banking_http_server_queries_statements_count{method=\"GET\",uri=\"/api/accounts/{id}\"}")
+                .contains("hibernate_query_executions_total")
+                .contains("hibernate_entities_loads_total")
+                .contains("hibernate_flushes_total")
+                .contains("hikaricp_connections_acquire_seconds")
+                .contains("hikaricp_connections_usage_seconds");
+    }
+}
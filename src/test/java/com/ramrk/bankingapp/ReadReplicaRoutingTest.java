@@ -0,0 +1,241 @@
+package com.ramrk.bankingapp;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.ramrk.bankingapp.cache.AccountNumberFilter;
+import com.ramrk.bankingapp.config.DataSourceConfig;
+import com.ramrk.bankingapp.config.ReadReplicaProperties;
+import com.ramrk.bankingapp.dto.AccountDto;
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.jdbc.ReadWriteRoutingDataSource;
+import com.ramrk.bankingapp.search.AccountSearchIndex;
+import com.ramrk.bankingapp.search.AccountSearchIndexLoader;
+import com.ramrk.bankingapp.service.AccountService;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and a replica; each holds a
+ * row naming itself and the replicas a lag row for the health check to read. The
+ * application test copies the primary's accounts into the replica once and leaves it
+ * behind from then on.
+ */
+public class ReadReplicaRoutingTest {
+
+    @Configuration
+    @EnableConfigurationProperties(ReadReplicaProperties.class)
+    static class Properties {
+    }
+
+    private final String run = UUID.randomUUID().toString();
+
+    private String url(String name) {
+        return "jdbc:h2:mem:" + name + "-" + run + ";DB_CLOSE_DELAY=-1";
+    }
+
+    private void database(String name, boolean replica) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url(name), "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table whoami (name varchar(32))");
+            statement.execute("insert into whoami values ('" + name + "')");
+            if (replica) {
+                statement.execute("create table replica_lag (lag_seconds bigint)");
+                statement.execute("insert into replica_lag values (0)");
+            }
+        }
+    }
+
+    private void execute(String name, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url(name), "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /** Make the replica's accounts table what the primary's is now; from then on it lags. */
+    private void replicate(String replica) throws SQLException {
+        List<String> script = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(url("primary"), "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("script table accounts")) {
+            while (rows.next()) {
+                String sql = rows.getString(1);
+                if (sql.startsWith("CREATE") && sql.contains(" TABLE ") || sql.startsWith("INSERT")) {
+                    script.add(sql);
+                }
+            }
+        }
+        execute(replica, "drop table if exists accounts");
+        for (String sql : script) {
+            execute(replica, sql);
+        }
+    }
+
+    private ConfigurableApplicationContext application(String replica) {
+        return new SpringApplicationBuilder(BankingappApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.root=WARN")
+                // arguments, so they win over the test profile's datasource
+                .run("--spring.datasource.url=" + url("primary"),
+                        "--banking.datasource.replicas[0].name=" + replica,
+                        "--banking.datasource.replicas[0].url=" + url(replica),
+                        "--banking.datasource.lag-query=select lag_seconds from replica_lag",
+                        "--banking.datasource.max-lag=10s",
+                        "--banking.datasource.health-check-interval=1h");
+    }
+
+    private ApplicationContextRunner contextRunner(String... replicas) {
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+                .withUserConfiguration(Properties.class, DataSourceConfig.class)
+                .withPropertyValues(
+                        "spring.datasource.url=" + url("primary"),
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.hikari.maximum-pool-size=4",
+                        "banking.datasource.lag-query=select lag_seconds from replica_lag",
+                        "banking.datasource.max-lag=10s",
+                        "banking.datasource.health-check-interval=1h");
+        for (int i = 0; i < replicas.length; i++) {
+            runner = runner.withPropertyValues(
+                    "banking.datasource.replicas[" + i + "].name=" + replicas[i],
+                    "banking.datasource.replicas[" + i + "].url=" + url(replicas[i]),
+                    "banking.datasource.replicas[" + i + "].hikari.maximum-pool-size=2");
+        }
+        return runner;
+    }
+
+    private static String whoAmI(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> new JdbcTemplate(dataSource).queryForObject("select name from whoami", String.class));
+    }
+
+    @Test
+    void readOnlyTransactions_goRoundRobinOverReplicas_andEverythingElseToThePrimary() throws Exception {
+        database("primary", false);
+        database("replica-a", true);
+        database("replica-b", true);
+
+        contextRunner("replica-a", "replica-b").run(context -> {
+            DataSource dataSource = context.getBean(DataSource.class);
+            assertThat(whoAmI(dataSource, false)).isEqualTo("primary");
+            assertThat(new JdbcTemplate(dataSource).queryForObject("select name from whoami", String.class)).isEqualTo("primary");
+
+            Set<String> readers = new HashSet<>();
+            for (int i = 0; i < 4; i++) {
+                readers.add(whoAmI(dataSource, true));
+            }
+            assertThat(readers).containsExactlyInAnyOrder("replica-a", "replica-b");
+
+            // every target keeps its own pool settings
+            assertThat(context.getBean("primaryDataSource", HikariDataSource.class).getMaximumPoolSize()).isEqualTo(4);
+            HikariDataSource replica = (HikariDataSource) context.getBean(ReadWriteRoutingDataSource.class).getReplicas().get("replica-a");
+            assertThat(replica.getMaximumPoolSize()).isEqualTo(2);
+            assertThat(replica.getPoolName()).isEqualTo("replica-a");
+        });
+    }
+
+    @Test
+    void laggingOrUnreachableReplica_fallsBackToThePrimary_untilItRecovers() throws Exception {
+        database("primary", false);
+        database("replica-a", true);
+
+        contextRunner("replica-a").run(context -> {
+            DataSource dataSource = context.getBean(DataSource.class);
+            ReadWriteRoutingDataSource routing = context.getBean(ReadWriteRoutingDataSource.class);
+            assertThat(whoAmI(dataSource, true)).isEqualTo("replica-a");
+
+            execute("replica-a", "update replica_lag set lag_seconds = 60");
+            routing.checkReplicas();
+            assertThat(whoAmI(dataSource, true)).isEqualTo("primary");
+
+            execute("replica-a", "update replica_lag set lag_seconds = null");
+            routing.checkReplicas();
+            assertThat(whoAmI(dataSource, true)).isEqualTo("primary");
+
+            execute("replica-a", "update replica_lag set lag_seconds = 3");
+            routing.checkReplicas();
+            assertThat(whoAmI(dataSource, true)).isEqualTo("replica-a");
+
+            execute("replica-a", "shutdown");
+            routing.checkReplicas();
+            assertThat(whoAmI(dataSource, true)).isEqualTo("primary");
+        });
+    }
+
+    @Test
+    void readsAfterAWrite_areNotCachedFromALaggingReplica() throws Exception {
+        database("replica-a", true);
+
+        try (ConfigurableApplicationContext app = application("replica-a")) {
+            AccountService accounts = app.getBean(AccountService.class);
+            MockMvc mvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) app).build();
+            AccountDto account = accounts.create(new CreateAccountRequest("Lagging", null, new BigDecimal("10.00")));
+            replicate("replica-a");
+            app.getBean(ReadWriteRoutingDataSource.class).checkReplicas();
+            mvc.perform(get("/api/accounts/" + account.getId())).andExpect(status().isOk());
+
+            // the replica never sees the deposit
+            accounts.deposit(account.getId(), new BigDecimal("5.00"));
+
+            mvc.perform(get("/api/accounts").param("limit", "10"))
+                    .andExpect(jsonPath("$.items[0].balance").value(10.00));
+            for (int i = 0; i < 2; i++) {
+                mvc.perform(get("/api/accounts/" + account.getId()))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.balance").value(15.00));
+            }
+        }
+    }
+
+    @Test
+    void numberFilterAndSearchIndex_areRebuiltFromThePrimary() throws Exception {
+        database("replica-a", true);
+
+        try (ConfigurableApplicationContext app = application("replica-a")) {
+            AccountService accounts = app.getBean(AccountService.class);
+            replicate("replica-a");
+            app.getBean(ReadWriteRoutingDataSource.class).checkReplicas();
+            // only the primary has it
+            AccountDto account = accounts.create(new CreateAccountRequest("Zebediah Unreplicated", null, BigDecimal.ONE));
+
+            app.getBean(AccountNumberFilter.class).rebuild();
+            app.getBean(AccountSearchIndexLoader.class).afterSingletonsInstantiated();
+
+            assertThat(app.getBean(AccountNumberFilter.class).mightContain(account.getAccountNumber())).isTrue();
+            assertThat(accounts.getByAccountNumber(account.getAccountNumber()).getId()).isEqualTo(account.getId());
+            assertThat(app.getBean(AccountSearchIndex.class).search("zebediah", 10)).containsExactly(account.getId());
+        }
+    }
+}
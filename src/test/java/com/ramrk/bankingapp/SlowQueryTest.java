@@ -0,0 +1,184 @@
+package com.ramrk.bankingapp;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.jdbc.AdmissionLimitedDataSource;
+import com.ramrk.bankingapp.jdbc.StatementShapeDataSource;
+import com.ramrk.bankingapp.jdbc.StatementShapes;
+import com.ramrk.bankingapp.service.AccountService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * A zero threshold makes every statement slow, so the slow counts can be checked
+ * without waiting on the database.
+ */
+@SpringBootTest(properties = {
+        "banking.slow-query.threshold=0ms",
+        "banking.slow-query.sample-rate=0",
+        "management.endpoints.web.exposure.include=slowqueries"
+})
+@ActiveProfiles("test")
+public class SlowQueryTest {
+
+    @Autowired
+    private WebApplicationContext wac;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private StatementShapes shapes;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    @SuppressWarnings("unused")
+    void setUp() {
+        this.mvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+        shapes.reset();
+    }
+
+    private Optional<StatementShapes.Snapshot> shape(String prefix) {
+        return shapes.top(1000, StatementShapes.Order.COUNT).stream().filter(s -> s.shape().startsWith(prefix)).findFirst();
+    }
+
+    @Test
+    void statementTimer_wrapsTheAdmissionLimitedPool() {
+        assertThat(dataSource).isInstanceOf(StatementShapeDataSource.class);
+        assertThat(((StatementShapeDataSource) dataSource).getTargetDataSource()).isInstanceOf(AdmissionLimitedDataSource.class);
+        assertThat(meterRegistry.find("banking.admission.waiting").gauge()).isNotNull();
+    }
+
+    @Test
+    void statements_areAggregatedPerShape_withRowsWritten() {
+        for (int i = 0; i < 5; i++) {
+            accountService.create(new CreateAccountRequest("Shape " + i, null, BigDecimal.TEN));
+        }
+        accountService.getAll(null, 1000);
+
+        StatementShapes.Snapshot insert = shape("insert into accounts").orElseThrow();
+        assertThat(insert.count()).isEqualTo(5);
+        assertThat(insert.rows()).isEqualTo(5);
+        assertThat(insert.slow()).isEqualTo(5);
+        assertThat(insert.maxMs()).isGreaterThanOrEqualTo(insert.p50Ms() / 1.25);
+
+        // the page query is timed; the rows it reads are not counted
+        assertThat(shapes.top(1000, StatementShapes.Order.COUNT))
+                .anyMatch(s -> s.shape().startsWith("select") && s.shape().contains("from accounts") && s.count() == 1 && s.rows() == 0);
+    }
+
+    @Test
+    void shapes_replaceLiteralsAndFoldParameterLists() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists shape_probe (id bigint, t1_0 varchar(20))");
+            statement.executeUpdate("insert into shape_probe values (1, 'x'), (2, 'y')");
+            statement.executeUpdate("insert into shape_probe values (3, 'z')");
+            try (ResultSet rows = statement.executeQuery("select id from shape_probe where id > 0")) {
+                // the driver's own result set, so reading it goes through no proxy
+                assertThat(Proxy.isProxyClass(rows.getClass())).isFalse();
+                while (rows.next()) {
+                    rows.getLong(1);
+                }
+            }
+            statement.execute("select *  from shape_probe\n where t1_0 = 'O''Brien' and id in (1, 2, 3) and id > 10.50 limit 20");
+            statement.execute("select * from shape_probe where t1_0 = 'Smith' and id in (4,5) and id > 3 limit 100");
+        }
+
+        assertThat(shape("insert into shape_probe values (?...), (?...)").orElseThrow().rows()).isEqualTo(2);
+        assertThat(shape("insert into shape_probe values (?...)").orElseThrow().rows()).isEqualTo(1);
+        assertThat(shape("select id from shape_probe where id > ?").orElseThrow().count()).isEqualTo(1);
+        assertThat(shape("select * from shape_probe where t1_0 = ? and id in (?...) and id > ? limit ?").orElseThrow().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void failingStatements_areTimedAndCountedAsFailed() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            assertThrows(SQLException.class, () -> statement.executeQuery("select id from missing_probe where id = 1"));
+            statement.execute("create table if not exists failing_probe (id bigint primary key)");
+            statement.executeUpdate("insert into failing_probe values (1)");
+            assertThrows(SQLException.class, () -> statement.executeUpdate("insert into failing_probe values (1)"));
+        }
+
+        StatementShapes.Snapshot missing = shape("select id from missing_probe").orElseThrow();
+        assertThat(missing.count()).isEqualTo(1);
+        assertThat(missing.failed()).isEqualTo(1);
+        assertThat(missing.slow()).isEqualTo(1);
+        StatementShapes.Snapshot inserts = shape("insert into failing_probe").orElseThrow();
+        assertThat(inserts.count()).isEqualTo(2);
+        assertThat(inserts.failed()).isEqualTo(1);
+        assertThat(inserts.rows()).isEqualTo(1);
+    }
+
+    @Test
+    void plainStatementBatches_recordEveryStatement() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists batch_probe (id bigint, name varchar(20))");
+            statement.addBatch("insert into batch_probe values (1, 'a')");
+            statement.addBatch("insert into batch_probe values (2, 'b')");
+            statement.executeBatch();
+            statement.addBatch("insert into batch_probe values (3, 'c')");
+            statement.addBatch("delete from batch_probe where id = 1");
+            statement.executeBatch();
+        }
+
+        StatementShapes.Snapshot inserts = shape("insert into batch_probe values (?...)").orElseThrow();
+        assertThat(inserts.count()).isEqualTo(1);
+        assertThat(inserts.rows()).isEqualTo(2);
+        StatementShapes.Snapshot mixed = shape("batch: insert into batch_probe values (?...); delete from batch_probe where id = ?")
+                .orElseThrow();
+        assertThat(mixed.count()).isEqualTo(1);
+        assertThat(mixed.rows()).isEqualTo(2);
+    }
+
+    @Test
+    void endpoint_listsTopShapes_andResets() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            accountService.create(new CreateAccountRequest("Endpoint " + i, null, BigDecimal.ONE));
+        }
+        accountService.getAll(null, 10);
+
+        mvc.perform(get("/actuator/slowqueries").param("order", "count").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].shape").isString())
+                .andExpect(jsonPath("$[0].p99Ms").isNumber());
+        mvc.perform(get("/actuator/slowqueries").param("order", "fastest")).andExpect(status().isBadRequest());
+        mvc.perform(get("/actuator/slowqueries").param("limit", "-1")).andExpect(status().isBadRequest());
+        assertThat(shapes.top(-1, StatementShapes.Order.P99)).isEmpty();
+
+        mvc.perform(delete("/actuator/slowqueries")).andExpect(status().is2xxSuccessful());
+        assertThat(shapes.top(100, StatementShapes.Order.COUNT)).isEmpty();
+    }
+}
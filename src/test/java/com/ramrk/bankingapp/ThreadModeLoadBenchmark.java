@@ -0,0 +1,152 @@
+package com.ramrk.bankingapp;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * getById and create latency under many concurrent clients, served by Tomcat's
+ * platform pool and by virtual threads, with and without the admission limiter.
+ * Each mode gets its own application on a random port with a small Hikari pool
+ * and the account cache disabled, so every request needs a connection.
+ * Run with {@code mvn -Pbenchmark test}; size it with -Dbench.clients and
+ * -Dbench.requests (per client).
+ */
+@Tag("benchmark")
+public class ThreadModeLoadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("bench.clients", 2_000);
+    private static final int REQUESTS = Integer.getInteger("bench.requests", 10);
+    private static final int POOL_SIZE = 10;
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        System.out.printf("%nThread mode load: %d clients x %d requests, pool of %d%n", CLIENTS, REQUESTS, POOL_SIZE);
+        System.out.printf("  %-28s %-8s %9s %9s %9s %9s %8s%n", "mode", "call", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "errors");
+        for (String[] mode : new String[][] {
+                {"platform, no limiter", "false", "false"},
+                {"platform, limiter", "false", "true"},
+                {"virtual, no limiter", "true", "false"},
+                {"virtual, limiter", "true", "true"}}) {
+            Result[] results = run(Boolean.parseBoolean(mode[1]), Boolean.parseBoolean(mode[2]));
+            for (Result r : results) {
+                System.out.printf("  %-28s %-8s %9.0f %9.1f %9.1f %9.1f %8d%n", mode[0], r.call,
+                        r.throughput, r.percentile(0.50), r.percentile(0.99), r.percentile(0.999), r.errors);
+            }
+            if (Boolean.parseBoolean(mode[2])) {
+                // with the limiter, queueing replaces connection timeouts
+                for (Result r : results) {
+                    assertThat(r.errors).isZero();
+                }
+            }
+        }
+    }
+
+    private Result[] run(boolean virtualThreads, boolean limiter) throws Exception {
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(BankingappApplication.class)
+                .profiles("test")
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "banking.admission.enabled=" + limiter,
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "spring.datasource.hikari.connection-timeout=2000",
+                        "spring.datasource.url=jdbc:h2:mem:load" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                        "server.tomcat.accept-count=" + CLIENTS,
+                        "server.tomcat.max-connections=" + (CLIENTS * 2),
+                        "banking.cache.l2=none",
+                        "banking.cache.l1-maximum-size=0",
+                        "logging.level.root=WARN")
+                .run();
+             HttpClient http = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+            String base = "http://localhost:" + app.getEnvironment().getProperty("local.server.port") + "/api/accounts";
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                String body = http.send(create(base, i), HttpResponse.BodyHandlers.ofString()).body();
+                ids.add(Long.parseLong(body.replaceAll(".*\"id\":(\\d+).*", "$1")));
+            }
+            http.send(HttpRequest.newBuilder(URI.create(base + "/" + ids.get(0))).build(), HttpResponse.BodyHandlers.discarding());
+
+            Result reads = new Result("getById", CLIENTS * REQUESTS);
+            Result writes = new Result("create", CLIENTS * REQUESTS);
+            load(reads, () -> HttpRequest.newBuilder(URI.create(base + "/" + ids.get(ThreadLocalRandom.current().nextInt(ids.size()))))
+                    .timeout(Duration.ofSeconds(60)).build(), http);
+            AtomicInteger n = new AtomicInteger();
+            load(writes, () -> create(base, n.incrementAndGet()), http);
+            return new Result[] {reads, writes};
+        }
+    }
+
+    private static HttpRequest create(String base, int i) {
+        return HttpRequest.newBuilder(URI.create(base))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"ownerName\":\"Load " + i + "\",\"email\":\"load" + i + "@example.com\",\"initialDeposit\":10}"))
+                .build();
+    }
+
+    private static void load(Result result, Supplier<HttpRequest> requests, HttpClient http) {
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.submit(() -> {
+                    for (int i = 0; i < REQUESTS; i++) {
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(requests.get(), HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 300) {
+                                result.failed.increment();
+                            }
+                        } catch (Exception e) {
+                            result.failed.increment();
+                        }
+                        result.record(System.nanoTime() - t0);
+                    }
+                });
+            }
+        }
+        result.throughput = result.count.get() / ((System.nanoTime() - start) / 1e9);
+        result.errors = result.failed.sum();
+    }
+
+    private static final class Result {
+        final String call;
+        final long[] latencies;
+        final AtomicInteger count = new AtomicInteger();
+        final LongAdder failed = new LongAdder();
+        double throughput;
+        long errors;
+
+        Result(String call, int samples) {
+            this.call = call;
+            this.latencies = new long[samples];
+        }
+
+        void record(long nanos) {
+            latencies[count.getAndIncrement()] = nanos;
+        }
+
+        double percentile(double p) {
+            long[] sorted = Arrays.copyOf(latencies, count.get());
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+        }
+    }
+}
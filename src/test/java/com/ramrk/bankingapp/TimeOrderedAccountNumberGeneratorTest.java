@@ -0,0 +1,104 @@
+package com.ramrk.bankingapp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import com.ramrk.bankingapp.service.impl.TimeOrderedAccountNumberGenerator;
+
+public class TimeOrderedAccountNumberGeneratorTest {
+
+    @Test
+    void numbers_areWellFormed_andCarryTheNodeId() {
+        TimeOrderedAccountNumberGenerator generator = new TimeOrderedAccountNumberGenerator(42);
+
+        String number = generator.next();
+
+        assertThat(number).hasSize(TimeOrderedAccountNumberGenerator.LENGTH).containsOnlyDigits();
+        assertThat(number.substring(16, 18)).isEqualTo("42");
+        assertThat(TimeOrderedAccountNumberGenerator.isWellFormed(number)).isTrue();
+    }
+
+    @Test
+    void checkDigit_catchesSingleDigitTypos() {
+        String number = new TimeOrderedAccountNumberGenerator(1).next();
+        char[] typo = number.toCharArray();
+        typo[5] = typo[5] == '9' ? '0' : (char) (typo[5] + 1);
+
+        assertThat(TimeOrderedAccountNumberGenerator.isWellFormed(new String(typo))).isFalse();
+        assertThat(TimeOrderedAccountNumberGenerator.isWellFormed("ABC")).isFalse();
+    }
+
+    @Test
+    void concurrentCallers_getUniqueNumbers_increasingPerThread() throws Exception {
+        TimeOrderedAccountNumberGenerator generator = new TimeOrderedAccountNumberGenerator(7);
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService threads = Executors.newFixedThreadPool(16)) {
+            for (int t = 0; t < 16; t++) {
+                results.add(threads.submit(() -> {
+                    String previous = "";
+                    boolean increasing = true;
+                    for (int i = 0; i < 50_000; i++) {
+                        String next = generator.next();
+                        increasing &= next.compareTo(previous) > 0;
+                        seen.add(next);
+                        previous = next;
+                    }
+                    return increasing;
+                }));
+            }
+        }
+        for (Future<Boolean> result : results) {
+            assertThat(result.get()).isTrue();
+        }
+        assertThat(seen).hasSize(16 * 50_000);
+    }
+
+    @Test
+    void clockGoingBackwards_neverRepeatsANumber() {
+        long[] now = {System.currentTimeMillis()};
+        TimeOrderedAccountNumberGenerator generator = new TimeOrderedAccountNumberGenerator(0, () -> now[0]);
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            numbers.add(generator.next());
+            now[0] -= 1_000;
+        }
+
+        assertThat(numbers).doesNotHaveDuplicates().isSorted();
+    }
+
+    @Test
+    void virtualThreads_takeOneSequenceValueEach() throws Exception {
+        long fixed = System.currentTimeMillis();
+        TimeOrderedAccountNumberGenerator generator = new TimeOrderedAccountNumberGenerator(0, () -> fixed);
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 100; i++) {
+                results.add(threads.submit(generator::next));
+            }
+        }
+        List<Long> sequences = new ArrayList<>();
+        for (Future<String> result : results) {
+            sequences.add(Long.parseLong(result.get().substring(0, 16)));
+        }
+
+        // no block is reserved and dropped per thread, so the counter moved by exactly 100
+        assertThat(sequences).doesNotHaveDuplicates();
+        assertThat(sequences.stream().mapToLong(Long::longValue).max().getAsLong()
+                - sequences.stream().mapToLong(Long::longValue).min().getAsLong()).isEqualTo(99);
+    }
+
+    @Test
+    void nodeIdOutOfRange_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedAccountNumberGenerator(100));
+    }
+}
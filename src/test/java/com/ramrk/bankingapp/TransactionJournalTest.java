@@ -0,0 +1,117 @@
+package com.ramrk.bankingapp;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.ramrk.bankingapp.config.JournalProperties;
+import com.ramrk.bankingapp.journal.JournalRecord;
+import com.ramrk.bankingapp.journal.TransactionJournal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TransactionJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void concurrentAppends_areAllReadBackInSequence_acrossSegments() throws Exception {
+        JournalProperties properties = properties();
+        properties.setSegmentSize(DataSize.ofKilobytes(4));
+        TransactionJournal journal = new TransactionJournal(properties, new SimpleMeterRegistry());
+
+        List<CompletableFuture<Void>> commits = IntStream.range(0, 200).parallel()
+                .mapToObj(i -> journal.append(List.of(deposit(i, "1.50", i + 1))))
+                .toList();
+        CompletableFuture.allOf(commits.toArray(CompletableFuture[]::new)).join();
+        journal.close();
+
+        List<JournalRecord> read = readAll(properties);
+        assertThat(read).hasSize(200);
+        assertThat(read).extracting(JournalRecord::sequence).containsExactlyElementsOf(LongStream.rangeClosed(1, 200).boxed().toList());
+        assertThat(read).extracting(JournalRecord::accountId).containsExactlyInAnyOrderElementsOf(
+                IntStream.range(0, 200).mapToObj(i -> (long) i).toList());
+        assertThat(read.get(0).amount()).isEqualByComparingTo("1.50");
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files.count()).isGreaterThan(1);
+        }
+    }
+
+    @Test
+    void reopen_dropsTornTail_andContinuesTheSequence() throws Exception {
+        JournalProperties properties = properties();
+        TransactionJournal journal = new TransactionJournal(properties, new SimpleMeterRegistry());
+        journal.append(List.of(deposit(1, "10.00", 1), deposit(2, "20.00", 1), deposit(3, "30.00", 1))).join();
+        journal.close();
+
+        // damage the second record's payload, as a write cut short by a crash would
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0x7f}), 16 + 59 + 20);
+        }
+
+        TransactionJournal reopened = new TransactionJournal(properties, new SimpleMeterRegistry());
+        reopened.append(List.of(deposit(4, "40.00", 1))).join();
+        reopened.close();
+
+        List<JournalRecord> read = readAll(properties);
+        assertThat(read).extracting(JournalRecord::accountId).containsExactly(1L, 4L);
+        assertThat(read).extracting(JournalRecord::sequence).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void asyncMode_releasesWritersBeforeTheFlush() throws Exception {
+        JournalProperties properties = properties();
+        properties.setSync(false);
+        properties.setFlushInterval(Duration.ofSeconds(10));
+        properties.setMaxBatch(1_000);
+        TransactionJournal journal = new TransactionJournal(properties, new SimpleMeterRegistry());
+
+        assertThat(journal.append(List.of(deposit(1, "1.00", 1)))).isDone();
+        journal.close();
+        assertThat(readAll(properties)).hasSize(1);
+    }
+
+    private JournalProperties properties() {
+        JournalProperties properties = new JournalProperties();
+        properties.setDir(dir.toString());
+        properties.setFlushInterval(Duration.ofMillis(1));
+        return properties;
+    }
+
+    private static List<JournalRecord> readAll(JournalProperties properties) throws IOException {
+        TransactionJournal reader = new TransactionJournal(properties, new SimpleMeterRegistry());
+        List<JournalRecord> read = new ArrayList<>();
+        reader.forEach(read::add);
+        try {
+            reader.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return read;
+    }
+
+    private static JournalRecord deposit(long accountId, String amount, long version) {
+        return JournalRecord.of(JournalRecord.Type.DEPOSIT, accountId, new BigDecimal(amount), new BigDecimal(amount), version);
+    }
+}
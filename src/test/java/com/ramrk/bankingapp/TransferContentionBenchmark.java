@@ -0,0 +1,99 @@
+package com.ramrk.bankingapp;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ramrk.bankingapp.dto.CreateAccountRequest;
+import com.ramrk.bankingapp.engine.ConflictRetry;
+import com.ramrk.bankingapp.exception.InsufficientFundsException;
+import com.ramrk.bankingapp.model.Account;
+import com.ramrk.bankingapp.repository.AccountRepository;
+import com.ramrk.bankingapp.service.AccountService;
+
+/**
+ * Many threads doing random transfers over a small set of accounts on H2.
+ * Reports throughput and conflict-retry rate and checks that no money was created
+ * or destroyed. Run with {@code mvn -Pbenchmark test}; size it with
+ * -Dbench.accounts, -Dbench.threads and -Dbench.transfers.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+public class TransferContentionBenchmark {
+
+    private static final int ACCOUNTS = Integer.getInteger("bench.accounts", 16);
+    private static final int THREADS = Integer.getInteger("bench.threads", 32);
+    private static final int TRANSFERS = Integer.getInteger("bench.transfers", 20_000);
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ConflictRetry conflictRetry;
+
+    @Test
+    void randomTransfers_conserveTotalBalance() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ids.add(accountService.create(new CreateAccountRequest("Bench " + i, null, OPENING_BALANCE)).getId());
+        }
+        BigDecimal before = total(ids);
+
+        LongAdder completed = new LongAdder();
+        LongAdder insufficient = new LongAdder();
+        LongAdder failed = new LongAdder();
+        long retriesBefore = conflictRetry.retries();
+        long start = System.nanoTime();
+        try (ExecutorService threads = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < TRANSFERS; i++) {
+                threads.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    Long from = ids.get(random.nextInt(ACCOUNTS));
+                    Long to = ids.get(random.nextInt(ACCOUNTS));
+                    if (from.equals(to)) {
+                        to = ids.get((ids.indexOf(from) + 1) % ACCOUNTS);
+                    }
+                    try {
+                        accountService.transfer(from, to, BigDecimal.valueOf(random.nextInt(1, 50)));
+                        completed.increment();
+                    } catch (InsufficientFundsException e) {
+                        insufficient.increment();
+                    } catch (RuntimeException e) {
+                        failed.increment();
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long retries = conflictRetry.retries() - retriesBefore;
+
+        System.out.printf("%nTransfer contention: %d accounts, %d threads, %d transfers%n", ACCOUNTS, THREADS, TRANSFERS);
+        System.out.printf("  elapsed        %.2f s%n", seconds);
+        System.out.printf("  throughput     %.0f transfers/s%n", TRANSFERS / seconds);
+        System.out.printf("  completed      %d (insufficient funds %d, failed %d)%n", completed.sum(), insufficient.sum(), failed.sum());
+        System.out.printf("  retries        %d (%.2f%% of transfers)%n", retries, 100.0 * retries / TRANSFERS);
+
+        assertThat(failed.sum()).isZero();
+        assertThat(total(ids)).isEqualByComparingTo(before);
+    }
+
+    private BigDecimal total(List<Long> ids) {
+        return accountRepository.findAllById(ids).stream().map(Account::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}